@@ -0,0 +1,149 @@
+package io.irontest.benchmarks;
+
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.Option;
+import com.jayway.jsonpath.spi.json.JacksonJsonProvider;
+import com.jayway.jsonpath.spi.json.JsonProvider;
+import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
+import com.jayway.jsonpath.spi.mapper.MappingProvider;
+import io.irontest.core.assertion.AssertionVerifier;
+import io.irontest.core.assertion.AssertionVerifierFactory;
+import io.irontest.models.Properties;
+import io.irontest.models.assertion.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks each assertion verifier that works on a message payload, against small and large payloads.
+ * Assertions on HTTP stub requests and MQRFH2 headers are not covered, as they need a running WireMock server or MQ.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AssertionVerifierBenchmark {
+    @Param({Assertion.TYPE_CONTAINS, Assertion.TYPE_TEXT_EQUAL, Assertion.TYPE_SUBSTRING, Assertion.TYPE_REGEX_MATCH,
+            Assertion.TYPE_XPATH, Assertion.TYPE_XML_EQUAL, Assertion.TYPE_XML_VALID_AGAINST_XSD,
+            Assertion.TYPE_JSON_EQUAL, Assertion.TYPE_JSONPATH, Assertion.TYPE_JSONPATH_XMLEQUAL})
+    private String assertionType;
+
+    @Param({Payloads.SIZE_SMALL, Payloads.SIZE_LARGE})
+    private String payloadSize;
+
+    private AssertionVerifier verifier;
+    private String input;
+
+    @Setup
+    public void setUp() throws IOException {
+        //  same JSONPath configuration as IronTestApplication
+        Configuration.setDefaults(new Configuration.Defaults() {
+            private final JsonProvider jsonProvider = new JacksonJsonProvider();
+            private final MappingProvider mappingProvider = new JacksonMappingProvider();
+
+            @Override
+            public JsonProvider jsonProvider() {
+                return jsonProvider;
+            }
+
+            @Override
+            public MappingProvider mappingProvider() {
+                return mappingProvider;
+            }
+
+            @Override
+            public Set<Option> options() {
+                return EnumSet.noneOf(Option.class);
+            }
+        });
+
+        String xml = Payloads.xml(payloadSize);
+        String json = Payloads.json(payloadSize);
+        int itemCount = Payloads.itemCount(payloadSize);
+        Properties otherProperties;
+        switch (assertionType) {
+            case Assertion.TYPE_CONTAINS:
+                otherProperties = new ContainsAssertionProperties("<name>Item " + (itemCount - 1) + "</name>");
+                input = xml;
+                break;
+            case Assertion.TYPE_TEXT_EQUAL:
+                TextEqualAssertionProperties textEqualProperties = new TextEqualAssertionProperties();
+                textEqualProperties.setExpectedText(xml);
+                otherProperties = textEqualProperties;
+                input = xml;
+                break;
+            case Assertion.TYPE_SUBSTRING:
+                SubstringAssertionProperties substringProperties = new SubstringAssertionProperties();
+                substringProperties.setBeginIndex("0");
+                substringProperties.setEndIndex("6");
+                substringProperties.setExpectedValue("<root>");
+                otherProperties = substringProperties;
+                input = xml;
+                break;
+            case Assertion.TYPE_REGEX_MATCH:
+                RegexMatchAssertionProperties regexMatchProperties = new RegexMatchAssertionProperties();
+                regexMatchProperties.setRegex("<root><item id=\"0\">.*<value>\\d+</value></item></root>");
+                otherProperties = regexMatchProperties;
+                input = xml;
+                break;
+            case Assertion.TYPE_XPATH:
+                XPathAssertionProperties xPathProperties = new XPathAssertionProperties();
+                xPathProperties.setxPath("count(/root/item)");
+                xPathProperties.setExpectedValue(String.valueOf(itemCount));
+                otherProperties = xPathProperties;
+                input = xml;
+                break;
+            case Assertion.TYPE_XML_EQUAL:
+                XMLEqualAssertionProperties xmlEqualProperties = new XMLEqualAssertionProperties();
+                xmlEqualProperties.setExpectedXML(xml);
+                otherProperties = xmlEqualProperties;
+                input = xml;
+                break;
+            case Assertion.TYPE_XML_VALID_AGAINST_XSD:
+                XMLValidAgainstXSDAssertionProperties xsdProperties = new XMLValidAgainstXSDAssertionProperties();
+                xsdProperties.setFileName("benchmark.xsd");
+                xsdProperties.setFileBytes(Payloads.XSD.getBytes());
+                otherProperties = xsdProperties;
+                input = xml;
+                break;
+            case Assertion.TYPE_JSON_EQUAL:
+                JSONEqualAssertionProperties jsonEqualProperties = new JSONEqualAssertionProperties();
+                jsonEqualProperties.setExpectedJSON(json);
+                otherProperties = jsonEqualProperties;
+                input = json;
+                break;
+            case Assertion.TYPE_JSONPATH:
+                JSONPathAssertionProperties jsonPathProperties = new JSONPathAssertionProperties();
+                jsonPathProperties.setJsonPath("$.items.length()");
+                jsonPathProperties.setExpectedValueJSON(String.valueOf(itemCount));
+                otherProperties = jsonPathProperties;
+                input = json;
+                break;
+            case Assertion.TYPE_JSONPATH_XMLEQUAL:
+                JSONPathXMLEqualAssertionProperties jsonPathXMLEqualProperties = new JSONPathXMLEqualAssertionProperties();
+                jsonPathXMLEqualProperties.setJsonPath("$.xml");
+                jsonPathXMLEqualProperties.setExpectedXML(xml);
+                otherProperties = jsonPathXMLEqualProperties;
+                input = Payloads.jsonWrappingXml(payloadSize);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported assertion type " + assertionType);
+        }
+
+        Assertion assertion = new Assertion(assertionType);
+        assertion.setName(assertionType + " assertion");
+        assertion.setOtherProperties(otherProperties);
+        verifier = AssertionVerifierFactory.getInstance().create(assertion, Collections.emptyMap());
+    }
+
+    @Benchmark
+    public AssertionVerificationResult verify() throws Exception {
+        return verifier.verify(input, null);
+    }
+}
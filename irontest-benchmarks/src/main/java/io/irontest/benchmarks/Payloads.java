@@ -0,0 +1,54 @@
+package io.irontest.benchmarks;
+
+/**
+ * Generates XML and JSON payloads of different sizes for the benchmarks.
+ */
+final class Payloads {
+    static final String SIZE_SMALL = "small";
+    static final String SIZE_LARGE = "large";
+
+    static final String XSD = "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\">" +
+            "<xs:element name=\"root\"><xs:complexType><xs:sequence>" +
+            "<xs:element name=\"item\" minOccurs=\"0\" maxOccurs=\"unbounded\"><xs:complexType><xs:sequence>" +
+            "<xs:element name=\"name\" type=\"xs:string\"/><xs:element name=\"value\" type=\"xs:int\"/>" +
+            "</xs:sequence><xs:attribute name=\"id\" type=\"xs:int\"/></xs:complexType></xs:element>" +
+            "</xs:sequence></xs:complexType></xs:element></xs:schema>";
+
+    private Payloads() { }
+
+    /**
+     * @param size {@link #SIZE_SMALL} (around 0.5KB) or {@link #SIZE_LARGE} (around 500KB)
+     * @return number of items in the payload
+     */
+    static int itemCount(String size) {
+        return SIZE_LARGE.equals(size) ? 10000 : 10;
+    }
+
+    static String xml(String size) {
+        StringBuilder sb = new StringBuilder("<root>");
+        for (int i = 0; i < itemCount(size); i++) {
+            sb.append("<item id=\"").append(i).append("\"><name>Item ").append(i).append("</name><value>")
+                    .append(i).append("</value></item>");
+        }
+        return sb.append("</root>").toString();
+    }
+
+    static String json(String size) {
+        StringBuilder sb = new StringBuilder("{\"items\":[");
+        for (int i = 0; i < itemCount(size); i++) {
+            if (i > 0) {
+                sb.append(",");
+            }
+            sb.append("{\"id\":").append(i).append(",\"name\":\"Item ").append(i).append("\",\"value\":")
+                    .append(i).append("}");
+        }
+        return sb.append("]}").toString();
+    }
+
+    /**
+     * @return a JSON object with the XML payload as the value of its 'xml' field.
+     */
+    static String jsonWrappingXml(String size) {
+        return "{\"xml\":\"" + xml(size).replace("\"", "\\\"") + "\"}";
+    }
+}
@@ -0,0 +1,65 @@
+package io.irontest.benchmarks;
+
+import io.irontest.core.MapValueLookup;
+import io.irontest.core.teststep.TeststepRunner;
+import io.irontest.core.teststep.TeststepRunnerFactory;
+import io.irontest.models.HTTPMethod;
+import io.irontest.models.teststep.HTTPHeader;
+import io.irontest.models.teststep.HTTPTeststepProperties;
+import io.irontest.models.teststep.Teststep;
+import org.apache.commons.text.StrSubstitutor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks string property reference resolution, standalone (MapValueLookup) and as done by
+ * TeststepRunnerFactory when creating a test step runner.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PropertyResolutionBenchmark {
+    @Param({"10", "1000"})
+    private int propertyCount;
+
+    private Map<String, String> referenceableStringProperties;
+    private String request;
+
+    @Setup
+    public void setUp() {
+        referenceableStringProperties = new HashMap<>();
+        StringBuilder sb = new StringBuilder("<request>");
+        for (int i = 0; i < propertyCount; i++) {
+            referenceableStringProperties.put("property" + i, "value " + i);
+            sb.append("<field>${property").append(i).append("}</field>");
+        }
+        request = sb.append("</request>").toString();
+    }
+
+    @Benchmark
+    public String mapValueLookup() {
+        return new StrSubstitutor(new MapValueLookup(referenceableStringProperties, false)).replace(request);
+    }
+
+    @Benchmark
+    public TeststepRunner newTeststepRunner() throws Exception {
+        //  create a new test step for each invocation, as the factory resolves property references in place
+        Teststep teststep = new Teststep(Teststep.TYPE_HTTP);
+        teststep.setName("HTTP step");
+        HTTPTeststepProperties otherProperties = new HTTPTeststepProperties();
+        otherProperties.setHttpMethod(HTTPMethod.POST);
+        otherProperties.getHttpHeaders().add(new HTTPHeader("Content-Type", "application/xml"));
+        otherProperties.getHttpHeaders().add(new HTTPHeader("X-Property", "${property0}"));
+        teststep.setOtherProperties(otherProperties);
+        teststep.setRequest(request);
+        return TeststepRunnerFactory.getInstance().newTeststepRunner(
+                teststep, null, referenceableStringProperties, Collections.emptyMap(), null);
+    }
+}
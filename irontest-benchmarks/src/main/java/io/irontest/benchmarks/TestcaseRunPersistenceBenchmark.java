@@ -0,0 +1,132 @@
+package io.irontest.benchmarks;
+
+import io.irontest.core.teststep.HTTPAPIResponse;
+import io.irontest.db.*;
+import io.irontest.models.HTTPMethod;
+import io.irontest.models.TestResult;
+import io.irontest.models.assertion.*;
+import io.irontest.models.testrun.RegularTestcaseRun;
+import io.irontest.models.testrun.TeststepRun;
+import io.irontest.models.teststep.HTTPHeader;
+import io.irontest.models.teststep.HTTPTeststepProperties;
+import io.irontest.models.teststep.Teststep;
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.sqlobject.SqlObjectPlugin;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks persisting test case runs (TestcaseRunDAO.insert) and loading a test step run (which is deserialized by
+ * TeststepRunMapper), against an in-memory H2 database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TestcaseRunPersistenceBenchmark {
+    @Param({"10", "100"})
+    private int teststepRunCount;
+
+    @Param({Payloads.SIZE_SMALL, Payloads.SIZE_LARGE})
+    private String payloadSize;
+
+    private Jdbi jdbi;
+    private TestcaseRunDAO testcaseRunDAO;
+    private TeststepRunDAO teststepRunDAO;
+    private String responseBody;
+    private long persistedTeststepRunId;
+
+    @Setup
+    public void setUp() throws Exception {
+        jdbi = Jdbi.create("jdbc:h2:mem:irontest_benchmark;DB_CLOSE_DELAY=-1");
+        jdbi.installPlugin(new SqlObjectPlugin());
+        jdbi.registerArgument(new PropertiesArgumentFactory());
+
+        testcaseRunDAO = jdbi.onDemand(TestcaseRunDAO.class);
+        TestcaseIndividualRunDAO testcaseIndividualRunDAO = jdbi.onDemand(TestcaseIndividualRunDAO.class);
+        teststepRunDAO = jdbi.onDemand(TeststepRunDAO.class);
+
+        //  keep the order!!! (there are foreign keys linking the tables)
+        testcaseRunDAO.createSequenceIfNotExists();
+        testcaseRunDAO.createTableIfNotExists();
+        testcaseIndividualRunDAO.createSequenceIfNotExists();
+        testcaseIndividualRunDAO.createTableIfNotExists();
+        teststepRunDAO.createSequenceIfNotExists();
+        teststepRunDAO.createTableIfNotExists();
+
+        responseBody = Payloads.xml(payloadSize);
+        RegularTestcaseRun testcaseRun = newTestcaseRun();
+        testcaseRunDAO.insert(testcaseRun);
+        persistedTeststepRunId = testcaseRun.getStepRuns().get(0).getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        jdbi.useHandle(handle -> handle.execute("DROP ALL OBJECTS"));
+    }
+
+    @Benchmark
+    public long insertTestcaseRun() throws Exception {
+        RegularTestcaseRun testcaseRun = newTestcaseRun();
+        testcaseRunDAO.insert(testcaseRun);
+        return testcaseRun.getId();
+    }
+
+    @Benchmark
+    public TeststepRun findTeststepRun() {
+        return teststepRunDAO.findById(persistedTeststepRunId);
+    }
+
+    private RegularTestcaseRun newTestcaseRun() {
+        RegularTestcaseRun testcaseRun = new RegularTestcaseRun();
+        testcaseRun.setTestcaseId(1);
+        testcaseRun.setTestcaseName("Benchmark test case");
+        testcaseRun.setTestcaseFolderPath("Root/Benchmarks");
+        testcaseRun.setStartTime(new Date());
+        testcaseRun.setDuration(100);
+        testcaseRun.setResult(TestResult.PASSED);
+        for (int i = 0; i < teststepRunCount; i++) {
+            testcaseRun.getStepRuns().add(newTeststepRun(i));
+        }
+        return testcaseRun;
+    }
+
+    private TeststepRun newTeststepRun(int index) {
+        Teststep teststep = new Teststep(Teststep.TYPE_HTTP);
+        teststep.setName("Step " + index);
+        HTTPTeststepProperties otherProperties = new HTTPTeststepProperties();
+        otherProperties.setHttpMethod(HTTPMethod.POST);
+        otherProperties.getHttpHeaders().add(new HTTPHeader("Content-Type", "application/xml"));
+        teststep.setOtherProperties(otherProperties);
+        teststep.setRequest(responseBody);
+
+        HTTPAPIResponse response = new HTTPAPIResponse();
+        response.setStatusCode(200);
+        response.getHttpHeaders().add(new HTTPHeader("Content-Type", "application/xml"));
+        response.setHttpBody(responseBody);
+
+        Assertion assertion = new Assertion(Assertion.TYPE_XML_EQUAL);
+        assertion.setName("Response body equal");
+        XMLEqualAssertionProperties assertionProperties = new XMLEqualAssertionProperties();
+        assertionProperties.setExpectedXML(responseBody);
+        assertion.setOtherProperties(assertionProperties);
+        MessageEqualAssertionVerificationResult verificationResult = new MessageEqualAssertionVerificationResult();
+        verificationResult.setResult(TestResult.PASSED);
+        AssertionVerification verification = new AssertionVerification();
+        verification.setAssertion(assertion);
+        verification.setVerificationResult(verificationResult);
+
+        TeststepRun teststepRun = new TeststepRun();
+        teststepRun.setTeststep(teststep);
+        teststepRun.setResponse(response);
+        teststepRun.getAssertionVerifications().add(verification);
+        teststepRun.setStartTime(new Date());
+        teststepRun.setDuration(10);
+        teststepRun.setResult(TestResult.PASSED);
+        return teststepRun;
+    }
+}
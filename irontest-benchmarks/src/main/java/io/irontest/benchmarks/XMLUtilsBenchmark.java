@@ -0,0 +1,41 @@
+package io.irontest.benchmarks;
+
+import io.irontest.utils.XMLUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XMLUtilsBenchmark {
+    @Param({Payloads.SIZE_SMALL, Payloads.SIZE_LARGE})
+    private String payloadSize;
+
+    private String xml;
+    private String differentXml;
+
+    @Setup
+    public void setUp() {
+        xml = Payloads.xml(payloadSize);
+        differentXml = xml.replace("<value>0</value>", "<value>-1</value>");
+    }
+
+    @Benchmark
+    public String prettyPrintXML() throws Exception {
+        return XMLUtils.prettyPrintXML(xml);
+    }
+
+    @Benchmark
+    public String compareXML_Equal() {
+        return XMLUtils.compareXML(xml, xml);
+    }
+
+    @Benchmark
+    public String compareXML_Different() {
+        return XMLUtils.compareXML(xml, differentXml);
+    }
+}
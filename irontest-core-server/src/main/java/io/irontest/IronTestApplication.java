@@ -1,8 +1,12 @@
 package io.irontest;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
 import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.jknack.handlebars.Handlebars;
 import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
 import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
 import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.Option;
@@ -26,15 +30,21 @@ import io.dropwizard.setup.Bootstrap;
 import io.dropwizard.setup.Environment;
 import io.dropwizard.views.ViewBundle;
 import io.irontest.auth.AuthResponseFilter;
+import io.irontest.auth.CachingResourceAuthenticator;
 import io.irontest.auth.ResourceAuthenticator;
 import io.irontest.auth.ResourceAuthorizer;
 import io.irontest.auth.SimplePrincipal;
+import io.irontest.core.IronTestMetrics;
+import io.irontest.core.schedule.TestcaseRunScheduler;
+import io.irontest.core.teststep.AMQPClientCache;
+import io.irontest.core.teststep.HTTPAPIAsyncInvoker;
 import io.irontest.db.*;
 import io.irontest.models.AppInfo;
 import io.irontest.models.AppMode;
 import io.irontest.resources.*;
 import io.irontest.upgrade.UpgradeCommand;
 import io.irontest.utils.IronTestUtils;
+import io.irontest.worker.WorkerCommand;
 import io.irontest.ws.ArticleSOAP;
 import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
 import org.glassfish.jersey.filter.LoggingFilter;
@@ -43,6 +53,7 @@ import org.jdbi.v3.core.Jdbi;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
@@ -50,6 +61,7 @@ import java.util.Set;
 import java.util.logging.Logger;
 
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static io.irontest.IronTestConstants.WIREMOCK_RESPONSE_TEMPLATE_CACHE_MAXIMUM_SIZE;
 
 public class IronTestApplication extends Application<IronTestConfiguration> {
     private JAXWSBundle jaxWsBundle = new JAXWSBundle();
@@ -66,6 +78,7 @@ public class IronTestApplication extends Application<IronTestConfiguration> {
     @Override
     public void initialize(Bootstrap<IronTestConfiguration> bootstrap) {
         bootstrap.addCommand(new UpgradeCommand());
+        bootstrap.addCommand(new WorkerCommand());
 
         bootstrap.addBundle(new AssetsBundle("/assets/app", "/ui", "index.htm", "ui"));
         bootstrap.addBundle(new AssetsBundle("/META-INF/resources/webjars", "/ui/lib", null, "lib"));
@@ -111,6 +124,10 @@ public class IronTestApplication extends Application<IronTestConfiguration> {
 
     @Override
     public void run(IronTestConfiguration configuration, Environment environment) throws IOException {
+        //  let Iron Test core classes register their metrics into the environment's registry, so that the metrics
+        //  are exposed on the admin connector
+        IronTestMetrics.setRegistry(environment.metrics());
+
         final JdbiFactory jdbiFactory = new JdbiFactory();
         final Jdbi systemDBJdbi = jdbiFactory.build(environment, configuration.getSystemDatabase(), "systemDatabase");
 
@@ -120,26 +137,66 @@ public class IronTestApplication extends Application<IronTestConfiguration> {
             System.exit(0);
         }
 
-        //  Override Java's trusted cacerts with our own trust store if available.
-        //  Notice that setting the properties without the trust store being existing could cause unexpected result
-        //  at runtime with Java 10 (Java 1.8 does not have the issue), such as failure of SOAP test step run (caused
-        //  by 'new SSLContextBuilder().loadTrustMaterial').
+        setSSLTrustStore(configuration);
+
+        WireMockServer wireMockServer = startWireMockServer(configuration, environment);
+
+        createSystemResources(configuration, environment, systemDBJdbi, wireMockServer);
+        createSampleResources(configuration, environment);
+    }
+
+    /**
+     * Override Java's trusted cacerts with our own trust store if available.
+     * Notice that setting the properties without the trust store being existing could cause unexpected result
+     * at runtime with Java 10 (Java 1.8 does not have the issue), such as failure of SOAP test step run (caused
+     * by 'new SSLContextBuilder().loadTrustMaterial').
+     * @param configuration
+     */
+    public static void setSSLTrustStore(IronTestConfiguration configuration) {
         if (new File(configuration.getSslTrustStorePath()).exists()) {
             System.setProperty("javax.net.ssl.trustStore", configuration.getSslTrustStorePath());
             System.setProperty("javax.net.ssl.trustStorePassword", configuration.getSslTrustStorePassword());
         }
+    }
 
-        //  start WireMock server (in the same JVM)
-        WireMockServer wireMockServer = new WireMockServer(options()
-                .extensions(new ResponseTemplateTransformer(true))
-                .port(Integer.parseInt(configuration.getWireMock().get("port")))
-                .maxRequestJournalEntries(Integer.parseInt(configuration.getWireMock().get("maxRequestJournalEntries")))
-                .notifier(new WireMockFileNotifier())
-        );
+    /**
+     * Start WireMock server (in the same JVM). Also used by worker agents, which run HTTP stubs of test cases locally.
+     * @param configuration
+     * @param environment
+     * @return the started server
+     */
+    public static WireMockServer startWireMockServer(IronTestConfiguration configuration, Environment environment) {
+        Map<String, String> wireMockConfig = configuration.getWireMock();
+        WireMockConfiguration wireMockOptions = options()
+                .extensions(new ResponseTemplateTransformer(false,
+                                new Handlebars().with(new WireMockTemplateCache(WIREMOCK_RESPONSE_TEMPLATE_CACHE_MAXIMUM_SIZE)),
+                                Collections.emptyMap()),
+                        new WireMockRunScopeRequestMatcher())
+                .port(Integer.parseInt(wireMockConfig.get("port")))
+                .notifier(new WireMockFileNotifier());
+        if (wireMockConfig.containsKey("containerThreads")) {
+            wireMockOptions.containerThreads(Integer.parseInt(wireMockConfig.get("containerThreads")));
+        }
+        if (wireMockConfig.containsKey("jettyAcceptors")) {
+            wireMockOptions.jettyAcceptors(Integer.parseInt(wireMockConfig.get("jettyAcceptors")));
+        }
+        if (wireMockConfig.containsKey("asynchronousResponseEnabled")) {
+            wireMockOptions.asynchronousResponseEnabled(
+                    Boolean.parseBoolean(wireMockConfig.get("asynchronousResponseEnabled")));
+        }
+        if (wireMockConfig.containsKey("asynchronousResponseThreads")) {
+            wireMockOptions.asynchronousResponseThreads(
+                    Integer.parseInt(wireMockConfig.get("asynchronousResponseThreads")));
+        }
+        WireMockServer wireMockServer = new WireMockServer(wireMockOptions);
+        WireMockIndexedRequestJournal requestJournal = WireMockIndexedRequestJournal.install(wireMockServer,
+                Integer.parseInt(wireMockConfig.get("maxRequestJournalEntries")));
+        WireMockIndexedStubMappings.install(wireMockServer, wireMockOptions);
         wireMockServer.start();
+        environment.metrics().register(MetricRegistry.name(WireMockServer.class, "journalSize"),
+                (Gauge<Integer>) requestJournal::size);
 
-        createSystemResources(configuration, environment, systemDBJdbi, wireMockServer);
-        createSampleResources(configuration, environment);
+        return wireMockServer;
     }
 
     /**
@@ -192,9 +249,17 @@ public class IronTestApplication extends Application<IronTestConfiguration> {
         final TestcaseIndividualRunDAO testcaseIndividualRunDAO = systemDBJdbi.onDemand(TestcaseIndividualRunDAO.class);
         final TeststepRunDAO teststepRunDAO = systemDBJdbi.onDemand(TeststepRunDAO.class);
         final HTTPStubMappingDAO httpStubMappingDAO = systemDBJdbi.onDemand(HTTPStubMappingDAO.class);
+        final LoadTestRunDAO loadTestRunDAO = systemDBJdbi.onDemand(LoadTestRunDAO.class);
+        final WorkItemDAO workItemDAO = systemDBJdbi.onDemand(WorkItemDAO.class);
+        final ScheduleDAO scheduleDAO = systemDBJdbi.onDemand(ScheduleDAO.class);
         UserDAO userDAO = null;
+        CachingResourceAuthenticator authenticator = null;
         if (isInTeamMode(configuration)) {
             userDAO = systemDBJdbi.onDemand(UserDAO.class);
+            Map<String, String> authenticationCacheConfig = configuration.getAuthenticationCache();
+            authenticator = new CachingResourceAuthenticator(new ResourceAuthenticator(userDAO),
+                    Long.parseLong(authenticationCacheConfig.getOrDefault("maximumSize", "1000")),
+                    Long.parseLong(authenticationCacheConfig.getOrDefault("ttlSeconds", "600")));
         }
 
         AppInfo appInfo = new AppInfo();
@@ -210,7 +275,7 @@ public class IronTestApplication extends Application<IronTestConfiguration> {
             //  turn on user authentication and authorization
             environment.jersey().register(new AuthDynamicFeature(
                     new BasicCredentialAuthFilter.Builder<SimplePrincipal>()
-                    .setAuthenticator(new ResourceAuthenticator(userDAO))
+                    .setAuthenticator(authenticator)
                     .setAuthorizer(new ResourceAuthorizer()).buildAuthFilter()));
             environment.jersey().register(RolesAllowedDynamicFeature.class);
 
@@ -223,7 +288,9 @@ public class IronTestApplication extends Application<IronTestConfiguration> {
         versionDAO.insertVersionIfNotExists();
         folderDAO.createSequenceIfNotExists();
         folderDAO.createTableIfNotExists();
+        folderDAO.createIdPathIndexIfNotExists();
         folderDAO.insertARootNodeIfNotExists();
+        folderDAO.populateMissingPaths();
         environmentDAO.createSequenceIfNotExists();
         environmentDAO.createTableIfNotExists();
         endpointDAO.createSequenceIfNotExists();
@@ -251,6 +318,13 @@ public class IronTestApplication extends Application<IronTestConfiguration> {
         teststepRunDAO.createTableIfNotExists();
         httpStubMappingDAO.createSequenceIfNotExists();
         httpStubMappingDAO.createTableIfNotExists();
+        loadTestRunDAO.createSequenceIfNotExists();
+        loadTestRunDAO.createTableIfNotExists();
+        workItemDAO.createSequenceIfNotExists();
+        workItemDAO.createTableIfNotExists();
+        workItemDAO.createStatusIndexIfNotExists();
+        scheduleDAO.createSequenceIfNotExists();
+        scheduleDAO.createTableIfNotExists();
         if (isInTeamMode(configuration)) {
             userDAO.createSequenceIfNotExists();
             userDAO.createTableIfNotExists();
@@ -266,17 +340,31 @@ public class IronTestApplication extends Application<IronTestConfiguration> {
         environment.jersey().register(new TeststepResource(appInfo, teststepDAO, udpDAO, utilsDAO, dataTableDAO, assertionDAO));
         environment.jersey().register(new WSDLResource());
         environment.jersey().register(new EnvironmentResource(environmentDAO));
-        environment.jersey().register(new TestcaseRunResource(testcaseDAO, utilsDAO, testcaseRunDAO, teststepRunDAO, wireMockServer));
+        environment.jersey().register(new TestcaseRunResource(testcaseDAO, utilsDAO, testcaseRunDAO, teststepRunDAO,
+                loadTestRunDAO, dataTableDAO, workItemDAO, wireMockServer));
         environment.jersey().register(new AssertionResource(udpDAO, teststepDAO, dataTableDAO, assertionDAO));
         environment.jersey().register(new UDPResource(udpDAO));
         environment.jersey().register(new DataTableResource(dataTableDAO, dataTableColumnDAO, dataTableCellDAO));
         environment.jersey().register(new HTTPStubResource(httpStubMappingDAO, wireMockServer, udpDAO, dataTableDAO));
         environment.jersey().register(new MockServerResource(wireMockServer));
         environment.jersey().register(new PropertyExtractorResource(udpDAO, dataTableDAO, propertyExtractorDAO));
+        environment.jersey().register(new ScheduleResource(scheduleDAO));
         if (isInTeamMode(configuration)) {
-            environment.jersey().register(new UserResource(userDAO));
+            environment.jersey().register(new UserResource(userDAO, authenticator));
         }
 
+        //  start the built-in scheduler along with the server
+        Map<String, String> schedulerConfig = configuration.getScheduler();
+        environment.lifecycle().manage(new TestcaseRunScheduler(scheduleDAO, testcaseDAO, utilsDAO, testcaseRunDAO,
+                wireMockServer, Integer.parseInt(schedulerConfig.getOrDefault("maxConcurrentRuns", "2")),
+                Long.parseLong(schedulerConfig.getOrDefault("misfireThresholdSeconds", "60"))));
+
+        //  stop the cached AMQP clients along with the server
+        environment.lifecycle().manage(AMQPClientCache.getInstance());
+
+        //  close the non-blocking HTTP clients along with the server
+        environment.lifecycle().manage(HTTPAPIAsyncInvoker.getInstance());
+
         //  if turned on in config.yml, register jersey LoggingFilter (used for logging Iron Test resource oriented HTTP API requests and responses)
         DefaultLoggingFactory defaultLoggingFactory = (DefaultLoggingFactory) configuration.getLoggingFactory();
         if (defaultLoggingFactory.getLoggers().containsKey(LoggingFilter.class.getName())) {
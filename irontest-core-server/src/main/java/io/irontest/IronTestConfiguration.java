@@ -18,6 +18,8 @@ public class IronTestConfiguration extends Configuration {
     private DataSourceFactory sampleDatabase = new DataSourceFactory();
     private Map<String, Map<String, String>> viewRendererConfiguration = Collections.emptyMap();
     private Map<String, String> wireMock = Collections.emptyMap();
+    private Map<String, String> scheduler = Collections.emptyMap();
+    private Map<String, String> authenticationCache = Collections.emptyMap();
 
     public String getMode() {
         return mode;
@@ -66,4 +68,20 @@ public class IronTestConfiguration extends Configuration {
     public void setWireMock(Map<String, String> wireMock) {
         this.wireMock = wireMock;
     }
+
+    public Map<String, String> getScheduler() {
+        return scheduler;
+    }
+
+    public void setScheduler(Map<String, String> scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    public Map<String, String> getAuthenticationCache() {
+        return authenticationCache;
+    }
+
+    public void setAuthenticationCache(Map<String, String> authenticationCache) {
+        this.authenticationCache = authenticationCache;
+    }
 }
@@ -21,7 +21,21 @@ public interface IronTestConstants {
     String CUSTOM_PROPERTY_NAME_CHECK2 = "property_name " + CUSTOM_PROPERTY_NAME_CHECK_COMMON_FRAG_NOTIN +
             " AND REGEXP_LIKE(property_name, " + CUSTOM_PROPERTY_NAME_CHECK_COMMON_FRAG_REGEXP + ")";
 
+    //  assertions of a test step are verified in parallel only when the verification input (like HTTP response body)
+    //  is at least this long; for smaller inputs, the thread hand-off costs more than the verification itself
+    int PARALLEL_ASSERTION_VERIFICATION_MIN_INPUT_LENGTH = 8 * 1024;
+    int EXPECTED_DOCUMENT_CACHE_MAXIMUM_SIZE = 100;
+    int LOAD_TEST_HANDLE_RETENTION_HOURS = 24;
+    int LOAD_TEST_MAX_CONCURRENT_RUNS = 2;      //  each load test runs its own pool of virtual users
+    int RESPONSE_PRETTY_PRINT_CACHE_MAXIMUM_SIZE = 100;
+    int RESPONSE_PRETTY_PRINT_CACHE_TTL_MINUTES = 10;
+
+    int WSDL_CACHE_MAXIMUM_SIZE = 50;
+    int WSDL_SAMPLE_REQUEST_CACHE_MAXIMUM_SIZE = 1000;
+    int WSDL_CACHE_TTL_MINUTES = 30;
+
     String ENDPOINT_PASSWORD_ENCRYPTION_KEY = "8888";
+    int ENDPOINT_PASSWORD_CACHE_MAXIMUM_SIZE = 1000;
 
     String SYSADMIN_USER = "sysadmin";
     String USER_DEFAULT_PASSWORD = "password";
@@ -33,6 +47,10 @@ public interface IronTestConstants {
 
     String WIREMOCK_STUB_METADATA_ATTR_NAME_IRON_TEST_ID = "ironTestId";
     String WIREMOCK_STUB_METADATA_ATTR_NAME_IRON_TEST_NUMBER = "ironTestNumber";
+    String WIREMOCK_STUB_METADATA_ATTR_NAME_IRON_TEST_RUN_ID = "ironTestRunId";
+    String WIREMOCK_RUN_SCOPE_REQUEST_MATCHER_NAME = "iron-test-run-scope";
+    int WIREMOCK_RESPONSE_TEMPLATE_CACHE_MAXIMUM_SIZE = 1000;
+    String HTTP_HEADER_NAME_IRON_TEST_RUN_ID = "X-Iron-Test-Run-Id";
 
     String PROMPT_TEXT_WHEN_SYSTEM_DB_VERSION_IS_BIGGER_THAN_JAR_VERSION =
             "The system database version %1$s is bigger than the jar file version %2$s. Please%n" +
@@ -7,6 +7,7 @@ import org.jdbi.v3.core.statement.UnableToExecuteStatementException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.ws.rs.ClientErrorException;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import java.sql.SQLException;
@@ -19,7 +20,9 @@ public class IronTestLoggingExceptionMapper extends LoggingExceptionMapper<Throw
     @Override
     public Response toResponse(Throwable exception) {
         long id = logException(exception);
-        int status = Response.Status.INTERNAL_SERVER_ERROR.getStatusCode();
+        int status = exception instanceof ClientErrorException ?
+                ((ClientErrorException) exception).getResponse().getStatus() :
+                Response.Status.INTERNAL_SERVER_ERROR.getStatusCode();
         String errorDetails = exception.getMessage();
 
         //  change error details if the exception is a known DB constraint violation
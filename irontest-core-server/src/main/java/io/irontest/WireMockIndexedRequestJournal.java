@@ -0,0 +1,270 @@
+package io.irontest;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.common.Metadata;
+import com.github.tomakehurst.wiremock.core.WireMockApp;
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.StubRequestHandler;
+import com.github.tomakehurst.wiremock.matching.RequestPattern;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import com.github.tomakehurst.wiremock.verification.RequestJournal;
+import com.google.common.base.Optional;
+import com.google.common.base.Predicate;
+
+import java.lang.reflect.Field;
+import java.util.*;
+
+import static io.irontest.IronTestConstants.HTTP_HEADER_NAME_IRON_TEST_RUN_ID;
+import static io.irontest.IronTestConstants.WIREMOCK_STUB_METADATA_ATTR_NAME_IRON_TEST_RUN_ID;
+
+/**
+ * Request journal of the mock server, replacing WireMock's built-in one (which scans all its serve events for every
+ * lookup). Serve events are indexed by serve event id, by stub instance id and by matched/unmatched state, so all
+ * lookups are O(1) (plus the size of the result).
+ * WireMock records a serve event into the journal before sending the response, so the serve event can be looked up as
+ * soon as the client has got the response.
+ * The journal is partitioned by test case run. A serve event of an open run (i.e. matched by one of the run's stub
+ * instances, or carrying the run's id header) goes into the run's partition, and any other serve event goes into the
+ * shared partition. Each partition is a bounded ring buffer, i.e. when its capacity is reached, its oldest serve event
+ * is evicted for the new one, so a busy run can not evict serve events of other runs. A run's partition and its serve
+ * events are dropped when the run is closed.
+ * Lists of serve events returned are ordered by serve time, latest first. Lists of requests returned for WireMock's
+ * request verification are ordered earliest first, as WireMock's built-in journal does.
+ */
+public class WireMockIndexedRequestJournal implements RequestJournal {
+    private final int capacity;     //  of each partition
+    private final LinkedHashMap<UUID, Entry> entriesById = new LinkedHashMap<>();    //  in serve order
+    private final Map<UUID, LinkedHashSet<UUID>> serveEventIdsByStubInstanceId = new HashMap<>();
+    private final LinkedHashSet<UUID> unmatchedServeEventIds = new LinkedHashSet<>();
+    private final LinkedHashSet<UUID> sharedPartition = new LinkedHashSet<>();
+    private final Map<String, LinkedHashSet<UUID>> runPartitions = new HashMap<>();    //  keyed by run id
+    private long nextServeSequenceNumber = 0;
+
+    private WireMockIndexedRequestJournal(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Replace the request journal of the (not yet started) mock server with this one.
+     * WireMock 2.22 does not allow plugging in a request journal, so the replacement is done through reflection, both
+     * in the WireMock app (serving the admin API) and in the stub request handler (recording serve events).
+     * All the WireMock fields involved are looked up before anything is replaced, so that the server fails to start
+     * (instead of running with half replaced request journal) if a WireMock upgrade changed them.
+     * Install it before {@link WireMockIndexedStubMappings}, whose near miss calculator uses the journal.
+     * @param wireMockServer
+     * @param capacity max number of serve events kept in each partition
+     * @return the installed request journal
+     */
+    public static WireMockIndexedRequestJournal install(WireMockServer wireMockServer, int capacity) {
+        Field wireMockAppField = WireMockIndexedStubMappings.findField(
+                WireMockServer.class, "wireMockApp", WireMockApp.class);
+        Field appRequestJournalField = WireMockIndexedStubMappings.findField(
+                WireMockApp.class, "requestJournal", RequestJournal.class);
+        Field stubRequestHandlerField = WireMockIndexedStubMappings.findField(
+                WireMockServer.class, "stubRequestHandler", StubRequestHandler.class);
+        Field handlerRequestJournalField = WireMockIndexedStubMappings.findField(
+                StubRequestHandler.class, "requestJournal", RequestJournal.class);
+        WireMockIndexedRequestJournal requestJournal = new WireMockIndexedRequestJournal(capacity);
+        try {
+            WireMockApp wireMockApp = (WireMockApp) wireMockAppField.get(wireMockServer);
+            StubRequestHandler stubRequestHandler = (StubRequestHandler) stubRequestHandlerField.get(wireMockServer);
+            appRequestJournalField.set(wireMockApp, requestJournal);
+            handlerRequestJournalField.set(stubRequestHandler, requestJournal);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Failed to install indexed request journal into mock server.", e);
+        }
+        return requestJournal;
+    }
+
+    /**
+     * @param wireMockServer
+     * @return the request journal installed on the mock server.
+     */
+    public static WireMockIndexedRequestJournal of(WireMockServer wireMockServer) {
+        Field wireMockAppField = WireMockIndexedStubMappings.findField(
+                WireMockServer.class, "wireMockApp", WireMockApp.class);
+        Field appRequestJournalField = WireMockIndexedStubMappings.findField(
+                WireMockApp.class, "requestJournal", RequestJournal.class);
+        try {
+            return (WireMockIndexedRequestJournal) appRequestJournalField.get(wireMockAppField.get(wireMockServer));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Failed to get request journal of mock server.", e);
+        }
+    }
+
+    /**
+     * Start keeping serve events of the test case run in their own partition.
+     * @param runId
+     */
+    public synchronized void openRun(String runId) {
+        runPartitions.putIfAbsent(runId, new LinkedHashSet<>());
+    }
+
+    /**
+     * Drop the partition of the test case run, together with its serve events.
+     * @param runId
+     */
+    public synchronized void closeRun(String runId) {
+        LinkedHashSet<UUID> partition = runPartitions.remove(runId);
+        if (partition != null) {
+            for (UUID serveEventId: partition) {
+                unindex(entriesById.remove(serveEventId));
+            }
+        }
+    }
+
+    /**
+     * Invoked by WireMock for every serve event (matched or unmatched), before the response is sent.
+     */
+    @Override
+    public synchronized void requestReceived(ServeEvent serveEvent) {
+        if (capacity <= 0) {
+            return;
+        }
+        String runId = runIdOf(serveEvent);
+        LinkedHashSet<UUID> partition = runId == null ? null : runPartitions.get(runId);
+        if (partition == null) {
+            partition = sharedPartition;
+        }
+        if (partition.size() >= capacity) {
+            UUID oldestServeEventId = partition.iterator().next();
+            partition.remove(oldestServeEventId);
+            unindex(entriesById.remove(oldestServeEventId));
+        }
+
+        entriesById.put(serveEvent.getId(), new Entry(serveEvent, nextServeSequenceNumber++));
+        partition.add(serveEvent.getId());
+        if (serveEvent.getWasMatched()) {
+            UUID stubInstanceId = serveEvent.getStubMapping().getId();
+            serveEventIdsByStubInstanceId.computeIfAbsent(stubInstanceId, k -> new LinkedHashSet<>())
+                    .add(serveEvent.getId());
+        } else {
+            unmatchedServeEventIds.add(serveEvent.getId());
+        }
+    }
+
+    /**
+     * @param serveEvent
+     * @return id of the test case run that the serve event is attributed to, or null if not attributed to any run.
+     */
+    private static String runIdOf(ServeEvent serveEvent) {
+        if (serveEvent.getWasMatched()) {
+            Metadata metadata = serveEvent.getStubMapping().getMetadata();
+            return metadata != null && metadata.containsKey(WIREMOCK_STUB_METADATA_ATTR_NAME_IRON_TEST_RUN_ID) ?
+                    metadata.getString(WIREMOCK_STUB_METADATA_ATTR_NAME_IRON_TEST_RUN_ID) : null;
+        } else {
+            HttpHeader runIdHeader = serveEvent.getRequest().header(HTTP_HEADER_NAME_IRON_TEST_RUN_ID);
+            return runIdHeader.isPresent() ? runIdHeader.firstValue() : null;
+        }
+    }
+
+    private void unindex(Entry entry) {
+        ServeEvent serveEvent = entry.serveEvent;
+        if (serveEvent.getWasMatched()) {
+            UUID stubInstanceId = serveEvent.getStubMapping().getId();
+            Set<UUID> serveEventIds = serveEventIdsByStubInstanceId.get(stubInstanceId);
+            serveEventIds.remove(serveEvent.getId());
+            if (serveEventIds.isEmpty()) {
+                serveEventIdsByStubInstanceId.remove(stubInstanceId);
+            }
+        } else {
+            unmatchedServeEventIds.remove(serveEvent.getId());
+        }
+    }
+
+    public synchronized ServeEvent findById(UUID serveEventId) {
+        Entry entry = entriesById.get(serveEventId);
+        return entry == null ? null : entry.serveEvent;
+    }
+
+    public synchronized List<ServeEvent> findByStubInstanceId(UUID stubInstanceId) {
+        return toServeEvents(serveEventIdsByStubInstanceId.getOrDefault(stubInstanceId, new LinkedHashSet<>()));
+    }
+
+    public synchronized List<ServeEvent> findUnmatched() {
+        return toServeEvents(unmatchedServeEventIds);
+    }
+
+    /**
+     * Sort serve events (obtained from this journal) by serve time, latest first.
+     * Timestamps of serve events are not used, as they are not unique.
+     * @param serveEvents
+     */
+    public synchronized void sortLatestFirst(List<ServeEvent> serveEvents) {
+        serveEvents.sort(Comparator.comparing((ServeEvent serveEvent) -> {
+            Entry entry = entriesById.get(serveEvent.getId());
+            return entry == null ? -1L : entry.serveSequenceNumber;
+        }).reversed());
+    }
+
+    public synchronized int size() {
+        return entriesById.size();
+    }
+
+    @Override
+    public synchronized int countRequestsMatching(RequestPattern requestPattern) {
+        return getRequestsMatching(requestPattern).size();
+    }
+
+    @Override
+    public synchronized List<LoggedRequest> getRequestsMatching(RequestPattern requestPattern) {
+        Predicate<Request> matching = RequestPattern.thatMatch(requestPattern);
+        List<LoggedRequest> result = new ArrayList<>();
+        for (Entry entry: entriesById.values()) {
+            if (matching.apply(entry.serveEvent.getRequest())) {
+                result.add(entry.serveEvent.getRequest());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized List<ServeEvent> getAllServeEvents() {
+        List<ServeEvent> result = new ArrayList<>(entriesById.size());
+        for (Entry entry: entriesById.values()) {
+            result.add(entry.serveEvent);
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    @Override
+    public Optional<ServeEvent> getServeEvent(UUID serveEventId) {
+        return Optional.fromNullable(findById(serveEventId));
+    }
+
+    /**
+     * Remove all serve events. Partitions of open runs are kept (empty).
+     */
+    @Override
+    public synchronized void reset() {
+        entriesById.clear();
+        serveEventIdsByStubInstanceId.clear();
+        unmatchedServeEventIds.clear();
+        sharedPartition.clear();
+        for (LinkedHashSet<UUID> partition: runPartitions.values()) {
+            partition.clear();
+        }
+    }
+
+    private List<ServeEvent> toServeEvents(Collection<UUID> serveEventIds) {
+        List<ServeEvent> result = new ArrayList<>(serveEventIds.size());
+        for (UUID serveEventId: serveEventIds) {
+            result.add(entriesById.get(serveEventId).serveEvent);
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    private static class Entry {
+        private final ServeEvent serveEvent;
+        private final long serveSequenceNumber;     //  timestamps of serve events are not unique
+
+        private Entry(ServeEvent serveEvent, long serveSequenceNumber) {
+            this.serveEvent = serveEvent;
+            this.serveSequenceNumber = serveSequenceNumber;
+        }
+    }
+}
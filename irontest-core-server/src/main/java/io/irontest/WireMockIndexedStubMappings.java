@@ -0,0 +1,330 @@
+package io.irontest;
+
+import com.codahale.metrics.Histogram;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.common.Json;
+import com.github.tomakehurst.wiremock.common.LocalNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.core.WireMockApp;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.matching.RequestMatcherExtension;
+import com.github.tomakehurst.wiremock.matching.RequestPattern;
+import com.github.tomakehurst.wiremock.matching.StringValuePattern;
+import com.github.tomakehurst.wiremock.matching.UrlPattern;
+import com.github.tomakehurst.wiremock.stubbing.*;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import com.github.tomakehurst.wiremock.verification.NearMissCalculator;
+import com.github.tomakehurst.wiremock.verification.RequestJournal;
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import io.irontest.core.IronTestMetrics;
+
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stub mappings of the mock server, with stubs indexed by HTTP method and URL path, so that for an incoming request
+ * only the candidate stubs are fully matched (instead of every loaded stub as WireMock does).
+ * Stubs with exact URL or URL path are bucketed by method and path. Other stubs (URL regex, any URL, custom matcher
+ * only) are kept with the literal prefix of their URL regex, and are candidates only if the request URL starts with the
+ * prefix.
+ * Candidates are matched in the same order as WireMock does, i.e. by priority and then latest added first.
+ * Apart from the matching, the behavior is the same as WireMock's InMemoryStubMappings.
+ */
+public class WireMockIndexedStubMappings implements StubMappings {
+    private static final String ANY_METHOD = RequestMethod.ANY.getName();
+    private static final String REGEX_META_CHARACTERS = ".[]{}()\\*+?^$|";
+    private static final Comparator<StubMapping> PRIORITY_THEN_REVERSE_INSERTION_ORDER = (one, two) -> {
+        int priorityComparison = one.comparePriorityWith(two);
+        return priorityComparison != 0 ?
+                priorityComparison : Long.compare(two.getInsertionIndex(), one.getInsertionIndex());
+    };
+
+    private final SortedConcurrentMappingSet mappings = new SortedConcurrentMappingSet();
+    private final Scenarios scenarios = new Scenarios();
+    private final Map<String, RequestMatcherExtension> customMatchers;
+    private final Map<String, ResponseDefinitionTransformer> transformers;
+    private final FileSource rootFileSource;
+
+    //  stubs with exact URL or URL path, keyed by method and path
+    private final Map<String, Set<StubMapping>> stubsByMethodAndPath = new ConcurrentHashMap<>();
+    //  other stubs, with the literal prefix of their URL
+    private final Map<StubMapping, String> stubsByUrlPrefix = new ConcurrentHashMap<>();
+
+    private final Histogram candidateStubCounts = IronTestMetrics.histogram(
+            WireMockIndexedStubMappings.class, "candidateStubs");
+
+    public WireMockIndexedStubMappings(Map<String, RequestMatcherExtension> customMatchers,
+                                       Map<String, ResponseDefinitionTransformer> transformers,
+                                       FileSource rootFileSource) {
+        this.customMatchers = customMatchers;
+        this.transformers = transformers;
+        this.rootFileSource = rootFileSource;
+    }
+
+    /**
+     * Replace the stub mappings of the (not yet started) mock server with an indexed one.
+     * WireMock 2.22 does not allow plugging in stub mappings, so the replacement is done through reflection.
+     * All the WireMock fields involved are looked up before anything is replaced, so that the server fails to start
+     * (instead of running with half replaced stub mappings) if a WireMock upgrade changed them.
+     * @param wireMockServer
+     * @param options the options the mock server is created with
+     * @return the indexed stub mappings
+     */
+    public static WireMockIndexedStubMappings install(WireMockServer wireMockServer, Options options) {
+        Field wireMockAppField = findField(WireMockServer.class, "wireMockApp", WireMockApp.class);
+        Field stubMappingsField = findField(WireMockApp.class, "stubMappings", StubMappings.class);
+        Field requestJournalField = findField(WireMockApp.class, "requestJournal", RequestJournal.class);
+        Field nearMissCalculatorField = findField(WireMockApp.class, "nearMissCalculator", NearMissCalculator.class);
+
+        WireMockIndexedStubMappings indexedStubMappings = new WireMockIndexedStubMappings(
+                options.extensionsOfType(RequestMatcherExtension.class),
+                options.extensionsOfType(ResponseDefinitionTransformer.class), options.filesRoot());
+        try {
+            WireMockApp wireMockApp = (WireMockApp) wireMockAppField.get(wireMockServer);
+            StubMappings defaultStubMappings = (StubMappings) stubMappingsField.get(wireMockApp);
+            for (StubMapping defaultStub: defaultStubMappings.getAll()) {
+                indexedStubMappings.addMapping(defaultStub);
+            }
+            stubMappingsField.set(wireMockApp, indexedStubMappings);
+            nearMissCalculatorField.set(wireMockApp, new NearMissCalculator(indexedStubMappings,
+                    (RequestJournal) requestJournalField.get(wireMockApp)));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Failed to install indexed stub mappings into mock server.", e);
+        }
+        return indexedStubMappings;
+    }
+
+    /**
+     * @param declaringClass
+     * @param fieldName
+     * @param type
+     * @return the accessible field
+     * @throws IllegalStateException if the class does not declare the field with the type
+     */
+    static Field findField(Class<?> declaringClass, String fieldName, Class<?> type) {
+        Field field;
+        try {
+            field = declaringClass.getDeclaredField(fieldName);
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException("Field " + fieldName + " not found in " + declaringClass.getName() +
+                    ". Indexed stub mappings do not support this WireMock version.", e);
+        }
+        if (!field.getType().isAssignableFrom(type)) {
+            throw new IllegalStateException("Field " + fieldName + " in " + declaringClass.getName() + " is of type " +
+                    field.getType().getName() + ". Indexed stub mappings do not support this WireMock version.");
+        }
+        field.setAccessible(true);
+        return field;
+    }
+
+    @Override
+    public ServeEvent serveFor(Request request) {
+        List<StubMapping> candidates = findCandidates(request);
+        candidateStubCounts.update(candidates.size());
+        candidates.sort(PRIORITY_THEN_REVERSE_INSERTION_ORDER);
+
+        StubMapping matchingMapping = StubMapping.NOT_CONFIGURED;
+        for (StubMapping candidate: candidates) {
+            if (candidate.getRequest().match(request, customMatchers).isExactMatch() &&
+                    (candidate.isIndependentOfScenarioState() || scenarios.mappingMatchesScenarioState(candidate))) {
+                matchingMapping = candidate;
+                break;
+            }
+        }
+
+        scenarios.onStubServed(matchingMapping);
+
+        ResponseDefinition responseDefinition = applyTransformations(request, matchingMapping.getResponse());
+
+        return ServeEvent.of(LoggedRequest.createFrom(request), ResponseDefinition.copyOf(responseDefinition),
+                matchingMapping);
+    }
+
+    private List<StubMapping> findCandidates(Request request) {
+        String url = request.getUrl();
+        String path = pathOf(url);
+        List<StubMapping> candidates = new ArrayList<>();
+        candidates.addAll(stubsByMethodAndPath.getOrDefault(
+                indexKey(request.getMethod().getName(), path), Collections.emptySet()));
+        candidates.addAll(stubsByMethodAndPath.getOrDefault(indexKey(ANY_METHOD, path), Collections.emptySet()));
+        for (Map.Entry<StubMapping, String> entry: stubsByUrlPrefix.entrySet()) {
+            if (url.startsWith(entry.getValue())) {
+                candidates.add(entry.getKey());
+            }
+        }
+        return candidates;
+    }
+
+    private ResponseDefinition applyTransformations(Request request, ResponseDefinition responseDefinition) {
+        for (ResponseDefinitionTransformer transformer: ImmutableList.copyOf(transformers.values())) {
+            if (transformer.applyGlobally() || responseDefinition.hasTransformer(transformer)) {
+                responseDefinition = transformer.transform(request, responseDefinition,
+                        rootFileSource.child(WireMockApp.FILES_ROOT), responseDefinition.getTransformerParameters());
+            }
+        }
+        return responseDefinition;
+    }
+
+    @Override
+    public void addMapping(StubMapping mapping) {
+        mappings.add(mapping);
+        scenarios.onStubMappingAdded(mapping);
+        index(mapping);
+    }
+
+    @Override
+    public void removeMapping(StubMapping mapping) {
+        mappings.remove(mapping);
+        scenarios.onStubMappingRemoved(mapping);
+        unindex(mapping);
+    }
+
+    @Override
+    public void editMapping(StubMapping stubMapping) {
+        Optional<StubMapping> existingMapping = get(stubMapping.getId());
+        if (!existingMapping.isPresent()) {
+            String msg = "StubMapping with UUID: " + stubMapping.getUuid() + " not found";
+            LocalNotifier.notifier().error(msg);
+            throw new RuntimeException(msg);
+        }
+
+        stubMapping.setInsertionIndex(existingMapping.get().getInsertionIndex());
+        stubMapping.setDirty(true);
+
+        mappings.replace(existingMapping.get(), stubMapping);
+        scenarios.onStubMappingUpdated(existingMapping.get(), stubMapping);
+        unindex(existingMapping.get());
+        index(stubMapping);
+    }
+
+    @Override
+    public void reset() {
+        mappings.clear();
+        scenarios.clear();
+        stubsByMethodAndPath.clear();
+        stubsByUrlPrefix.clear();
+    }
+
+    @Override
+    public void resetScenarios() {
+        scenarios.reset();
+    }
+
+    @Override
+    public List<StubMapping> getAll() {
+        return ImmutableList.copyOf(mappings);
+    }
+
+    @Override
+    public Optional<StubMapping> get(UUID id) {
+        for (StubMapping mapping: mappings) {
+            if (mapping.getId().equals(id)) {
+                return Optional.of(mapping);
+            }
+        }
+        return Optional.absent();
+    }
+
+    @Override
+    public List<Scenario> getAllScenarios() {
+        return scenarios.getAll();
+    }
+
+    @Override
+    public List<StubMapping> findByMetadata(StringValuePattern pattern) {
+        List<StubMapping> result = new ArrayList<>();
+        for (StubMapping mapping: mappings) {
+            if (pattern.match(Json.write(mapping.getMetadata())).isExactMatch()) {
+                result.add(mapping);
+            }
+        }
+        return result;
+    }
+
+    private void index(StubMapping mapping) {
+        String exactPath = exactPathOf(mapping.getRequest());
+        if (exactPath == null) {
+            stubsByUrlPrefix.put(mapping, urlPrefixOf(mapping.getRequest()));
+        } else {
+            stubsByMethodAndPath.computeIfAbsent(indexKey(methodOf(mapping.getRequest()), exactPath),
+                    key -> ConcurrentHashMap.newKeySet()).add(mapping);
+        }
+    }
+
+    private void unindex(StubMapping mapping) {
+        String exactPath = exactPathOf(mapping.getRequest());
+        if (exactPath == null) {
+            stubsByUrlPrefix.remove(mapping);
+        } else {
+            stubsByMethodAndPath.computeIfPresent(indexKey(methodOf(mapping.getRequest()), exactPath),
+                    (key, stubs) -> {
+                        stubs.remove(mapping);
+                        return stubs.isEmpty() ? null : stubs;
+                    });
+        }
+    }
+
+    private static String indexKey(String method, String path) {
+        return method + " " + path;
+    }
+
+    private static String pathOf(String url) {
+        int queryStart = url.indexOf('?');
+        return queryStart < 0 ? url : url.substring(0, queryStart);
+    }
+
+    private static String methodOf(RequestPattern requestPattern) {
+        return requestPattern.getMethod() == null ? ANY_METHOD : requestPattern.getMethod().getName();
+    }
+
+    /**
+     * @param requestPattern
+     * @return the URL path that the request pattern requires the request to have exactly, or null if there is no
+     * such path (e.g. URL regex or any URL).
+     */
+    private static String exactPathOf(RequestPattern requestPattern) {
+        if (requestPattern.getUrl() != null) {
+            return pathOf(requestPattern.getUrl());
+        } else if (requestPattern.getUrlPath() != null) {
+            return requestPattern.getUrlPath();
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * @param requestPattern
+     * @return the literal prefix that every URL matched by the request pattern starts with. Empty string if there is
+     * no such prefix.
+     */
+    private static String urlPrefixOf(RequestPattern requestPattern) {
+        UrlPattern urlMatcher = requestPattern.getUrlMatcher();
+        if (urlMatcher == null || !urlMatcher.isRegex()) {
+            return "";
+        }
+        String regex = urlMatcher.getExpected();
+        if (regex.indexOf('|') >= 0) {      //  alternatives can start differently
+            return "";
+        }
+
+        StringBuilder prefix = new StringBuilder();
+        for (int i = regex.startsWith("^") ? 1 : 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (REGEX_META_CHARACTERS.indexOf(c) >= 0) {
+                //  the previous character is optional or repeatable if followed by a quantifier
+                if ((c == '?' || c == '*' || c == '{') && prefix.length() > 0) {
+                    prefix.setLength(prefix.length() - 1);
+                }
+                break;
+            }
+            prefix.append(c);
+        }
+        return prefix.toString();
+    }
+}
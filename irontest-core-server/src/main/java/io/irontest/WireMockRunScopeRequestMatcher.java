@@ -0,0 +1,36 @@
+package io.irontest;
+
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.matching.MatchResult;
+import com.github.tomakehurst.wiremock.matching.RequestMatcherExtension;
+
+import static io.irontest.IronTestConstants.HTTP_HEADER_NAME_IRON_TEST_RUN_ID;
+import static io.irontest.IronTestConstants.WIREMOCK_RUN_SCOPE_REQUEST_MATCHER_NAME;
+
+/**
+ * Route requests to the stub instances of a test case run, when the requests carry the run id header (like when the
+ * system under test propagates the header from the request sent by Iron Test).
+ * Requests without the header are not routed, i.e. they can match stub instances of any run, unless the run requires
+ * the header (like when iterations of a load test run concurrently), in which case they match no stub instance of it.
+ */
+public class WireMockRunScopeRequestMatcher extends RequestMatcherExtension {
+    public static final String PARAMETER_NAME_RUN_ID = "runId";
+    public static final String PARAMETER_NAME_RUN_ID_HEADER_REQUIRED = "runIdHeaderRequired";
+
+    @Override
+    public String getName() {
+        return WIREMOCK_RUN_SCOPE_REQUEST_MATCHER_NAME;
+    }
+
+    @Override
+    public MatchResult match(Request request, Parameters parameters) {
+        HttpHeader runIdHeader = request.header(HTTP_HEADER_NAME_IRON_TEST_RUN_ID);
+        if (runIdHeader.isPresent()) {
+            return MatchResult.of(runIdHeader.firstValue().equals(parameters.getString(PARAMETER_NAME_RUN_ID)));
+        } else {
+            return MatchResult.of(!Boolean.TRUE.equals(parameters.get(PARAMETER_NAME_RUN_ID_HEADER_REQUIRED)));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package io.irontest;
+
+import com.github.jknack.handlebars.Parser;
+import com.github.jknack.handlebars.Template;
+import com.github.jknack.handlebars.cache.TemplateCache;
+import com.github.jknack.handlebars.io.TemplateSource;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Cache of compiled response templates of the mock server.
+ * WireMock compiles the body, headers, etc. of a templated response on every request. With this cache, a template is
+ * compiled only on first serving of the stub instance. The cache is keyed by the template text (instead of the inline
+ * template's hash based file name), so that no two templates share the same compiled template.
+ */
+public class WireMockTemplateCache implements TemplateCache {
+    private final Cache<String, Template> templates;
+
+    public WireMockTemplateCache(long maximumSize) {
+        this.templates = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    @Override
+    public void clear() {
+        templates.invalidateAll();
+    }
+
+    @Override
+    public void evict(TemplateSource source) {
+        try {
+            templates.invalidate(source.content(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read template source " + source.filename(), e);
+        }
+    }
+
+    @Override
+    public Template get(TemplateSource source, Parser parser) throws IOException {
+        try {
+            return templates.get(source.content(StandardCharsets.UTF_8), () -> parser.parse(source));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new RuntimeException("Failed to compile template " + source.filename(), e.getCause());
+        } catch (UncheckedExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw e;
+        }
+    }
+
+    @Override
+    public TemplateCache setReload(boolean reload) {
+        //  templates are inline, so there is nothing to reload
+        return this;
+    }
+}
@@ -0,0 +1,65 @@
+package io.irontest.auth;
+
+import com.codahale.metrics.Counter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import io.dropwizard.auth.AuthenticationException;
+import io.dropwizard.auth.Authenticator;
+import io.dropwizard.auth.basic.BasicCredentials;
+import io.irontest.core.IronTestMetrics;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache successful authentications of the underlying authenticator, so that the user lookup and the password hashing
+ * (PBKDF2, CPU intensive by design) are not done on every API request (the UI sends Basic auth credentials on each call).
+ * The cache is keyed by a SHA-256 hash of the credentials, so that no clear text password is kept in memory.
+ * Failed authentications are not cached.
+ */
+public class CachingResourceAuthenticator implements Authenticator<BasicCredentials, SimplePrincipal> {
+    private final Authenticator<BasicCredentials, SimplePrincipal> underlying;
+    private final Cache<String, SimplePrincipal> principals;
+    private final Counter hits = IronTestMetrics.counter(CachingResourceAuthenticator.class, "hits");
+    private final Counter misses = IronTestMetrics.counter(CachingResourceAuthenticator.class, "misses");
+
+    public CachingResourceAuthenticator(Authenticator<BasicCredentials, SimplePrincipal> underlying,
+                                        long maximumSize, long ttlSeconds) {
+        this.underlying = underlying;
+        this.principals = CacheBuilder.newBuilder().maximumSize(maximumSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS).build();
+    }
+
+    @Override
+    public Optional<SimplePrincipal> authenticate(BasicCredentials credentials) throws AuthenticationException {
+        String key = hash(credentials);
+        SimplePrincipal principal = principals.getIfPresent(key);
+        if (principal != null) {
+            hits.inc();
+            return Optional.of(principal);
+        }
+
+        misses.inc();
+        Optional<SimplePrincipal> result = underlying.authenticate(credentials);
+        result.ifPresent(p -> principals.put(key, p));
+        return result;
+    }
+
+    /**
+     * Invalidate cached authentications of the user, like when the user's password or roles are changed.
+     * @param username
+     */
+    public void invalidate(String username) {
+        principals.asMap().values().removeIf(principal -> principal.getName().equals(username));
+    }
+
+    private String hash(BasicCredentials credentials) {
+        return Hashing.sha256().newHasher()
+                .putString(credentials.getUsername(), StandardCharsets.UTF_8)
+                .putByte((byte) 0)
+                .putString(credentials.getPassword(), StandardCharsets.UTF_8)
+                .hash().toString();
+    }
+}
@@ -0,0 +1,81 @@
+package io.irontest.core;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.h2.security.BlockCipher;
+import org.h2.security.CipherFactory;
+import org.h2.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+
+import static io.irontest.IronTestConstants.ENDPOINT_PASSWORD_CACHE_MAXIMUM_SIZE;
+import static io.irontest.IronTestConstants.ENDPOINT_PASSWORD_ENCRYPTION_KEY;
+
+/**
+ * In-process decryption of endpoint passwords, compatible with the H2 function call
+ * ENCRYPT('AES', ENDPOINT_PASSWORD_ENCRYPTION_KEY, STRINGTOUTF8(password)) used for storing them.
+ * Decrypted passwords are cached by the encrypted password, so that running a test step does not need a system
+ * database round trip for decrypting its endpoint password.
+ */
+public class EndpointPasswordDecryptor {
+    private static EndpointPasswordDecryptor instance = new EndpointPasswordDecryptor();
+
+    private final Cache<String, String> decryptedPasswords = CacheBuilder.newBuilder()
+            .maximumSize(ENDPOINT_PASSWORD_CACHE_MAXIMUM_SIZE).build();
+
+    private EndpointPasswordDecryptor() { }
+
+    public static EndpointPasswordDecryptor getInstance() {
+        return instance;
+    }
+
+    public String decrypt(String encryptedPassword) {
+        if (encryptedPassword == null) {
+            return null;
+        }
+        try {
+            return decryptedPasswords.get(encryptedPassword, () -> _decrypt(encryptedPassword));
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to decrypt endpoint password", e.getCause());
+        }
+    }
+
+    public void clearCache() {
+        decryptedPasswords.invalidateAll();
+    }
+
+    @VisibleForTesting
+    long getCacheSize() {
+        return decryptedPasswords.size();
+    }
+
+    /**
+     * Same steps as H2 DECRYPT function, followed by UTF8TOSTRING and TRIM(CHAR(0) FROM ...).
+     * A BlockCipher is not thread safe, so a new one is created for each decryption.
+     * @param encryptedPassword hex string of the encrypted bytes
+     * @return the decrypted password
+     */
+    private String _decrypt(String encryptedPassword) {
+        BlockCipher cipher = CipherFactory.getBlockCipher("AES");
+        byte[] key = StringUtils.convertHexToBytes(ENDPOINT_PASSWORD_ENCRYPTION_KEY);
+        cipher.setKey(Arrays.copyOf(key, cipher.getKeyLength()));
+
+        byte[] data = StringUtils.convertHexToBytes(encryptedPassword);
+        int alignedLength = (data.length + BlockCipher.ALIGN - 1) / BlockCipher.ALIGN * BlockCipher.ALIGN;
+        data = Arrays.copyOf(data, alignedLength);
+        cipher.decrypt(data, 0, data.length);
+
+        int start = 0;
+        int end = data.length;
+        while (start < end && data[start] == 0) {
+            start++;
+        }
+        while (end > start && data[end - 1] == 0) {
+            end--;
+        }
+        return new String(data, start, end - start, StandardCharsets.UTF_8);
+    }
+}
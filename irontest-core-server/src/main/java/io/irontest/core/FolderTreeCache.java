@@ -0,0 +1,121 @@
+package io.irontest.core;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import io.irontest.db.FolderTreeNodeDAO;
+import io.irontest.models.FolderTreeNode;
+import io.irontest.models.FolderTreeNodeType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory copy of the folder tree (folders and test cases), built from the system database on first use after an
+ * invalidation.
+ * DAO methods that insert, rename or move folders or test cases invalidate the cache. They invalidate again when the
+ * outermost transaction is done, so that a cache built from uncommitted state does not survive.
+ * Each folder has a hash of its whole subtree, used as ETag, so an unchanged subtree is still recognized after the
+ * cache is rebuilt.
+ */
+public class FolderTreeCache {
+    private static FolderTreeCache instance = new FolderTreeCache();
+
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    private FolderTreeCache() { }
+
+    public static FolderTreeCache getInstance() {
+        return instance;
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    public Snapshot getSnapshot(FolderTreeNodeDAO folderTreeNodeDAO) {
+        Snapshot result = snapshot;
+        if (result == null) {
+            long generationBeforeBuild = generation.get();
+            result = new Snapshot(folderTreeNodeDAO.findAll());
+            synchronized (this) {
+                //  do not cache the snapshot if the tree was changed during the build
+                if (generation.get() == generationBeforeBuild) {
+                    snapshot = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Immutable state of the folder tree at a point of time.
+     */
+    public static class Snapshot {
+        //  children are hashed in this order, so that the hash does not depend on the order nodes are loaded in
+        private static final Comparator<FolderTreeNode> CHILDREN_ORDER =
+                Comparator.comparing((FolderTreeNode node) -> node.getType() == FolderTreeNodeType.FOLDER ? 0 : 1)
+                        .thenComparing(FolderTreeNode::getIdPerType);
+
+        private final List<FolderTreeNode> allNodes;
+        private final FolderTreeNode root;
+        private final Map<Long, String> subtreeHashByFolderId = new HashMap<>();
+
+        private Snapshot(List<FolderTreeNode> nodes) {
+            allNodes = Collections.unmodifiableList(nodes);
+            FolderTreeNode rootNode = null;
+            Map<Long, List<FolderTreeNode>> childrenByFolderId = new HashMap<>();
+            for (FolderTreeNode node: nodes) {
+                if (node.getParentFolderId() == null) {
+                    rootNode = node;
+                } else {
+                    childrenByFolderId.computeIfAbsent(node.getParentFolderId(), k -> new ArrayList<>()).add(node);
+                }
+            }
+            root = rootNode;
+            if (root != null) {
+                hashSubtree(root, childrenByFolderId);
+            }
+        }
+
+        /**
+         * Populate subtree hash of the folder and its descendant folders.
+         * @param folder
+         * @param childrenByFolderId
+         */
+        private void hashSubtree(FolderTreeNode folder, Map<Long, List<FolderTreeNode>> childrenByFolderId) {
+            List<FolderTreeNode> children = childrenByFolderId.getOrDefault(folder.getIdPerType(), new ArrayList<>());
+            children.sort(CHILDREN_ORDER);
+            Hasher hasher = Hashing.murmur3_128().newHasher();
+            hasher.putString(folder.getText(), StandardCharsets.UTF_8);
+            for (FolderTreeNode child: children) {
+                hasher.putString(child.getType().toString(), StandardCharsets.UTF_8)
+                        .putLong(child.getIdPerType())
+                        .putString(child.getText(), StandardCharsets.UTF_8);
+                if (child.getType() == FolderTreeNodeType.FOLDER) {
+                    hashSubtree(child, childrenByFolderId);
+                    hasher.putString(subtreeHashByFolderId.get(child.getIdPerType()), StandardCharsets.UTF_8);
+                }
+            }
+            subtreeHashByFolderId.put(folder.getIdPerType(), hasher.hash().toString());
+        }
+
+        public List<FolderTreeNode> getAllNodes() {
+            return allNodes;
+        }
+
+        public FolderTreeNode getRoot() {
+            return root;
+        }
+
+        /**
+         * @param folderId
+         * @return hash of the folder's subtree (names, ids and structure), or null if the folder does not exist.
+         */
+        public String getSubtreeHash(long folderId) {
+            return subtreeHashByFolderId.get(folderId);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package io.irontest.core;
+
+import com.codahale.metrics.*;
+
+/**
+ * Holder of the metric registry that Iron Test core classes (most of which are not managed by Dropwizard) register
+ * their metrics into.
+ * The registry is replaced with the Dropwizard environment's metric registry on application start, so that the metrics
+ * are exposed on the admin connector (like http://localhost:8091/metrics).
+ * Before that (e.g. in unit tests), a standalone registry is used.
+ */
+public final class IronTestMetrics {
+    private static volatile MetricRegistry registry = new MetricRegistry();
+
+    public static MetricRegistry getRegistry() {
+        return registry;
+    }
+
+    public static void setRegistry(MetricRegistry registry) {
+        IronTestMetrics.registry = registry;
+    }
+
+    public static Timer timer(Class<?> klass, String... names) {
+        return registry.timer(MetricRegistry.name(klass, names));
+    }
+
+    public static Histogram histogram(Class<?> klass, String... names) {
+        return registry.histogram(MetricRegistry.name(klass, names));
+    }
+
+    public static Counter counter(Class<?> klass, String... names) {
+        return registry.counter(MetricRegistry.name(klass, names));
+    }
+}
@@ -0,0 +1,86 @@
+package io.irontest.core;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.predic8.wsdl.Definitions;
+import com.predic8.wsdl.WSDLParser;
+import com.predic8.wstool.creator.RequestTemplateCreator;
+import com.predic8.wstool.creator.SOARequestCreator;
+import groovy.xml.MarkupBuilder;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static io.irontest.IronTestConstants.*;
+
+/**
+ * Cache of parsed WSDLs (keyed by WSDL URL) and of the sample requests generated from them (keyed by WSDL URL, binding
+ * name and operation name).
+ * Downloading and parsing a big WSDL (with imported XSDs) takes seconds, while the UI asks for the bindings and then
+ * for the operation info of the same WSDL. Cached entries expire after a while, or can be refreshed explicitly, to pick
+ * up changes of the WSDL.
+ */
+public class WSDLCache {
+    private static WSDLCache instance = new WSDLCache();
+
+    private final Cache<String, Definitions> definitionsCache = CacheBuilder.newBuilder()
+            .maximumSize(WSDL_CACHE_MAXIMUM_SIZE)
+            .expireAfterWrite(WSDL_CACHE_TTL_MINUTES, TimeUnit.MINUTES).build();
+    private final Cache<List<String>, String> sampleRequestCache = CacheBuilder.newBuilder()
+            .maximumSize(WSDL_SAMPLE_REQUEST_CACHE_MAXIMUM_SIZE)
+            .expireAfterWrite(WSDL_CACHE_TTL_MINUTES, TimeUnit.MINUTES).build();
+
+    private WSDLCache() { }
+
+    public static WSDLCache getInstance() {
+        return instance;
+    }
+
+    public Definitions getDefinitions(String wsdlUrl) {
+        return get(definitionsCache, wsdlUrl, () -> {
+            WSDLParser parser = new WSDLParser();
+            parser.setResourceResolver(new SSLTrustedExternalResolver());
+            return parser.parse(wsdlUrl);
+        }, "Failed to parse WSDL " + wsdlUrl);
+    }
+
+    public String getSampleRequest(String wsdlUrl, String bindingName, String operationName) {
+        return get(sampleRequestCache, Arrays.asList(wsdlUrl, bindingName, operationName), () -> {
+            Definitions definitions = getDefinitions(wsdlUrl);
+            StringWriter writer = new StringWriter();
+            //  the parsed WSDL is shared by concurrent requests, so avoid walking it with two creators at the same time
+            synchronized (definitions) {
+                SOARequestCreator creator = new SOARequestCreator(definitions, new RequestTemplateCreator(),
+                        new MarkupBuilder(writer));
+                creator.createRequest(null, operationName, bindingName);
+            }
+            return writer.toString();
+        }, "Failed to create sample request for operation " + operationName + " of binding " + bindingName);
+    }
+
+    /**
+     * Evict the WSDL and all sample requests generated from it, so that they are re-created on next access.
+     * @param wsdlUrl
+     */
+    public void refresh(String wsdlUrl) {
+        definitionsCache.invalidate(wsdlUrl);
+        sampleRequestCache.asMap().keySet().removeIf(key -> key.get(0).equals(wsdlUrl));
+    }
+
+    private <K, V> V get(Cache<K, V> cache, K key, Callable<V> loader, String errorMessage) {
+        try {
+            return cache.get(key, loader);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(errorMessage, e.getCause());
+        } catch (UncheckedExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw e;
+        }
+    }
+}
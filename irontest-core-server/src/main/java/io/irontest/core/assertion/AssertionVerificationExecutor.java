@@ -0,0 +1,47 @@
+package io.irontest.core.assertion;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.irontest.models.assertion.AssertionVerificationResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Shared pool for verifying assertions of a test step in parallel.
+ * Assertion verifications (XSD validation, XML/JSON comparison, etc.) are independent of each other and CPU bound,
+ * so the pool is sized to the number of available processors and shared by all test case runs.
+ */
+public class AssertionVerificationExecutor {
+    private static AssertionVerificationExecutor instance = new AssertionVerificationExecutor();
+
+    private final ExecutorService executorService = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(),
+            new ThreadFactoryBuilder().setNameFormat("assertion-verifier-%d").setDaemon(true).build());
+
+    private AssertionVerificationExecutor() { }
+
+    public static AssertionVerificationExecutor getInstance() {
+        return instance;
+    }
+
+    /**
+     * Run the verification tasks on the shared pool and wait for all of them to finish.
+     * Each task is expected to handle its own verification exception.
+     * @param tasks
+     * @return verification results, in the same order as the tasks.
+     * @throws InterruptedException
+     */
+    public List<AssertionVerificationResult> verifyAll(List<Callable<AssertionVerificationResult>> tasks)
+            throws InterruptedException {
+        List<AssertionVerificationResult> results = new ArrayList<>();
+        for (Future<AssertionVerificationResult> future: executorService.invokeAll(tasks)) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                throw new RuntimeException("Failed to verify assertion", e.getCause());
+            }
+        }
+        return results;
+    }
+}
@@ -1,7 +1,9 @@
 package io.irontest.core.assertion;
 
+import com.codahale.metrics.Timer;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.irontest.core.IronTestMetrics;
 import io.irontest.core.MapValueLookup;
 import io.irontest.models.assertion.Assertion;
 import org.apache.commons.text.StrSubstitutor;
@@ -84,7 +86,9 @@ public class AssertionVerifierFactory {
                 throw new RuntimeException("Unrecognized assertion type " + assertionType);
         }
 
-        resolveStringPropertyReferences(assertion, referenceableStringProperties);
+        try (Timer.Context ignored = IronTestMetrics.timer(AssertionVerifierFactory.class, "resolveProperties").time()) {
+            resolveStringPropertyReferences(assertion, referenceableStringProperties);
+        }
 
         result.setAssertion(assertion);
 
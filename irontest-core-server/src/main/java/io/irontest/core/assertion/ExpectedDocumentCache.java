@@ -0,0 +1,142 @@
+package io.irontest.core.assertion;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.irontest.utils.XMLUtils;
+import org.w3c.dom.Document;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import static io.irontest.IronTestConstants.EXPECTED_DOCUMENT_CACHE_MAXIMUM_SIZE;
+
+/**
+ * Cache of parsed expected documents of XMLEqual and JSONEqual assertions, keyed by the expected XML/JSON string
+ * (with properties resolved), so that running a test case with many data table rows, or running it repeatedly,
+ * parses a big expected document only once.
+ * Each expected document also has a canonical form, which is compared with the canonical form of the actual document
+ * before the full diff. An exact canonical match means the documents are equal, so the full diff is skipped.
+ */
+public class ExpectedDocumentCache {
+    private static ExpectedDocumentCache instance = new ExpectedDocumentCache();
+
+    //  exact decimals, so that two numbers are equal only if their values are exactly equal (like 1.5 and 1.50, but not
+    //  0.1000000000000000001 and 0.1); JsonUnit compares floats as doubles, so equal canonical trees are equal for it too
+    private static final ObjectMapper CANONICAL_JSON_OBJECT_MAPPER = new ObjectMapper()
+            .setNodeFactory(JsonNodeFactory.withExactBigDecimals(true))
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+            .enable(JsonParser.Feature.STRICT_DUPLICATE_DETECTION);
+
+    private final Cache<String, ExpectedXML> expectedXMLs = CacheBuilder.newBuilder()
+            .maximumSize(EXPECTED_DOCUMENT_CACHE_MAXIMUM_SIZE).build();
+    private final Cache<String, ExpectedJSON> expectedJSONs = CacheBuilder.newBuilder()
+            .maximumSize(EXPECTED_DOCUMENT_CACHE_MAXIMUM_SIZE).build();
+
+    private ExpectedDocumentCache() { }
+
+    public static ExpectedDocumentCache getInstance() {
+        return instance;
+    }
+
+    public ExpectedXML getXML(String expectedXML) {
+        return get(expectedXMLs, expectedXML, () -> {
+            Document document;
+            try {
+                document = XMLUtils.xmlStringToDOM(expectedXML, true);
+            } catch (Exception e) {
+                throw new RuntimeException(e.getMessage(), e);
+            }
+            //  XMLUnit placeholders (like #{xmlunit.ignore}) are evaluated against the actual value, so an expected
+            //  document containing them can not be matched by canonical form
+            String canonicalForm = expectedXML.contains("#{xmlunit.") ? null : XMLUtils.canonicalizeXML(document);
+            return new ExpectedXML(document, canonicalForm);
+        });
+    }
+
+    public ExpectedJSON getJSON(String expectedJSON) {
+        return get(expectedJSONs, expectedJSON, () -> {
+            Object parsedJSON = JsonUnitInternals.parseExpectedJSON(expectedJSON);
+            //  JsonUnit placeholders (like ${json-unit.ignore}) are evaluated against the actual value, so an expected
+            //  document containing them can not be matched by canonical form
+            JsonNode canonicalTree = expectedJSON.contains("${json-unit.") ? null : canonicalizeJSON(expectedJSON);
+            return new ExpectedJSON(parsedJSON, canonicalTree);
+        });
+    }
+
+    /**
+     * @param json
+     * @return the JSON tree for exact comparison, or null if the input is not well formed JSON (including having
+     * duplicate keys), in which case the full diff will tell.
+     */
+    public static JsonNode canonicalizeJSON(String json) {
+        try {
+            return CANONICAL_JSON_OBJECT_MAPPER.readTree(json);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private <V> V get(Cache<String, V> cache, String key, Callable<V> loader) {
+        try {
+            return cache.get(key, loader);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause().getMessage(), e.getCause());
+        } catch (UncheckedExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw e;
+        }
+    }
+
+    public static class ExpectedXML {
+        //  DOM implementations are not thread safe even for reading, so each verification compares against its own deep
+        //  copy of the parsed document; only the copying reads the shared document, so it is synchronized on the
+        //  document. Copies are not kept, so memory used by the cache does not grow with the number of threads.
+        private final Document document;
+        private final String canonicalForm;
+
+        private ExpectedXML(Document document, String canonicalForm) {
+            this.document = document;
+            this.canonicalForm = canonicalForm;
+        }
+
+        /**
+         * Copying is cheaper than parsing the expected XML again, and is only needed when the canonical forms differ.
+         * @return a new deep copy of the parsed expected document, owned by the caller.
+         */
+        public Document copyDocument() {
+            synchronized (document) {
+                return (Document) document.cloneNode(true);
+            }
+        }
+
+        public String getCanonicalForm() {
+            return canonicalForm;
+        }
+    }
+
+    public static class ExpectedJSON {
+        private final Object parsedJSON;     //  opaque, parsed by JsonUnitInternals
+        private final JsonNode canonicalTree;
+
+        private ExpectedJSON(Object parsedJSON, JsonNode canonicalTree) {
+            this.parsedJSON = parsedJSON;
+            this.canonicalTree = canonicalTree;
+        }
+
+        public Object getParsedJSON() {
+            return parsedJSON;
+        }
+
+        public JsonNode getCanonicalTree() {
+            return canonicalTree;
+        }
+    }
+}
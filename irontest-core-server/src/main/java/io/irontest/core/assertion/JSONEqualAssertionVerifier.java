@@ -1,13 +1,12 @@
 package io.irontest.core.assertion;
 
 import com.fasterxml.jackson.core.JsonParseException;
+import io.irontest.core.assertion.ExpectedDocumentCache.ExpectedJSON;
 import io.irontest.models.TestResult;
 import io.irontest.models.assertion.AssertionVerificationResult;
 import io.irontest.models.assertion.JSONEqualAssertionProperties;
 import io.irontest.models.assertion.MessageEqualAssertionVerificationResult;
 
-import static net.javacrumbs.jsonunit.JsonAssert.assertJsonEquals;
-
 public class JSONEqualAssertionVerifier extends AssertionVerifier {
     /**
      *
@@ -30,7 +29,11 @@ public class JSONEqualAssertionVerifier extends AssertionVerifier {
 
         MessageEqualAssertionVerificationResult result = new MessageEqualAssertionVerificationResult();
         try {
-            assertJsonEquals(expectedJSON, inputs[0]);
+            ExpectedJSON expected = ExpectedDocumentCache.getInstance().getJSON(expectedJSON);
+            if (expected.getCanonicalTree() == null ||
+                    !expected.getCanonicalTree().equals(ExpectedDocumentCache.canonicalizeJSON((String) inputs[0]))) {
+                result.setDifferences(JsonUnitInternals.compare(expected.getParsedJSON(), inputs[0]));
+            }
         } catch (IllegalArgumentException e) {
             Throwable c = e.getCause();
             if (c instanceof JsonParseException) {
@@ -38,8 +41,6 @@ public class JSONEqualAssertionVerifier extends AssertionVerifier {
             } else {
                 throw e;
             }
-        } catch (AssertionError ae) {
-            result.setDifferences(ae.getMessage());
         }
 
         if (result.getDifferences() == null) {
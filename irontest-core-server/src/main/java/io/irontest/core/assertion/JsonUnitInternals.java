@@ -0,0 +1,37 @@
+package io.irontest.core.assertion;
+
+import net.javacrumbs.jsonunit.core.Configuration;
+import net.javacrumbs.jsonunit.core.internal.Diff;
+import net.javacrumbs.jsonunit.core.internal.JsonUtils;
+
+/**
+ * The only place using JsonUnit's internal API (package net.javacrumbs.jsonunit.core.internal), which has no
+ * compatibility guarantee and can change in any JsonUnit release.
+ * It is used because the public API (JsonAssert) parses the expected JSON string on every comparison, while the
+ * internal API can compare against an expected JSON parsed once (see {@link ExpectedDocumentCache}).
+ * The results are the same as JsonAssert.assertJsonEquals, which is checked by JSONEqualAssertionVerifierTest; rerun it
+ * when upgrading JsonUnit.
+ */
+final class JsonUnitInternals {
+    private JsonUnitInternals() { }
+
+    /**
+     * @param json
+     * @return the JSON parsed by JsonUnit, to be passed to {@link #compare(Object, Object)} as the expected JSON.
+     */
+    static Object parseExpectedJSON(String json) {
+        return JsonUtils.convertToJson(json, "expected");
+    }
+
+    /**
+     * Same comparison as JsonAssert.assertJsonEquals(expected, actual).
+     * @param expected the expected JSON returned by {@link #parseExpectedJSON(String)}
+     * @param actual
+     * @return differences found, in the same format as the message of the AssertionError thrown by
+     * JsonAssert.assertJsonEquals, or null if there is no difference.
+     */
+    static String compare(Object expected, Object actual) {
+        Diff diff = Diff.create(expected, actual, "fullJson", "", Configuration.empty());
+        return diff.similar() ? null : diff.differences();
+    }
+}
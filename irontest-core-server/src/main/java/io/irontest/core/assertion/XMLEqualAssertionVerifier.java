@@ -1,10 +1,14 @@
 package io.irontest.core.assertion;
 
+import io.irontest.core.assertion.ExpectedDocumentCache.ExpectedXML;
 import io.irontest.models.TestResult;
 import io.irontest.models.assertion.AssertionVerificationResult;
 import io.irontest.models.assertion.MessageEqualAssertionVerificationResult;
 import io.irontest.models.assertion.XMLEqualAssertionProperties;
 import io.irontest.utils.XMLUtils;
+import org.w3c.dom.Document;
+
+import javax.xml.transform.TransformerException;
 
 public class XMLEqualAssertionVerifier extends AssertionVerifier {
     /**
@@ -13,7 +17,7 @@ public class XMLEqualAssertionVerifier extends AssertionVerifier {
      * @return
      */
     @Override
-    public AssertionVerificationResult verify(Object ...inputs) {
+    public AssertionVerificationResult verify(Object ...inputs) throws TransformerException {
         XMLEqualAssertionProperties assertionProperties =
                 (XMLEqualAssertionProperties) getAssertion().getOtherProperties();
 
@@ -27,7 +31,20 @@ public class XMLEqualAssertionVerifier extends AssertionVerifier {
         }
 
         MessageEqualAssertionVerificationResult result = new MessageEqualAssertionVerificationResult();
-        String differencesStr = XMLUtils.compareXML(assertionProperties.getExpectedXML(), (String) inputs[0]);
+        ExpectedXML expectedXML = ExpectedDocumentCache.getInstance().getXML(assertionProperties.getExpectedXML());
+        Document actualXML;
+        try {
+            actualXML = XMLUtils.xmlStringToDOM((String) inputs[0], true);
+        } catch (Exception e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+        String differencesStr;
+        if (expectedXML.getCanonicalForm() != null &&
+                expectedXML.getCanonicalForm().equals(XMLUtils.canonicalizeXML(actualXML))) {
+            differencesStr = "";
+        } else {
+            differencesStr = XMLUtils.compareXML(expectedXML.copyDocument(), actualXML);
+        }
         if (differencesStr.length() > 0) {
             result.setResult(TestResult.FAILED);
             result.setDifferences(differencesStr);
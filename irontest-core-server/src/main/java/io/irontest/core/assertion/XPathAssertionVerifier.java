@@ -14,7 +14,6 @@ import javax.xml.transform.TransformerException;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 import java.io.StringReader;
 import java.util.List;
 
@@ -48,7 +47,7 @@ public class XPathAssertionVerifier extends AssertionVerifier {
     private void evaluateXPathExpression(String xmlInput, String xPathExpression,
                                          List<NamespacePrefix> namespacePrefixes,
                                          AssertionVerificationResultWithActualValue result) throws TransformerException, XPathExpressionException {
-        XPath xpath = XPathFactory.newInstance().newXPath();
+        XPath xpath = XMLUtils.getXPath();
         xpath.setNamespaceContext(new IronTestNamespaceContext(namespacePrefixes));
 
         InputSource inputSource = new InputSource(new StringReader(xmlInput));
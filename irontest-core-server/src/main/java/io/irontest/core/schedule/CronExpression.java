@@ -0,0 +1,133 @@
+package io.irontest.core.schedule;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+
+/**
+ * Standard five field cron expression: minute, hour, day of month, month, day of week (0 or 7 is Sunday).
+ * Each field supports *, numbers, ranges (a-b), lists (a,b) and steps (* /n, a-b/n).
+ * Like Unix cron, if both day of month and day of week are restricted, a day matching either of them matches.
+ */
+public class CronExpression {
+    //  max years to look ahead for the next fire time, e.g. for expressions like '0 0 30 2 *' which never fire
+    private static final int MAX_YEARS_TO_LOOK_AHEAD = 5;
+
+    private final String expression;
+    private final BitSet minutes;
+    private final BitSet hours;
+    private final BitSet daysOfMonth;
+    private final BitSet months;
+    private final BitSet daysOfWeek;
+    private final boolean daysOfMonthRestricted;
+    private final boolean daysOfWeekRestricted;
+
+    public CronExpression(String expression) {
+        if (expression == null) {
+            throw new IllegalArgumentException("Cron expression is null.");
+        }
+        String[] fields = expression.trim().split("\\s+");
+        if (fields.length != 5) {
+            throw new IllegalArgumentException("Cron expression '" + expression +
+                    "' should have 5 fields: minute, hour, day of month, month, day of week.");
+        }
+        this.expression = expression.trim();
+        minutes = parseField(fields[0], 0, 59, "minute");
+        hours = parseField(fields[1], 0, 23, "hour");
+        daysOfMonth = parseField(fields[2], 1, 31, "day of month");
+        months = parseField(fields[3], 1, 12, "month");
+        daysOfWeek = parseField(fields[4], 0, 7, "day of week");
+        if (daysOfWeek.get(7)) {
+            daysOfWeek.set(0);
+        }
+        daysOfMonthRestricted = !fields[2].startsWith("*");
+        daysOfWeekRestricted = !fields[4].startsWith("*");
+    }
+
+    private BitSet parseField(String field, int min, int max, String fieldName) {
+        BitSet result = new BitSet(max + 1);
+        for (String part: field.split(",")) {
+            int step = 1;
+            String range = part;
+            int slashIndex = part.indexOf('/');
+            if (slashIndex >= 0) {
+                step = parseNumber(part.substring(slashIndex + 1), 1, max, fieldName);
+                range = part.substring(0, slashIndex);
+            }
+
+            int from;
+            int to;
+            if ("*".equals(range)) {
+                from = min;
+                to = max;
+            } else if (range.contains("-")) {
+                String[] bounds = range.split("-", 2);
+                from = parseNumber(bounds[0], min, max, fieldName);
+                to = parseNumber(bounds[1], min, max, fieldName);
+                if (from > to) {
+                    throw new IllegalArgumentException("Invalid " + fieldName + " range '" + range + "'.");
+                }
+            } else {
+                from = parseNumber(range, min, max, fieldName);
+                to = slashIndex >= 0 ? max : from;
+            }
+
+            for (int i = from; i <= to; i += step) {
+                result.set(i);
+            }
+        }
+        return result;
+    }
+
+    private int parseNumber(String str, int min, int max, String fieldName) {
+        int number;
+        try {
+            number = Integer.parseInt(str);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + fieldName + " '" + str + "'.");
+        }
+        if (number < min || number > max) {
+            throw new IllegalArgumentException("Invalid " + fieldName + " '" + str + "', should be between " +
+                    min + " and " + max + ".");
+        }
+        return number;
+    }
+
+    /**
+     * @param after
+     * @return the earliest time (at minute boundary) matching the expression, strictly after the given time.
+     */
+    public LocalDateTime next(LocalDateTime after) {
+        LocalDateTime time = after.truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+        LocalDateTime limit = time.plusYears(MAX_YEARS_TO_LOOK_AHEAD);
+        while (time.isBefore(limit)) {
+            if (!months.get(time.getMonthValue())) {
+                time = time.withDayOfMonth(1).truncatedTo(ChronoUnit.DAYS).plusMonths(1);
+            } else if (!dayMatches(time)) {
+                time = time.truncatedTo(ChronoUnit.DAYS).plusDays(1);
+            } else if (!hours.get(time.getHour())) {
+                time = time.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+            } else if (!minutes.get(time.getMinute())) {
+                time = time.plusMinutes(1);
+            } else {
+                return time;
+            }
+        }
+        throw new IllegalArgumentException("Cron expression '" + expression + "' never fires.");
+    }
+
+    private boolean dayMatches(LocalDateTime time) {
+        boolean dayOfMonthMatches = daysOfMonth.get(time.getDayOfMonth());
+        boolean dayOfWeekMatches = daysOfWeek.get(time.getDayOfWeek().getValue() % 7);
+        if (daysOfMonthRestricted && daysOfWeekRestricted) {
+            return dayOfMonthMatches || dayOfWeekMatches;
+        } else {
+            return dayOfMonthMatches && dayOfWeekMatches;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
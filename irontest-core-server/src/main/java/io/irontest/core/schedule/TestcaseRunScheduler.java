@@ -0,0 +1,207 @@
+package io.irontest.core.schedule;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.dropwizard.lifecycle.Managed;
+import io.irontest.core.IronTestMetrics;
+import io.irontest.core.testcase.DataDrivenTestcaseRunner;
+import io.irontest.core.testcase.RegularTestcaseRunner;
+import io.irontest.core.testcase.TestcaseRunner;
+import io.irontest.db.ScheduleDAO;
+import io.irontest.db.TestcaseDAO;
+import io.irontest.db.TestcaseRunDAO;
+import io.irontest.db.UtilsDAO;
+import io.irontest.models.FolderTreeNodeType;
+import io.irontest.models.Schedule;
+import io.irontest.models.ScheduleMisfirePolicy;
+import io.irontest.models.Testcase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fire enabled schedules at their cron fire times.
+ * Test case runs of all schedules go through one shared execution queue, whose number of threads is the global cap
+ * of concurrent scheduled runs. A schedule is not fired again while its previous firing is still queued or running,
+ * so schedules can not pile up in the queue.
+ */
+public class TestcaseRunScheduler implements Managed {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TestcaseRunScheduler.class);
+    private static final long TICK_INTERVAL_SECONDS = 10;
+
+    private final ScheduleDAO scheduleDAO;
+    private final TestcaseDAO testcaseDAO;
+    private final UtilsDAO utilsDAO;
+    private final TestcaseRunDAO testcaseRunDAO;
+    private final WireMockServer wireMockServer;
+    private final int maxConcurrentRuns;
+    private final long misfireThresholdSeconds;     //  a fire time missed by longer than this is a misfire
+    private final Set<Long> firingScheduleIds = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService ticker;
+    private ThreadPoolExecutor runExecutor;
+
+    public TestcaseRunScheduler(ScheduleDAO scheduleDAO, TestcaseDAO testcaseDAO, UtilsDAO utilsDAO,
+                                TestcaseRunDAO testcaseRunDAO, WireMockServer wireMockServer, int maxConcurrentRuns,
+                                long misfireThresholdSeconds) {
+        this.scheduleDAO = scheduleDAO;
+        this.testcaseDAO = testcaseDAO;
+        this.utilsDAO = utilsDAO;
+        this.testcaseRunDAO = testcaseRunDAO;
+        this.wireMockServer = wireMockServer;
+        this.maxConcurrentRuns = maxConcurrentRuns;
+        this.misfireThresholdSeconds = misfireThresholdSeconds;
+    }
+
+    @Override
+    public void start() {
+        runExecutor = new ThreadPoolExecutor(maxConcurrentRuns, maxConcurrentRuns, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new ThreadFactoryBuilder().setNameFormat("scheduled-run-%d").build());
+        IronTestMetrics.getRegistry().register(MetricRegistry.name(TestcaseRunScheduler.class, "queuedRuns"),
+                (Gauge<Integer>) () -> runExecutor.getQueue().size());
+        ticker = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("scheduler-%d").setDaemon(true).build());
+        ticker.scheduleWithFixedDelay(this::tick, 0, TICK_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void stop() throws InterruptedException {
+        ticker.shutdownNow();
+        runExecutor.shutdownNow();
+        runExecutor.awaitTermination(TICK_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private void tick() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            for (Schedule schedule: scheduleDAO.findEnabled()) {
+                try {
+                    tick(schedule, now);
+                } catch (Exception e) {
+                    LOGGER.error("Failed to process schedule " + schedule.getName(), e);
+                }
+            }
+        } catch (Exception e) {
+            //  do not let the exception cancel the ticker
+            LOGGER.error("Failed to process schedules", e);
+        }
+    }
+
+    private void tick(Schedule schedule, LocalDateTime now) {
+        CronExpression cronExpression = new CronExpression(schedule.getCronExpression());
+        Date nextFireTime = toDate(cronExpression.next(now));
+        if (schedule.getNextFireTime() == null) {
+            scheduleDAO.updateFireTimes(schedule.getId(), schedule.getLastFireTime(), nextFireTime);
+            return;
+        }
+
+        LocalDateTime dueFireTime = toLocalDateTime(schedule.getNextFireTime());
+        if (dueFireTime.isAfter(now)) {
+            return;
+        }
+
+        //  a fire time missed for too long (e.g. the server was down) is a misfire; multiple missed fire times are
+        //  coalesced into one firing at most
+        boolean misfired = Duration.between(dueFireTime, now).getSeconds() > misfireThresholdSeconds;
+        if (misfired && schedule.getMisfirePolicy() == ScheduleMisfirePolicy.SKIP) {
+            LOGGER.info("Schedule " + schedule.getName() + " misfired at " + dueFireTime + ". Skipped.");
+            scheduleDAO.updateFireTimes(schedule.getId(), schedule.getLastFireTime(), nextFireTime);
+        } else if (!scheduleDAO.targetExists(schedule)) {
+            //  the target test case or folder has been deleted since the schedule was saved
+            LOGGER.warn("Target " + schedule.getTargetType() + " " + schedule.getTargetId() + " of schedule " +
+                    schedule.getName() + " no longer exists. Schedule disabled.");
+            scheduleDAO.disable(schedule.getId());
+        } else {
+            //  last fire time is only updated when the firing actually starts runs
+            Date lastFireTime = fire(schedule) ? toDate(now) : schedule.getLastFireTime();
+            scheduleDAO.updateFireTimes(schedule.getId(), lastFireTime, nextFireTime);
+        }
+    }
+
+    /**
+     * @param schedule
+     * @return true if test case runs of the schedule have been queued, false if the firing is skipped.
+     */
+    private boolean fire(Schedule schedule) {
+        if (!firingScheduleIds.add(schedule.getId())) {
+            LOGGER.info("Schedule " + schedule.getName() + " is still running. Skipped.");
+            IronTestMetrics.counter(TestcaseRunScheduler.class, "skippedFirings").inc();
+            return false;
+        }
+
+        List<Long> testcaseIds = schedule.getTargetType() == FolderTreeNodeType.FOLDER ?
+                testcaseDAO.findIdsUnderFolder(schedule.getTargetId()) :
+                Collections.singletonList(schedule.getTargetId());
+        if (testcaseIds.isEmpty()) {
+            firingScheduleIds.remove(schedule.getId());
+            return false;
+        }
+
+        LOGGER.info("Schedule " + schedule.getName() + " fired, queuing " + testcaseIds.size() + " test case(s).");
+        AtomicInteger remainingRuns = new AtomicInteger(testcaseIds.size());
+        for (long testcaseId: testcaseIds) {
+            runExecutor.execute(() -> {
+                try {
+                    runTestcase(testcaseId);
+                } catch (Exception e) {
+                    LOGGER.error("Failed to run test case " + testcaseId + " of schedule " + schedule.getName(), e);
+                } finally {
+                    if (remainingRuns.decrementAndGet() == 0) {
+                        firingScheduleIds.remove(schedule.getId());
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    private void runTestcase(long testcaseId) throws IOException {
+        if (testcaseDAO._findById(testcaseId) == null) {
+            //  deleted after the schedule fired
+            LOGGER.warn("Test case " + testcaseId + " no longer exists. Not run.");
+            return;
+        }
+        Testcase testcase = testcaseDAO.findById_Complete(testcaseId);
+        TestcaseRunner testcaseRunner;
+        if (testcase.getDataTable().getRows().isEmpty()) {
+            testcaseRunner = new RegularTestcaseRunner(testcase, utilsDAO, testcaseRunDAO, wireMockServer);
+        } else {
+            testcaseRunner = new DataDrivenTestcaseRunner(testcase, utilsDAO, testcaseRunDAO, wireMockServer);
+        }
+        IronTestMetrics.counter(TestcaseRunner.class, "activeRuns").inc();
+        try {
+            testcaseRunner.run();
+        } finally {
+            IronTestMetrics.counter(TestcaseRunner.class, "activeRuns").dec();
+        }
+    }
+
+    private static Date toDate(LocalDateTime localDateTime) {
+        return Date.from(localDateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static LocalDateTime toLocalDateTime(Date date) {
+        return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+
+    /**
+     * @param schedule
+     * @return the next fire time of the schedule from now, or null if the schedule is disabled.
+     * @throws IllegalArgumentException if the schedule's cron expression is invalid
+     */
+    public static Date computeNextFireTime(Schedule schedule) {
+        CronExpression cronExpression = new CronExpression(schedule.getCronExpression());
+        return schedule.isEnabled() ? toDate(cronExpression.next(LocalDateTime.now())) : null;
+    }
+}
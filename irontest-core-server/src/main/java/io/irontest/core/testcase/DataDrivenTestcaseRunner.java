@@ -40,37 +40,41 @@ public class DataDrivenTestcaseRunner extends TestcaseRunner {
         DataTable dataTable = getTestcase().getDataTable();
         IronTestUtils.checkDuplicatePropertyNameBetweenDataTableAndUPDs(getUdpNames(), dataTable);
 
-        for (int dataTableRowIndex = 0; dataTableRowIndex < dataTable.getRows().size(); dataTableRowIndex++) {
-            LinkedHashMap<String, DataTableCell> dataTableRow = dataTable.getRows().get(dataTableRowIndex);
-            TestcaseIndividualRun individualRun = new TestcaseIndividualRun();
-            testcaseRun.getIndividualRuns().add(individualRun);
-
-            //  start test case individual run
-            individualRun.setStartTime(new Date());
-            LOGGER.info("Start individually running test case with data table row: " + individualRun.getCaption());
-            individualRun.setResult(TestResult.PASSED);
-            getTestcaseRunContext().setTestcaseIndividualRunStartTime(individualRun.getStartTime());
-            getReferenceableStringProperties().put(IMPLICIT_PROPERTY_NAME_TEST_CASE_INDIVIDUAL_START_TIME,
-                    IMPLICIT_PROPERTY_DATE_TIME_FORMAT.format(individualRun.getStartTime()));
-            individualRun.setCaption(dataTableRow.get(DataTableColumn.COLUMN_NAME_CAPTION).getValue());
-            getReferenceableEndpointProperties().putAll(dataTable.getEndpointPropertiesInRow(dataTableRowIndex));
-            getReferenceableStringProperties().putAll(dataTable.getStringPropertiesInRow(dataTableRowIndex));
-
-            //  run test steps
-            for (Teststep teststep : getTestcase().getTeststeps()) {
-                Teststep clonedTeststep = cloner.deepClone(teststep);
-                individualRun.getStepRuns().add(runTeststep(clonedTeststep));
-            }
+        try {
+            for (int dataTableRowIndex = 0; dataTableRowIndex < dataTable.getRows().size(); dataTableRowIndex++) {
+                LinkedHashMap<String, DataTableCell> dataTableRow = dataTable.getRows().get(dataTableRowIndex);
+                TestcaseIndividualRun individualRun = new TestcaseIndividualRun();
+                testcaseRun.getIndividualRuns().add(individualRun);
+
+                //  start test case individual run
+                individualRun.setStartTime(new Date());
+                LOGGER.info("Start individually running test case with data table row: " + individualRun.getCaption());
+                individualRun.setResult(TestResult.PASSED);
+                getTestcaseRunContext().setTestcaseIndividualRunStartTime(individualRun.getStartTime());
+                getReferenceableStringProperties().put(IMPLICIT_PROPERTY_NAME_TEST_CASE_INDIVIDUAL_START_TIME,
+                        IMPLICIT_PROPERTY_DATE_TIME_FORMAT.format(individualRun.getStartTime()));
+                individualRun.setCaption(dataTableRow.get(DataTableColumn.COLUMN_NAME_CAPTION).getValue());
+                getReferenceableEndpointProperties().putAll(dataTable.getEndpointPropertiesInRow(dataTableRowIndex));
+                getReferenceableStringProperties().putAll(dataTable.getStringPropertiesInRow(dataTableRowIndex));
+
+                //  run test steps
+                for (Teststep teststep : getTestcase().getTeststeps()) {
+                    Teststep clonedTeststep = cloner.deepClone(teststep);
+                    individualRun.getStepRuns().add(runTeststep(clonedTeststep));
+                }
 
-            //  test case individual run ends
-            individualRun.setDuration(new Date().getTime() - individualRun.getStartTime().getTime());
-            LOGGER.info("Finish individually running test case with data table row: " + individualRun.getCaption());
-            for (TeststepRun teststepRun: individualRun.getStepRuns()) {
-                if (TestResult.FAILED == teststepRun.getResult()) {
-                    individualRun.setResult(TestResult.FAILED);
-                    break;
+                //  test case individual run ends
+                individualRun.setDuration(new Date().getTime() - individualRun.getStartTime().getTime());
+                LOGGER.info("Finish individually running test case with data table row: " + individualRun.getCaption());
+                for (TeststepRun teststepRun: individualRun.getStepRuns()) {
+                    if (TestResult.FAILED == teststepRun.getResult()) {
+                        individualRun.setResult(TestResult.FAILED);
+                        break;
+                    }
                 }
             }
+        } finally {
+            removeHTTPStubInstances();
         }
 
         //  test case run ends
@@ -84,7 +88,11 @@ public class DataDrivenTestcaseRunner extends TestcaseRunner {
         }
 
         //  persist test case run details into database
-        getTestcaseRunDAO().insert(testcaseRun);
+        int teststepRunCount = 0;
+        for (TestcaseIndividualRun individualRun: testcaseRun.getIndividualRuns()) {
+            teststepRunCount += individualRun.getStepRuns().size();
+        }
+        persistTestcaseRun(testcaseRun, teststepRunCount);
 
         return testcaseRun;
     }
@@ -0,0 +1,121 @@
+package io.irontest.core.testcase;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.irontest.models.testrun.LoadTestHandle;
+import io.irontest.models.testrun.LoadTestRun;
+import io.irontest.models.testrun.LoadTestStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static io.irontest.IronTestConstants.LOAD_TEST_HANDLE_RETENTION_HOURS;
+import static io.irontest.IronTestConstants.LOAD_TEST_MAX_CONCURRENT_RUNS;
+
+/**
+ * Run load tests in background, so that the HTTP request starting a load test returns immediately with a handle,
+ * instead of being held for the whole load test duration.
+ * At most {@link io.irontest.IronTestConstants#LOAD_TEST_MAX_CONCURRENT_RUNS} load tests run at the same time, as
+ * each of them runs its own pool of virtual users. Further load tests are rejected instead of queued, as a queued load
+ * test would not run at the time it is expected to.
+ * Handles of running load tests are kept until the load tests end; handles of ended load tests are kept for a while
+ * for polling their status.
+ */
+public class LoadTestExecutor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadTestExecutor.class);
+    private static LoadTestExecutor instance = new LoadTestExecutor(LOAD_TEST_MAX_CONCURRENT_RUNS);
+
+    private final int maxConcurrentRuns;
+    private final ExecutorService executorService;
+    private final Map<String, RunningLoadTest> runningLoadTests = new ConcurrentHashMap<>();
+    private final Cache<String, LoadTestHandle> endedLoadTests = CacheBuilder.newBuilder()
+            .expireAfterWrite(LOAD_TEST_HANDLE_RETENTION_HOURS, TimeUnit.HOURS).build();
+
+    @VisibleForTesting
+    LoadTestExecutor(int maxConcurrentRuns) {
+        this.maxConcurrentRuns = maxConcurrentRuns;
+        //  the queue only holds a submitted load test until the thread of an ending one is back to the pool
+        this.executorService = new ThreadPoolExecutor(maxConcurrentRuns, maxConcurrentRuns, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("load-test-%d").setDaemon(true).build());
+    }
+
+    public static LoadTestExecutor getInstance() {
+        return instance;
+    }
+
+    /**
+     * Validate the load test settings, and start the load test in background.
+     * @param loadTestRunner
+     * @param testcaseId
+     * @return handle of the load test
+     * @throws IllegalArgumentException if the max number of load tests are already running
+     */
+    public synchronized LoadTestHandle submit(LoadTestRunner loadTestRunner, long testcaseId) {
+        loadTestRunner.validateSettings();
+        if (runningLoadTests.size() >= maxConcurrentRuns) {
+            throw new IllegalArgumentException("Already running " + runningLoadTests.size() +
+                    " load tests. Stop one of them or wait for it to end before starting another.");
+        }
+
+        LoadTestHandle handle = new LoadTestHandle(UUID.randomUUID().toString(), testcaseId, new Date());
+        runningLoadTests.put(handle.getId(), new RunningLoadTest(handle, loadTestRunner));
+        executorService.submit(() -> {
+            try {
+                LoadTestRun loadTestRun = loadTestRunner.run();
+                handle.setLoadTestRunId(loadTestRun.getId());
+                handle.setStatus(loadTestRunner.isStopped() ? LoadTestStatus.STOPPED : LoadTestStatus.FINISHED);
+            } catch (Throwable t) {
+                LOGGER.error("Load test failed", t);
+                handle.setErrorMessage(t.getMessage());
+                handle.setStatus(LoadTestStatus.FAILED);
+            } finally {
+                endedLoadTests.put(handle.getId(), handle);
+                runningLoadTests.remove(handle.getId());
+            }
+        });
+
+        return handle;
+    }
+
+    /**
+     * @param handleId
+     * @return the handle, or null if there is no such load test (or it ended long ago)
+     */
+    public LoadTestHandle findHandle(String handleId) {
+        RunningLoadTest runningLoadTest = runningLoadTests.get(handleId);
+        return runningLoadTest == null ? endedLoadTests.getIfPresent(handleId) : runningLoadTest.handle;
+    }
+
+    /**
+     * Stop the load test from starting new iterations. The load test ends (with status
+     * {@link LoadTestStatus#STOPPED}) once its running iterations are finished.
+     * Stopping an ended load test does nothing.
+     * @param handleId
+     * @return the handle, or null if there is no such load test (or it ended long ago)
+     */
+    public LoadTestHandle stop(String handleId) {
+        RunningLoadTest runningLoadTest = runningLoadTests.get(handleId);
+        if (runningLoadTest == null) {
+            return endedLoadTests.getIfPresent(handleId);
+        }
+        runningLoadTest.loadTestRunner.stop();
+        return runningLoadTest.handle;
+    }
+
+    private static class RunningLoadTest {
+        private final LoadTestHandle handle;
+        private final LoadTestRunner loadTestRunner;
+
+        private RunningLoadTest(LoadTestHandle handle, LoadTestRunner loadTestRunner) {
+            this.handle = handle;
+            this.loadTestRunner = loadTestRunner;
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package io.irontest.core.testcase;
+
+import com.codahale.metrics.Counter;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.google.common.math.LongMath;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.rits.cloning.Cloner;
+import io.irontest.core.IronTestMetrics;
+import io.irontest.db.LoadTestRunDAO;
+import io.irontest.db.TestcaseRunDAO;
+import io.irontest.db.UtilsDAO;
+import io.irontest.models.TestResult;
+import io.irontest.models.Testcase;
+import io.irontest.models.testrun.*;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Run a test case repeatedly, in closed workload model (fixed number of virtual users) or open workload model
+ * (fixed arrival rate), until the duration or the iteration count is reached.
+ * Iterations are not persisted individually. Only the aggregated statistics are persisted, as a load test run.
+ * In open workload model, iterations of a regular test case are run without blocking a thread while waiting for
+ * responses of HTTP/SOAP test steps, so the number of iterations in flight is not limited by the number of threads.
+ */
+public class LoadTestRunner {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadTestRunner.class);
+    private static final int HISTOGRAM_SIGNIFICANT_VALUE_DIGITS = 3;
+    //  open model: how long after the expected end of arrivals to wait before giving up on the arrival scheduler
+    private static final long ARRIVALS_END_GRACE_SECONDS = 60;
+
+    private Testcase testcase;      //  the complete test case, cloned for each iteration
+    private LoadTestSettings settings;
+    private UtilsDAO utilsDAO;
+    private TestcaseRunDAO testcaseRunDAO;
+    private LoadTestRunDAO loadTestRunDAO;
+    private WireMockServer wireMockServer;
+
+    private volatile boolean stopped;
+    private final AtomicLong startedIterationCount = new AtomicLong();
+    private final AtomicLong iterationCount = new AtomicLong();
+    private final AtomicLong failedIterationCount = new AtomicLong();
+    private final AtomicLong droppedIterationCount = new AtomicLong();
+    private final Histogram testcaseLatencyHistogram = new ConcurrentHistogram(HISTOGRAM_SIGNIFICANT_VALUE_DIGITS);
+    //  keyed by test step name, in the order of first appearance
+    private final Map<String, Histogram> teststepLatencyHistograms = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final Map<String, AtomicLong> teststepFailureCounts = new ConcurrentHashMap<>();
+    //  unexpected errors of virtual users and iteration workers
+    //  (errors of test case runs are counted as failed iterations instead)
+    private final List<Throwable> virtualUserErrors = Collections.synchronizedList(new ArrayList<>());
+
+    public LoadTestRunner(Testcase testcase, LoadTestSettings settings, UtilsDAO utilsDAO,
+                          TestcaseRunDAO testcaseRunDAO, LoadTestRunDAO loadTestRunDAO, WireMockServer wireMockServer) {
+        this.testcase = testcase;
+        this.settings = settings;
+        this.utilsDAO = utilsDAO;
+        this.testcaseRunDAO = testcaseRunDAO;
+        this.loadTestRunDAO = loadTestRunDAO;
+        this.wireMockServer = wireMockServer;
+    }
+
+    public LoadTestRun run() throws IOException, InterruptedException {
+        LoadTestRun loadTestRun = runIterations();
+
+        //  persist the aggregated statistics into database
+        loadTestRunDAO.insert(loadTestRun);
+
+        return loadTestRun;
+    }
+
+    /**
+     * Run the iterations and aggregate their statistics, without persisting anything.
+     * @return
+     * @throws InterruptedException
+     */
+    LoadTestRun runIterations() throws InterruptedException {
+        validateSettings();
+
+        LOGGER.info("Start load testing test case: " + testcase.getName());
+        Date startTime = new Date();
+        long startNanos = System.nanoTime();
+        long deadlineNanos = settings.getDurationSeconds() > 0 ?
+                startNanos + TimeUnit.SECONDS.toNanos(settings.getDurationSeconds()) : Long.MAX_VALUE;
+
+        if (settings.getWorkloadModel() == LoadTestWorkloadModel.OPEN) {
+            runOpenWorkload(deadlineNanos);
+        } else {
+            runClosedWorkload(deadlineNanos);
+        }
+        if (!virtualUserErrors.isEmpty()) {
+            Throwable firstError = virtualUserErrors.get(0);
+            RuntimeException e = new RuntimeException(virtualUserErrors.size() +
+                    " virtual user/iteration error(s) in load test: " + firstError, firstError);
+            for (Throwable error: virtualUserErrors.subList(1, virtualUserErrors.size())) {
+                e.addSuppressed(error);
+            }
+            throw e;
+        }
+
+        long elapsedNanos = System.nanoTime() - startNanos;
+        LOGGER.info("Finish load testing test case: " + testcase.getName());
+
+        LoadTestRun loadTestRun = new LoadTestRun();
+        loadTestRun.setTestcaseId(testcase.getId());
+        loadTestRun.setTestcaseName(testcase.getName());
+        loadTestRun.setSettings(settings);
+        loadTestRun.setStartTime(startTime);
+        loadTestRun.setDuration(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        loadTestRun.setIterationCount(iterationCount.get());
+        loadTestRun.setFailedIterationCount(failedIterationCount.get());
+        loadTestRun.setDroppedIterationCount(droppedIterationCount.get());
+        loadTestRun.setThroughput(iterationCount.get() / (elapsedNanos / 1e9));
+        loadTestRun.setResult(failedIterationCount.get() == 0 && droppedIterationCount.get() == 0 ?
+                TestResult.PASSED : TestResult.FAILED);
+        loadTestRun.setTestcaseLatency(toLatencyStatistics(testcaseLatencyHistogram));
+        synchronized (teststepLatencyHistograms) {
+            for (Map.Entry<String, Histogram> entry: teststepLatencyHistograms.entrySet()) {
+                loadTestRun.getTeststepStatistics().add(new TeststepLoadStatistics(entry.getKey(),
+                        teststepFailureCounts.get(entry.getKey()).get(), toLatencyStatistics(entry.getValue())));
+            }
+        }
+
+        return loadTestRun;
+    }
+
+    /**
+     * Stop starting new iterations. Running iterations are finished, and the load test ends with the statistics of
+     * the finished iterations.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    void validateSettings() {
+        if (settings == null) {
+            throw new IllegalArgumentException("Load test settings not specified.");
+        } else if (settings.getDurationSeconds() <= 0 && settings.getIterations() <= 0) {
+            throw new IllegalArgumentException("Either duration or iterations must be specified.");
+        } else if (settings.getVirtualUsers() < 1) {
+            throw new IllegalArgumentException("Virtual users must be at least 1.");
+        } else if (settings.getWorkloadModel() == LoadTestWorkloadModel.OPEN && settings.getIterationsPerSecond() <= 0) {
+            throw new IllegalArgumentException("Iterations per second must be positive in open workload model.");
+        }
+    }
+
+    /**
+     * @return true if one more iteration is allowed to start, false if the iteration count has been reached or the
+     * load test has been stopped.
+     */
+    private boolean claimIteration() {
+        return !stopped &&
+                (settings.getIterations() <= 0 || startedIterationCount.incrementAndGet() <= settings.getIterations());
+    }
+
+    private void runClosedWorkload(long deadlineNanos) throws InterruptedException {
+        ExecutorService virtualUsers = Executors.newFixedThreadPool(settings.getVirtualUsers(),
+                new ThreadFactoryBuilder().setNameFormat("load-test-vu-%d").build());
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < settings.getVirtualUsers(); i++) {
+            futures.add(virtualUsers.submit(() -> {
+                while (System.nanoTime() < deadlineNanos && claimIteration()) {
+                    runIteration();
+                }
+            }));
+        }
+        virtualUsers.shutdown();
+        virtualUsers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        for (Future<?> future: futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                LOGGER.error("Load test virtual user failed", e.getCause());
+                virtualUserErrors.add(e.getCause());
+            }
+        }
+    }
+
+    private void runOpenWorkload(long deadlineNanos) throws InterruptedException {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("load-test-scheduler-%d").build());
+        //  a cached pool, as iterations of a data driven test case block their threads
+        ExecutorService workers = Executors.newCachedThreadPool(
+                new ThreadFactoryBuilder().setNameFormat("load-test-worker-%d").build());
+        Semaphore inFlightIterations = new Semaphore(settings.getVirtualUsers());
+        CountDownLatch arrivalsEnded = new CountDownLatch(1);
+        long periodNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / settings.getIterationsPerSecond()));
+
+        //  a periodic task that throws is silently not run any more, so the task must never throw
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                if (System.nanoTime() >= deadlineNanos || !claimIteration()) {
+                    arrivalsEnded.countDown();
+                } else if (inFlightIterations.tryAcquire()) {
+                    CompletableFuture<Void> iteration;
+                    try {
+                        iteration = runIterationAsync(workers);
+                    } catch (RuntimeException e) {
+                        inFlightIterations.release();
+                        throw e;
+                    }
+                    iteration.whenComplete((result, throwable) -> {
+                        if (throwable != null) {
+                            Throwable cause = throwable instanceof CompletionException &&
+                                    throwable.getCause() != null ? throwable.getCause() : throwable;
+                            LOGGER.error("Load test iteration failed", cause);
+                            virtualUserErrors.add(cause);
+                        }
+                        inFlightIterations.release();
+                    });
+                } else {
+                    droppedIterationCount.incrementAndGet();
+                }
+            } catch (Throwable t) {
+                LOGGER.error("Load test arrival failed", t);
+                virtualUserErrors.add(t);
+                arrivalsEnded.countDown();
+            }
+        }, 0, periodNanos, TimeUnit.NANOSECONDS);
+
+        try {
+            //  arrivals end at the deadline or after the last iteration has arrived, whichever comes first
+            long arrivalsNanos = settings.getIterations() > 0 ?
+                    LongMath.saturatedMultiply(settings.getIterations(), periodNanos) : Long.MAX_VALUE;
+            long arrivalsEndNanos = Math.min(
+                    LongMath.saturatedSubtract(deadlineNanos, System.nanoTime()), arrivalsNanos);
+            long timeoutNanos = LongMath.saturatedAdd(arrivalsEndNanos,
+                    TimeUnit.SECONDS.toNanos(ARRIVALS_END_GRACE_SECONDS));
+            if (!arrivalsEnded.await(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                virtualUserErrors.add(new IllegalStateException("Load test arrivals did not end in time."));
+            }
+        } finally {
+            scheduler.shutdownNow();
+        }
+
+        //  wait for the iterations in flight, which may not be running on any thread
+        inFlightIterations.acquire(settings.getVirtualUsers());
+        workers.shutdown();
+        workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    private TestcaseRunner newIterationTestcaseRunner() {
+        Testcase iterationTestcase = new Cloner().deepClone(testcase);
+        TestcaseRunner testcaseRunner;
+        if (iterationTestcase.getDataTable().getRows().isEmpty()) {
+            testcaseRunner = new RegularTestcaseRunner(iterationTestcase, utilsDAO, testcaseRunDAO, wireMockServer);
+        } else {
+            testcaseRunner = new DataDrivenTestcaseRunner(iterationTestcase, utilsDAO, testcaseRunDAO, wireMockServer);
+        }
+        testcaseRunner.setPersistingRun(false);
+        //  requests without the run id header could match stub instances of any concurrent iteration
+        testcaseRunner.setRunIdHeaderRequired(
+                settings.getWorkloadModel() == LoadTestWorkloadModel.OPEN || settings.getVirtualUsers() > 1);
+        return testcaseRunner;
+    }
+
+    /**
+     * Run the test case once, and record its statistics.
+     */
+    void runIteration() {
+        TestcaseRunner testcaseRunner = newIterationTestcaseRunner();
+        Counter activeRuns = IronTestMetrics.counter(TestcaseRunner.class, "activeRuns");
+        activeRuns.inc();
+        TestcaseRun testcaseRun;
+        try {
+            testcaseRun = testcaseRunner.run();
+        } catch (Exception e) {
+            LOGGER.error("Failed to run load test iteration", e);
+            recordIteration(null);
+            return;
+        } finally {
+            activeRuns.dec();
+        }
+        recordIteration(testcaseRun);
+    }
+
+    /**
+     * Start running the test case once, and record its statistics when the run ends.
+     * A regular test case is run without blocking a thread while waiting for API responses (see
+     * {@link RegularTestcaseRunner#runAsync(Executor)}), and a data driven test case is run on one of the executor's
+     * threads.
+     * @param executor
+     * @return a future completed when the statistics are recorded
+     */
+    CompletableFuture<Void> runIterationAsync(Executor executor) {
+        TestcaseRunner testcaseRunner = newIterationTestcaseRunner();
+        if (!(testcaseRunner instanceof RegularTestcaseRunner)) {
+            return CompletableFuture.runAsync(this::runIteration, executor);
+        }
+
+        Counter activeRuns = IronTestMetrics.counter(TestcaseRunner.class, "activeRuns");
+        activeRuns.inc();
+        CompletableFuture<TestcaseRun> testcaseRunFuture;
+        try {
+            testcaseRunFuture = ((RegularTestcaseRunner) testcaseRunner).runAsync(executor);
+        } catch (RuntimeException e) {
+            testcaseRunFuture = new CompletableFuture<>();
+            testcaseRunFuture.completeExceptionally(e);
+        }
+        return testcaseRunFuture.handle((testcaseRun, throwable) -> {
+                    activeRuns.dec();
+                    if (throwable != null) {
+                        LOGGER.error("Failed to run load test iteration", throwable);
+                    }
+                    recordIteration(testcaseRun);
+                    return null;
+                });
+    }
+
+    /**
+     * Record statistics of the iteration.
+     * @param testcaseRun null if the test case run failed with exception
+     */
+    private void recordIteration(TestcaseRun testcaseRun) {
+        iterationCount.incrementAndGet();
+        if (testcaseRun == null) {
+            failedIterationCount.incrementAndGet();
+            return;
+        }
+
+        testcaseLatencyHistogram.recordValue(testcaseRun.getDuration());
+        if (TestResult.FAILED == testcaseRun.getResult()) {
+            failedIterationCount.incrementAndGet();
+        }
+
+        List<TeststepRun> teststepRuns = new ArrayList<>();
+        if (testcaseRun instanceof RegularTestcaseRun) {
+            teststepRuns.addAll(((RegularTestcaseRun) testcaseRun).getStepRuns());
+        } else {
+            for (TestcaseIndividualRun individualRun: ((DataDrivenTestcaseRun) testcaseRun).getIndividualRuns()) {
+                teststepRuns.addAll(individualRun.getStepRuns());
+            }
+        }
+        for (TeststepRun teststepRun: teststepRuns) {
+            String teststepName = teststepRun.getTeststep().getName();
+            teststepLatencyHistograms.computeIfAbsent(teststepName,
+                    k -> new ConcurrentHistogram(HISTOGRAM_SIGNIFICANT_VALUE_DIGITS))
+                    .recordValue(teststepRun.getDuration());
+            AtomicLong failureCount = teststepFailureCounts.computeIfAbsent(teststepName, k -> new AtomicLong());
+            if (TestResult.FAILED == teststepRun.getResult()) {
+                failureCount.incrementAndGet();
+            }
+        }
+    }
+
+    private LatencyStatistics toLatencyStatistics(Histogram histogram) {
+        LatencyStatistics statistics = new LatencyStatistics();
+        statistics.setCount(histogram.getTotalCount());
+        if (histogram.getTotalCount() > 0) {
+            statistics.setMin(histogram.getMinValue());
+            statistics.setMax(histogram.getMaxValue());
+            statistics.setMean(histogram.getMean());
+            statistics.setP50(histogram.getValueAtPercentile(50));
+            statistics.setP90(histogram.getValueAtPercentile(90));
+            statistics.setP95(histogram.getValueAtPercentile(95));
+            statistics.setP99(histogram.getValueAtPercentile(99));
+            statistics.setP999(histogram.getValueAtPercentile(99.9));
+        }
+        return statistics;
+    }
+}
@@ -13,7 +13,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 public class RegularTestcaseRunner extends TestcaseRunner {
     private static final Logger LOGGER = LoggerFactory.getLogger(RegularTestcaseRunner.class);
@@ -30,10 +34,54 @@ public class RegularTestcaseRunner extends TestcaseRunner {
         startTestcaseRun(testcaseRun);
 
         //  run test steps
+        try {
+            for (Teststep teststep : getTestcase().getTeststeps()) {
+                testcaseRun.getStepRuns().add(runTeststep(teststep));
+            }
+        } finally {
+            removeHTTPStubInstances();
+        }
+
+        endTestcaseRun(testcaseRun);
+        return testcaseRun;
+    }
+
+    /**
+     * Same as {@link #run()}, except that test steps supporting non-blocking execution (like HTTP and SOAP test steps)
+     * do not block a thread while waiting for their API responses, so that many runs can be in flight on a few threads.
+     * The test steps are still run one after another.
+     * @param executor runs the test steps, and verifies their assertions
+     * @return a future completed with the test case run
+     */
+    public CompletableFuture<TestcaseRun> runAsync(Executor executor) {
+        RegularTestcaseRun testcaseRun = new RegularTestcaseRun();
+
+        preProcessing();
+        startTestcaseRun(testcaseRun);
+
+        //  run test steps
+        CompletableFuture<Void> teststepRuns = CompletableFuture.completedFuture(null);
         for (Teststep teststep : getTestcase().getTeststeps()) {
-            testcaseRun.getStepRuns().add(runTeststep(teststep));
+            teststepRuns = teststepRuns.thenCompose(previous -> runTeststepAsync(teststep, executor))
+                    .thenAccept(teststepRun -> testcaseRun.getStepRuns().add(teststepRun));
         }
 
+        return teststepRuns.handle((result, throwable) -> {
+            removeHTTPStubInstances();
+            if (throwable != null) {
+                throw throwable instanceof CompletionException ?
+                        (CompletionException) throwable : new CompletionException(throwable);
+            }
+            try {
+                endTestcaseRun(testcaseRun);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return testcaseRun;
+        });
+    }
+
+    private void endTestcaseRun(RegularTestcaseRun testcaseRun) throws IOException {
         //  test case run ends
         testcaseRun.setDuration(new Date().getTime() - testcaseRun.getStartTime().getTime());
         LOGGER.info("Finish running test case: " + getTestcase().getName());
@@ -45,8 +93,6 @@ public class RegularTestcaseRunner extends TestcaseRunner {
         }
 
         //  persist test case run details into database
-        getTestcaseRunDAO().insert(testcaseRun);
-
-        return testcaseRun;
+        persistTestcaseRun(testcaseRun, testcaseRun.getStepRuns().size());
     }
 }
@@ -1,6 +1,7 @@
 package io.irontest.core.testcase;
 
 import com.github.tomakehurst.wiremock.WireMockServer;
+import io.irontest.core.teststep.ActivityLogPosition;
 
 import java.util.Date;
 import java.util.HashMap;
@@ -11,10 +12,26 @@ import java.util.UUID;
  * Used for passing information across test steps when running a test case.
  */
 public class TestcaseRunContext {
+    private String runId = UUID.randomUUID().toString();     //  for scoping HTTP stub instances and requests to this run
+    private boolean runIdHeaderRequired;    //  true if requests without the run id header must not match this run's stub instances
     private Date testcaseRunStartTime;
     private Date testcaseIndividualRunStartTime;
     private WireMockServer wireMockServer;            //  the universal WireMock server inside the Iron Test instance
+    private Date httpStubsSetupTime;
     private Map<Short, UUID> httpStubMappingInstanceIds = new HashMap<>();  //  mapping from stub mapping number to stub mapping instance UUID (after loaded into mock server)
+    private Map<Long, ActivityLogPosition> activityLogPositions = new HashMap<>();   //  mapping from IIB wait-for-processing-completion test step id to the message flow's activity log position at test case (individual) run start
+
+    public String getRunId() {
+        return runId;
+    }
+
+    public boolean isRunIdHeaderRequired() {
+        return runIdHeaderRequired;
+    }
+
+    public void setRunIdHeaderRequired(boolean runIdHeaderRequired) {
+        this.runIdHeaderRequired = runIdHeaderRequired;
+    }
 
     public Date getTestcaseRunStartTime() {
         return testcaseRunStartTime;
@@ -40,7 +57,19 @@ public class TestcaseRunContext {
         this.wireMockServer = wireMockServer;
     }
 
+    public Date getHttpStubsSetupTime() {
+        return httpStubsSetupTime;
+    }
+
+    public void setHttpStubsSetupTime(Date httpStubsSetupTime) {
+        this.httpStubsSetupTime = httpStubsSetupTime;
+    }
+
     public Map<Short, UUID> getHttpStubMappingInstanceIds() {
         return httpStubMappingInstanceIds;
     }
+
+    public Map<Long, ActivityLogPosition> getActivityLogPositions() {
+        return activityLogPositions;
+    }
 }
@@ -1,6 +1,11 @@
 package io.irontest.core.testcase;
 
+import com.codahale.metrics.Timer;
 import com.github.tomakehurst.wiremock.WireMockServer;
+import com.rits.cloning.Cloner;
+import io.irontest.WireMockIndexedRequestJournal;
+import io.irontest.core.IronTestMetrics;
+import io.irontest.core.assertion.AssertionVerificationExecutor;
 import io.irontest.core.assertion.AssertionVerifier;
 import io.irontest.core.assertion.AssertionVerifierFactory;
 import io.irontest.core.propertyextractor.PropertyExtractorRunner;
@@ -18,13 +23,21 @@ import io.irontest.models.testrun.TestcaseRun;
 import io.irontest.models.testrun.TeststepRun;
 import io.irontest.models.teststep.HTTPHeader;
 import io.irontest.models.teststep.HTTPStubsSetupTeststepProperties;
+import io.irontest.models.teststep.HTTPTeststepProperties;
+import io.irontest.models.teststep.SOAPTeststepProperties;
 import io.irontest.models.teststep.Teststep;
 import io.irontest.utils.IronTestUtils;
 import org.eclipse.jetty.http.HttpHeader;
 import org.slf4j.Logger;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.BooleanSupplier;
 
 import static io.irontest.IronTestConstants.*;
 
@@ -37,6 +50,8 @@ public abstract class TestcaseRunner {
     private Set<String> udpNames;
     private Map<String, String> referenceableStringProperties = new HashMap<>();
     private Map<String, Endpoint> referenceableEndpointProperties = new HashMap<>();
+    private boolean persistingRun = true;       //  false when the run is an iteration of a load test
+    private BooleanSupplier persistingCheck = () -> true;
 
     TestcaseRunner(Testcase testcase, UtilsDAO utilsDAO, TestcaseRunDAO testcaseRunDAO, Logger LOGGER, WireMockServer wireMockServer) {
         this.testcase = testcase;
@@ -68,6 +83,26 @@ public abstract class TestcaseRunner {
         return referenceableEndpointProperties;
     }
 
+    public void setPersistingRun(boolean persistingRun) {
+        this.persistingRun = persistingRun;
+    }
+
+    /**
+     * @param runIdHeaderRequired true if requests without the run id header must not match the run's stub instances
+     *                            (like when other runs of the same test case are running concurrently)
+     */
+    public void setRunIdHeaderRequired(boolean runIdHeaderRequired) {
+        testcaseRunContext.setRunIdHeaderRequired(runIdHeaderRequired);
+    }
+
+    /**
+     * @param persistingCheck checked right before persisting the test case run; the run is not persisted if the check
+     *                        returns false (e.g. the worker agent running it has lost the lease of the work item)
+     */
+    public void setPersistingCheck(BooleanSupplier persistingCheck) {
+        this.persistingCheck = persistingCheck;
+    }
+
     public abstract TestcaseRun run() throws IOException;
 
     //  process the test case before starting to run it
@@ -105,17 +140,68 @@ public abstract class TestcaseRunner {
             Assertion allStubRequestsMatchedAssertion = new Assertion(Assertion.TYPE_ALL_HTTP_STUB_REQUESTS_MATCHED);
             allStubRequestsMatchedAssertion.setName("All stub requests were matched");
             stubRequestsCheckStep.getAssertions().add(allStubRequestsMatchedAssertion);
+
+            //  send run id header in HTTP/SOAP requests, so that requests the system under test sends to the mock
+            //  server (if the header is propagated) are routed to this run's stub instances
+            for (Teststep teststep : testcase.getTeststeps()) {
+                List<HTTPHeader> httpHeaders = null;
+                if (Teststep.TYPE_HTTP.equals(teststep.getType())) {
+                    httpHeaders = ((HTTPTeststepProperties) teststep.getOtherProperties()).getHttpHeaders();
+                } else if (Teststep.TYPE_SOAP.equals(teststep.getType())) {
+                    httpHeaders = ((SOAPTeststepProperties) teststep.getOtherProperties()).getHttpHeaders();
+                }
+                if (httpHeaders != null && httpHeaders.stream().noneMatch(
+                        header -> HTTP_HEADER_NAME_IRON_TEST_RUN_ID.equalsIgnoreCase(header.getName()))) {
+                    httpHeaders.add(new HTTPHeader(HTTP_HEADER_NAME_IRON_TEST_RUN_ID, testcaseRunContext.getRunId()));
+                }
+            }
         }
 
+        //  for each IIB wait-for-processing-completion step, add a step capturing the message flow's activity log position
+        //  at start, which is used by the wait step as reference point for reading new activity log entries
+        List<Teststep> captureActivityLogPositionSteps = new ArrayList<>();
+        Cloner cloner = new Cloner();
         for (Teststep teststep : testcase.getTeststeps()) {
             if (Teststep.TYPE_IIB.equals(teststep.getType()) &&
                     Teststep.ACTION_WAIT_FOR_PROCESSING_COMPLETION.equals(teststep.getAction())) {
-                Teststep waitUntilNextSecondStep = new Teststep(Teststep.TYPE_WAIT_UNTIL_NEXT_SECOND);
-                waitUntilNextSecondStep.setName("Wait until next second");
-                testcase.getTeststeps().add(0, waitUntilNextSecondStep);
-                break;
+                Teststep captureStep = cloner.deepClone(teststep);
+                captureStep.setAction(Teststep.ACTION_CAPTURE_ACTIVITY_LOG_POSITION);
+                captureStep.setName("Capture activity log position for \"" + teststep.getName() + "\"");
+                captureStep.getAssertions().clear();
+                captureStep.getPropertyExtractors().clear();
+                captureActivityLogPositionSteps.add(captureStep);
             }
         }
+        testcase.getTeststeps().addAll(0, captureActivityLogPositionSteps);
+    }
+
+    //  remove this run's stub instances from the mock server and this run's requests from its request journal, after
+    //  all test steps are run (or the run failed)
+    void removeHTTPStubInstances() {
+        if (!testcase.getHttpStubMappings().isEmpty()) {
+            WireMockServer wireMockServer = testcaseRunContext.getWireMockServer();
+            wireMockServer.removeStubsByMetadata(IronTestUtils.stubInstanceOfRunPattern(testcaseRunContext.getRunId()));
+            WireMockIndexedRequestJournal.of(wireMockServer).closeRun(testcaseRunContext.getRunId());
+        }
+    }
+
+    /**
+     * Persist test case run details into database, unless persisting is turned off for this runner.
+     * @param testcaseRun
+     * @param teststepRunCount number of test step runs contained in the test case run
+     */
+    void persistTestcaseRun(TestcaseRun testcaseRun, int teststepRunCount) throws IOException {
+        if (!persistingRun) {
+            return;
+        } else if (!persistingCheck.getAsBoolean()) {
+            LOGGER.warn("Test case run of " + testcase.getName() + " is not persisted, as the persisting check failed.");
+            return;
+        }
+
+        IronTestMetrics.histogram(TestcaseRunDAO.class, "teststepRuns").update(teststepRunCount);
+        try (Timer.Context ignored = IronTestMetrics.timer(TestcaseRunDAO.class, "insert").time()) {
+            testcaseRunDAO.insert(testcaseRun);
+        }
     }
 
     void startTestcaseRun(TestcaseRun testcaseRun) {
@@ -136,6 +222,63 @@ public abstract class TestcaseRunner {
     }
 
     TeststepRun runTeststep(Teststep teststep) throws IOException {
+        TeststepRun teststepRun = startTeststepRun(teststep);
+
+        //  run test step
+        BasicTeststepRun basicTeststepRun = null;
+        Exception exception = null;
+        try {
+            TeststepRunner teststepRunner = newTeststepRunner(teststep);
+            try (Timer.Context ignored = IronTestMetrics.timer(TeststepRunner.class, teststep.getType(), "run").time()) {
+                basicTeststepRun = teststepRunner.run();
+            }
+        } catch (Exception e) {
+            exception = e;
+        }
+
+        endTeststepRun(teststepRun, basicTeststepRun, exception);
+        return teststepRun;
+    }
+
+    /**
+     * Same as {@link #runTeststep(Teststep)}, except that if the test step's runner supports non-blocking execution
+     * (see {@link TeststepRunner#isAsync()}), no thread is blocked while waiting for the API response.
+     * Assertions are verified and properties are extracted on the executor.
+     * @param teststep
+     * @param executor
+     * @return a future completed with the test step run
+     */
+    CompletableFuture<TeststepRun> runTeststepAsync(Teststep teststep, Executor executor) {
+        TeststepRun teststepRun = startTeststepRun(teststep);
+
+        //  run test step
+        CompletableFuture<BasicTeststepRun> basicTeststepRunFuture;
+        Timer.Context timerContext = IronTestMetrics.timer(TeststepRunner.class, teststep.getType(), "run").time();
+        try {
+            TeststepRunner teststepRunner = newTeststepRunner(teststep);
+            basicTeststepRunFuture = teststepRunner.isAsync() ?
+                    teststepRunner.runAsync() : CompletableFuture.completedFuture(teststepRunner.run());
+        } catch (Exception e) {
+            basicTeststepRunFuture = new CompletableFuture<>();
+            basicTeststepRunFuture.completeExceptionally(e);
+        }
+
+        return basicTeststepRunFuture.handleAsync((basicTeststepRun, throwable) -> {
+            timerContext.stop();
+            Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ?
+                    throwable.getCause() : throwable;
+            Exception exception = cause == null || cause instanceof Exception ?
+                    (Exception) cause : new RuntimeException(cause);
+            try {
+                endTeststepRun(teststepRun, basicTeststepRun, exception);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return teststepRun;
+        }, executor);
+    }
+
+    private TeststepRun startTeststepRun(Teststep teststep) {
         TeststepRun teststepRun = new TeststepRun();
         teststepRun.setTeststep(teststep);
 
@@ -146,26 +289,33 @@ public abstract class TestcaseRunner {
                 IMPLICIT_PROPERTY_DATE_TIME_FORMAT.format(teststepRunStartTime));
         LOGGER.info("Start running test step: " + teststep.getName());
 
-        //  run test step
-        BasicTeststepRun basicTeststepRun;
-        boolean exceptionOccurred = false;  //  use this flag instead of checking stepRun.getErrorMessage() != null, for code clarity
-        try {
-            basicTeststepRun = TeststepRunnerFactory.getInstance().newTeststepRunner(
-                    teststep, utilsDAO, referenceableStringProperties, referenceableEndpointProperties,
-                    testcaseRunContext).run();
-            LOGGER.info("Finish running test step: " + teststep.getName());
-            teststepRun.setResponse(basicTeststepRun.getResponse());
-            teststepRun.setInfoMessage(basicTeststepRun.getInfoMessage());
-        } catch (Exception e) {
-            exceptionOccurred = true;
-            String message = e.getMessage();
-            teststepRun.setErrorMessage(message == null ? "null" : message);  // exception message could be null (though rarely)
-            LOGGER.error(message, e);
-        }
+        return teststepRun;
+    }
 
-        if (exceptionOccurred) {
+    private TeststepRunner newTeststepRunner(Teststep teststep) throws Exception {
+        return TeststepRunnerFactory.getInstance().newTeststepRunner(
+                teststep, utilsDAO, referenceableStringProperties, referenceableEndpointProperties,
+                testcaseRunContext);
+    }
+
+    /**
+     * Verify assertions and extract properties if the test step was run successfully, and end the test step run.
+     * @param teststepRun
+     * @param basicTeststepRun
+     * @param exception the exception of running the test step, or null if the test step was run successfully
+     */
+    private void endTeststepRun(TeststepRun teststepRun, BasicTeststepRun basicTeststepRun, Exception exception)
+            throws IOException {
+        Teststep teststep = teststepRun.getTeststep();
+        if (exception != null) {
+            String message = exception.getMessage();
+            teststepRun.setErrorMessage(message == null ? "null" : message);  // exception message could be null (though rarely)
+            LOGGER.error(message, exception);
             teststepRun.setResult(TestResult.FAILED);
         } else {
+            LOGGER.info("Finish running test step: " + teststep.getName());
+            teststepRun.setResponse(basicTeststepRun.getResponse());
+            teststepRun.setInfoMessage(basicTeststepRun.getInfoMessage());
             teststepRun.setResult(TestResult.PASSED);
             Object apiResponse = teststepRun.getResponse();
 
@@ -186,8 +336,6 @@ public abstract class TestcaseRunner {
 
         //  test step run ends
         teststepRun.setDuration(new Date().getTime() - teststepRun.getStartTime().getTime());
-
-        return teststepRun;
     }
 
     private Object resolveAssertionVerificationInputFromAPIResponse(String teststepType, String teststepAction,
@@ -226,6 +374,9 @@ public abstract class TestcaseRunner {
 
     /**
      * Verify assertions against the API response.
+     * Assertions are verified in parallel on the shared {@link AssertionVerificationExecutor} when there are more
+     * than one of them and the verification input is big enough, otherwise serially in the current thread.
+     * Either way, the assertion verifications are added to the test step run in the order of the assertions.
      * @param teststepType
      * @param teststepAction
      * @param assertions
@@ -234,9 +385,16 @@ public abstract class TestcaseRunner {
      */
     private void verifyAssertions(String teststepType, String teststepAction, List<Assertion> assertions,
                                   Object apiResponse, TeststepRun teststepRun) throws IOException {
+        List<Callable<AssertionVerificationResult>> verificationTasks = new ArrayList<>();
+        int maxVerificationInputLength = 0;
         for (Assertion assertion : assertions) {
             Object assertionVerificationInput = resolveAssertionVerificationInputFromAPIResponse(teststepType,
                     teststepAction, assertion.getType(), apiResponse);
+            if (assertionVerificationInput instanceof String) {
+                int inputLength = ((String) assertionVerificationInput).length();
+                IronTestMetrics.histogram(AssertionVerifier.class, assertion.getType(), "inputLength").update(inputLength);
+                maxVerificationInputLength = Math.max(maxVerificationInputLength, inputLength);
+            }
 
             //  resolve assertion verification input2 if applicable
             Object assertionVerificationInput2 = null;
@@ -249,27 +407,58 @@ public abstract class TestcaseRunner {
             teststepRun.getAssertionVerifications().add(verification);
             verification.setAssertion(assertion);
 
+            //  create the verifier in the current thread, as it resolves string property references
             AssertionVerifier verifier = AssertionVerifierFactory.getInstance().create(
                     assertion, referenceableStringProperties);
-            AssertionVerificationResult verificationResult;
+            Object input = assertionVerificationInput;
+            Object input2 = assertionVerificationInput2;
+            verificationTasks.add(() -> verifyAssertion(assertion.getType(), verifier, input, input2));
+        }
+
+        List<AssertionVerificationResult> verificationResults = new ArrayList<>();
+        if (verificationTasks.size() > 1 &&
+                maxVerificationInputLength >= PARALLEL_ASSERTION_VERIFICATION_MIN_INPUT_LENGTH) {
             try {
-                verificationResult = verifier.verify(assertionVerificationInput, assertionVerificationInput2);
-            } catch (Exception e) {
-                LOGGER.error("Failed to verify assertion", e);
-                verificationResult = new AssertionVerificationResult();
-                verificationResult.setResult(TestResult.FAILED);
-                String message = e.getMessage();
-                verificationResult.setError(message == null ? "null" : message);  // exception message could be null (though rarely)
+                verificationResults = AssertionVerificationExecutor.getInstance().verifyAll(verificationTasks);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while verifying assertions", e);
             }
+        } else {
+            for (Callable<AssertionVerificationResult> verificationTask: verificationTasks) {
+                try {
+                    verificationResults.add(verificationTask.call());
+                } catch (Exception e) {
+                    throw new RuntimeException("Failed to verify assertion", e);    //  not happening, as verifyAssertion handles exceptions
+                }
+            }
+        }
 
-            verification.setVerificationResult(verificationResult);
-
+        for (int i = 0; i < verificationResults.size(); i++) {
+            AssertionVerificationResult verificationResult = verificationResults.get(i);
+            teststepRun.getAssertionVerifications().get(i).setVerificationResult(verificationResult);
             if (TestResult.FAILED == verificationResult.getResult()) {
                 teststepRun.setResult(TestResult.FAILED);
             }
         }
     }
 
+    private AssertionVerificationResult verifyAssertion(String assertionType, AssertionVerifier verifier,
+                                                        Object assertionVerificationInput,
+                                                        Object assertionVerificationInput2) {
+        AssertionVerificationResult verificationResult;
+        try (Timer.Context ignored = IronTestMetrics.timer(AssertionVerifier.class, assertionType, "verify").time()) {
+            verificationResult = verifier.verify(assertionVerificationInput, assertionVerificationInput2);
+        } catch (Exception e) {
+            LOGGER.error("Failed to verify assertion", e);
+            verificationResult = new AssertionVerificationResult();
+            verificationResult.setResult(TestResult.FAILED);
+            String message = e.getMessage();
+            verificationResult.setError(message == null ? "null" : message);  // exception message could be null (though rarely)
+        }
+        return verificationResult;
+    }
+
     /**
      * Extract properties out of API response, and make the properties visible to the next test step run.
      */
@@ -293,7 +482,11 @@ public abstract class TestcaseRunner {
 
             PropertyExtractorRunner propertyExtractorRunner = PropertyExtractorRunnerFactory.getInstance().create(
                     propertyExtractor, referenceableStringProperties);
-            String propertyValue = propertyExtractorRunner.extract(propertyExtractionInput);
+            String propertyValue;
+            try (Timer.Context ignored = IronTestMetrics.timer(
+                    PropertyExtractorRunner.class, propertyExtractor.getType(), "extract").time()) {
+                propertyValue = propertyExtractorRunner.extract(propertyExtractionInput);
+            }
             extractedProperties.put(propertyExtractor.getPropertyName(), propertyValue);
         }
 
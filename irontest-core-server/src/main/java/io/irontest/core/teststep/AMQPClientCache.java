@@ -0,0 +1,154 @@
+package io.irontest.core.teststep;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.ibm.mqlight.api.ClientException;
+import com.ibm.mqlight.api.ClientState;
+import com.ibm.mqlight.api.NonBlockingClient;
+import com.ibm.mqlight.api.NonBlockingClientAdapter;
+import io.dropwizard.lifecycle.Managed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Cache of started AMQP clients, keyed by endpoint (service) URL, so that consecutive AMQP test steps reuse a started
+ * client instead of creating and stopping one per message.
+ * A client is removed from the cache when it stops (e.g. on unrecoverable error) or is evicted after a failed send.
+ * All cached clients are stopped when the server stops.
+ */
+public class AMQPClientCache implements Managed {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AMQPClientCache.class);
+
+    private static AMQPClientCache instance = new AMQPClientCache();
+
+    private final Map<String, CachedClient> clients = new ConcurrentHashMap<>();
+
+    private AMQPClientCache() { }
+
+    public static AMQPClientCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * Get a started client for the service URL, creating and starting one if there is no usable client in the cache.
+     * @param serviceURL
+     * @param timeoutMillis max time to wait for the client to start; 0 means no time limit
+     * @return
+     * @throws Exception
+     */
+    public NonBlockingClient getStartedClient(String serviceURL, long timeoutMillis) throws Exception {
+        CachedClient cachedClient = clients.computeIfAbsent(serviceURL, this::createClient);
+        try {
+            await(cachedClient.started, timeoutMillis);
+        } catch (ExecutionException e) {
+            evict(serviceURL, cachedClient.client);
+            throw unwrap(e);
+        } catch (TimeoutException e) {
+            evict(serviceURL, cachedClient.client);
+            throw new Exception("Timed out after " + timeoutMillis + " ms waiting for the AMQP client to start.");
+        }
+
+        if (cachedClient.client.getState() != ClientState.STARTED) {
+            //  the cached client has been disconnected (and is retrying or stopping), start a new one
+            evict(serviceURL, cachedClient.client);
+            return getStartedClient(serviceURL, timeoutMillis);
+        }
+
+        return cachedClient.client;
+    }
+
+    /**
+     * Remove the client from the cache (if it is still cached) and stop it.
+     * @param serviceURL
+     * @param client
+     */
+    public void evict(String serviceURL, NonBlockingClient client) {
+        clients.computeIfPresent(serviceURL,
+                (url, cachedClient) -> cachedClient.client == client ? null : cachedClient);
+        ClientState state = client.getState();
+        if (state != ClientState.STOPPED && state != ClientState.STOPPING) {
+            client.stop(null, null);
+        }
+    }
+
+    @Override
+    public void start() { }
+
+    @Override
+    public void stop() {
+        for (Map.Entry<String, CachedClient> entry: clients.entrySet()) {
+            evict(entry.getKey(), entry.getValue().client);
+        }
+    }
+
+    @VisibleForTesting
+    int getCachedClientCount() {
+        return clients.size();
+    }
+
+    /**
+     * Wait for the future to complete.
+     * @param future
+     * @param timeoutMillis 0 means no time limit
+     */
+    static void await(CompletableFuture<Void> future, long timeoutMillis)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        if (timeoutMillis == 0) {
+            future.get();
+        } else {
+            future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * @param e
+     * @return an exception wrapping the checked cause of the ExecutionException. Unchecked cause is thrown directly.
+     */
+    static Exception unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        Throwables.throwIfUnchecked(cause);
+        return new Exception(cause.getMessage(), cause);
+    }
+
+    private CachedClient createClient(String serviceURL) {
+        CachedClient cachedClient = new CachedClient();
+        cachedClient.client = NonBlockingClient.create(serviceURL, new NonBlockingClientAdapter<Void>() {
+            public void onStarted(NonBlockingClient client, Void context) {
+                cachedClient.started.complete(null);
+            }
+
+            public void onRetrying(NonBlockingClient client, Void context, ClientException clientException) {
+                if (clientException != null) {
+                    Exception wrappedException = new Exception(
+                            "Unhandled exception in NonBlockingClientAdapter.onRetrying() method. " +
+                                    clientException.getMessage(), clientException);
+                    LOGGER.error("", wrappedException);
+                    cachedClient.started.completeExceptionally(wrappedException);
+                    client.stop(null, null);
+                }
+            }
+
+            public void onStopped(NonBlockingClient client, Void context, ClientException clientException) {
+                clients.remove(serviceURL, cachedClient);
+                if (clientException != null) {
+                    Exception wrappedException = new Exception(
+                            "Unhandled exception in NonBlockingClientAdapter.onStopped() method. "  +
+                                    clientException.getMessage(), clientException);
+                    LOGGER.error("", wrappedException);
+                    cachedClient.started.completeExceptionally(wrappedException);
+                } else {
+                    cachedClient.started.completeExceptionally(new Exception("AMQP client stopped."));
+                }
+            }
+        }, null);
+        return cachedClient;
+    }
+
+    private static class CachedClient {
+        private volatile NonBlockingClient client;
+        private final CompletableFuture<Void> started = new CompletableFuture<>();
+    }
+}
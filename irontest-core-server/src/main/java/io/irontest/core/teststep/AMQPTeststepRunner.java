@@ -1,13 +1,16 @@
 package io.irontest.core.teststep;
 
-import com.ibm.mqlight.api.*;
+import com.ibm.mqlight.api.CompletionListener;
+import com.ibm.mqlight.api.NonBlockingClient;
 import io.irontest.models.teststep.AMQPTeststepProperties;
 import io.irontest.models.teststep.Teststep;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 public class AMQPTeststepRunner extends TeststepRunner {
     private static final Logger LOGGER = LoggerFactory.getLogger(AMQPTeststepRunner.class);
@@ -15,55 +18,35 @@ public class AMQPTeststepRunner extends TeststepRunner {
     public BasicTeststepRun run() throws Exception {
         Teststep teststep = getTeststep();
         AMQPTeststepProperties otherProperties = (AMQPTeststepProperties) teststep.getOtherProperties();
+        String serviceURL = teststep.getEndpoint().getUrl();
+        long timeoutMillis = TimeUnit.SECONDS.toMillis(otherProperties.getTimeout());
 
-        List<Exception> exceptionListDuringSending = new ArrayList<>();
+        AMQPClientCache clientCache = AMQPClientCache.getInstance();
+        NonBlockingClient client = clientCache.getStartedClient(serviceURL, timeoutMillis);
 
-        NonBlockingClient theClient = NonBlockingClient.create(teststep.getEndpoint().getUrl(), new NonBlockingClientAdapter<Void>() {
-            public void onStarted(NonBlockingClient client, Void context) {
-                client.send(otherProperties.getNodeAddress(), (String) teststep.getRequest(), null, new CompletionListener() {
-                    public void onSuccess(NonBlockingClient client, Object context) {
-                        client.stop(null, null);
-                    }
-                    public void onError(NonBlockingClient client, Object context, Exception exception) {
-                        Exception wrappedException = new Exception(
-                                "NonBlockingClient is started, but failed to send message to AMQP service. " +
-                                        exception.getMessage(), exception);
-                        LOGGER.error("", wrappedException);
-                        exceptionListDuringSending.add(wrappedException);
-                        client.stop(null, null);
-                    }
-                }, null);
+        //  completed from the client's callback thread when the message delivery finishes
+        CompletableFuture<Void> sending = new CompletableFuture<>();
+        client.send(otherProperties.getNodeAddress(), (String) teststep.getRequest(), null, new CompletionListener<Void>() {
+            public void onSuccess(NonBlockingClient client, Void context) {
+                sending.complete(null);
             }
-
-            public void onRetrying(NonBlockingClient client, Void context, ClientException clientException) {
-                if (clientException != null) {
-                    Exception wrappedException = new Exception(
-                            "Unhandled exception in NonBlockingClientAdapter.onRetrying() method. " +
-                                    clientException.getMessage(), clientException);
-                    LOGGER.error("", wrappedException);
-                    exceptionListDuringSending.add(wrappedException);
-                    client.stop(null, null);
-                }
-            }
-
-            public void onStopped(NonBlockingClient client, Void context, ClientException clientException) {
-                if (clientException != null) {
-                    Exception wrappedException = new Exception(
-                            "Unhandled exception in NonBlockingClientAdapter.onStopped() method. "  +
-                                    clientException.getMessage(), clientException);
-                    LOGGER.error("", wrappedException);
-                    exceptionListDuringSending.add(wrappedException);
-                }
+            public void onError(NonBlockingClient client, Void context, Exception exception) {
+                Exception wrappedException = new Exception(
+                        "NonBlockingClient is started, but failed to send message to AMQP service. " +
+                                exception.getMessage(), exception);
+                LOGGER.error("", wrappedException);
+                sending.completeExceptionally(wrappedException);
             }
         }, null);
 
-        while (theClient.getState() != ClientState.STOPPED) {
-            LOGGER.info("Waiting for the AMQP client to stop ...");
-            Thread.sleep(1000);
-        }
-
-        if (!exceptionListDuringSending.isEmpty()) {
-            throw exceptionListDuringSending.get(0);    //  throw the first encountered exception
+        try {
+            AMQPClientCache.await(sending, timeoutMillis);
+        } catch (ExecutionException e) {
+            clientCache.evict(serviceURL, client);
+            throw AMQPClientCache.unwrap(e);
+        } catch (TimeoutException e) {
+            clientCache.evict(serviceURL, client);
+            throw new Exception("Timed out after " + timeoutMillis + " ms sending message to AMQP service.");
         }
 
         return new BasicTeststepRun();
@@ -0,0 +1,29 @@
+package io.irontest.core.teststep;
+
+import java.util.Date;
+
+/**
+ * Position in a message flow's activity log, captured at test case run start by the IIB test step runner, and used by
+ * IIB wait-for-processing-completion test step as the reference point for reading new activity log entries.
+ * Activity log entry timestamps are not unique, so the position is the newest entry's timestamp together with the
+ * number of entries having that timestamp.
+ * This class is intentionally not prefixed with IIB, so that it is loaded by the application class loader and shared
+ * by the IIB test step runner class loaders.
+ */
+public class ActivityLogPosition {
+    private Date timestamp;
+    private int entriesCountAtTimestamp;
+
+    public ActivityLogPosition(Date timestamp, int entriesCountAtTimestamp) {
+        this.timestamp = timestamp;
+        this.entriesCountAtTimestamp = entriesCountAtTimestamp;
+    }
+
+    public Date getTimestamp() {
+        return timestamp;
+    }
+
+    public int getEntriesCountAtTimestamp() {
+        return entriesCountAtTimestamp;
+    }
+}
@@ -6,6 +6,7 @@ package io.irontest.core.teststep;
 public class BasicTeststepRun {
     private APIResponse response;            //  API response (could be null when there is no endpoint, no API invocation, or API invocation response is not used)
     private String infoMessage;         //  some additional information when the test step finishes running successfully
+    private String prettyPrintKey;      //  key for fetching the pretty-printed response (null if there is nothing to pretty-print)
 
     public APIResponse getResponse() {
         return response;
@@ -22,4 +23,12 @@ public class BasicTeststepRun {
     public void setInfoMessage(String infoMessage) {
         this.infoMessage = infoMessage;
     }
+
+    public String getPrettyPrintKey() {
+        return prettyPrintKey;
+    }
+
+    public void setPrettyPrintKey(String prettyPrintKey) {
+        this.prettyPrintKey = prettyPrintKey;
+    }
 }
@@ -0,0 +1,136 @@
+package io.irontest.core.teststep;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.dropwizard.lifecycle.Managed;
+import io.irontest.models.HTTPMethod;
+import io.irontest.models.teststep.HTTPHeader;
+import io.irontest.utils.IronTestUtils;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Invoke HTTP APIs without blocking the calling thread.
+ * Requests are multiplexed over a few non-blocking I/O threads, with connections pooled, so that many HTTP/SOAP test
+ * steps can be in flight at the same time without one platform thread per step.
+ * Like {@link IronTestUtils#invokeHTTPAPI}, all SSL certificates are trusted and the system HTTP proxy is used for
+ * external addresses.
+ * All clients are closed when the server stops.
+ */
+public class HTTPAPIAsyncInvoker implements Managed {
+    private static final Logger LOGGER = LoggerFactory.getLogger(HTTPAPIAsyncInvoker.class);
+    private static final int MAX_CONNECTIONS_TOTAL = 200;
+    private static final int MAX_CONNECTIONS_PER_ROUTE = 50;
+    private static final String NO_PROXY = "";
+
+    private static HTTPAPIAsyncInvoker instance = new HTTPAPIAsyncInvoker();
+
+    //  keyed by proxy host (or NO_PROXY), as proxy is configured on client level
+    private final Map<String, CloseableHttpAsyncClient> clients = new ConcurrentHashMap<>();
+
+    private HTTPAPIAsyncInvoker() { }
+
+    public static HTTPAPIAsyncInvoker getInstance() {
+        return instance;
+    }
+
+    @Override
+    public void start() { }
+
+    @Override
+    public void stop() {
+        for (String key: clients.keySet()) {
+            CloseableHttpAsyncClient client = clients.remove(key);
+            if (client != null) {
+                try {
+                    client.close();
+                } catch (IOException e) {
+                    LOGGER.warn("Failed to close HTTP async client", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param url
+     * @param username
+     * @param password
+     * @param httpMethod
+     * @param httpHeaders
+     * @param httpBody
+     * @return a future completed with the API response, or completed exceptionally if the invocation failed.
+     */
+    public CompletableFuture<HTTPAPIResponse> invoke(String url, String username, String password,
+                                                     HTTPMethod httpMethod, List<HTTPHeader> httpHeaders,
+                                                     String httpBody) {
+        CompletableFuture<HTTPAPIResponse> result = new CompletableFuture<>();
+        HttpUriRequest httpRequest;
+        CloseableHttpAsyncClient httpClient;
+        try {
+            httpRequest = IronTestUtils.createHTTPRequest(url, username, password, httpMethod, httpHeaders, httpBody);
+            httpClient = getClient(IronTestUtils.getHTTPProxy(url));
+        } catch (Exception e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+
+        httpClient.execute(httpRequest, new FutureCallback<HttpResponse>() {
+            @Override
+            public void completed(HttpResponse httpResponse) {
+                try {
+                    result.complete(IronTestUtils.toHTTPAPIResponse(httpResponse));
+                } catch (Exception e) {
+                    result.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void failed(Exception e) {
+                result.completeExceptionally(e);
+            }
+
+            @Override
+            public void cancelled() {
+                result.completeExceptionally(new CancellationException("HTTP request cancelled"));
+            }
+        });
+
+        return result;
+    }
+
+    private CloseableHttpAsyncClient getClient(HttpHost proxy) {
+        String key = proxy == null ? NO_PROXY : proxy.toHostString();
+        return clients.computeIfAbsent(key, k -> {
+            HttpAsyncClientBuilder clientBuilder = HttpAsyncClients.custom()
+                    .setSSLHostnameVerifier(new NoopHostnameVerifier())
+                    .setMaxConnTotal(MAX_CONNECTIONS_TOTAL)
+                    .setMaxConnPerRoute(MAX_CONNECTIONS_PER_ROUTE)
+                    .setThreadFactory(new ThreadFactoryBuilder().setNameFormat("http-api-async-%d").setDaemon(true).build());
+            try {
+                clientBuilder.setSSLContext(IronTestUtils.createTrustAllSSLContext());
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to create SSL context", e);
+            }
+            if (proxy != null) {
+                clientBuilder.setProxy(proxy);
+            }
+            CloseableHttpAsyncClient client = clientBuilder.build();
+            client.start();
+            return client;
+        });
+    }
+}
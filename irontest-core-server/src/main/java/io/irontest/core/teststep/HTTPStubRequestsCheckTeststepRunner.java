@@ -2,9 +2,13 @@ package io.irontest.core.teststep;
 
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import io.irontest.WireMockIndexedRequestJournal;
+import io.irontest.core.testcase.TestcaseRunContext;
 import io.irontest.utils.IronTestUtils;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 public class HTTPStubRequestsCheckTeststepRunner extends TeststepRunner {
     @Override
@@ -14,8 +18,21 @@ public class HTTPStubRequestsCheckTeststepRunner extends TeststepRunner {
         WireMockServer wireMockServer = getTestcaseRunContext().getWireMockServer();
         WireMockServerAPIResponse response = new WireMockServerAPIResponse();
 
-        List<ServeEvent> allServeEvents = wireMockServer.getAllServeEvents();
-        for (ServeEvent serveEvent: allServeEvents) {
+        //  only check the requests of this test case run, i.e. those matched by the run's current stub instances, and
+        //  the unmatched ones attributed to the run
+        TestcaseRunContext testcaseRunContext = getTestcaseRunContext();
+        WireMockIndexedRequestJournal requestJournal = WireMockIndexedRequestJournal.of(wireMockServer);
+        List<ServeEvent> serveEvents = new ArrayList<>();
+        for (UUID stubInstanceId: testcaseRunContext.getHttpStubMappingInstanceIds().values()) {
+            serveEvents.addAll(requestJournal.findByStubInstanceId(stubInstanceId));
+        }
+        for (ServeEvent serveEvent: requestJournal.findUnmatched()) {
+            if (IronTestUtils.isServeEventOfRun(serveEvent, testcaseRunContext)) {
+                serveEvents.add(serveEvent);
+            }
+        }
+        requestJournal.sortLatestFirst(serveEvents);
+        for (ServeEvent serveEvent: serveEvents) {
             response.getAllServeEvents().add(IronTestUtils.updateUnmatchedStubRequest(serveEvent, wireMockServer));
         }
 
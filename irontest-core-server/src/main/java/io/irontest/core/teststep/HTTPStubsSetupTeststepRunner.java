@@ -2,27 +2,39 @@ package io.irontest.core.teststep;
 
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import io.irontest.WireMockIndexedRequestJournal;
+import io.irontest.core.testcase.TestcaseRunContext;
 import io.irontest.models.HTTPStubMapping;
 import io.irontest.models.teststep.HTTPStubsSetupTeststepProperties;
 import io.irontest.utils.IronTestUtils;
 
+import java.util.Date;
 import java.util.Map;
 import java.util.UUID;
 
 public class HTTPStubsSetupTeststepRunner extends TeststepRunner {
     @Override
     public BasicTeststepRun run() {
-        WireMockServer wireMockServer = getTestcaseRunContext().getWireMockServer();
+        TestcaseRunContext testcaseRunContext = getTestcaseRunContext();
+        WireMockServer wireMockServer = testcaseRunContext.getWireMockServer();
 
-        //  reset mock server
-        wireMockServer.resetAll();
+        //  remove stub instances loaded by this run previously (like for the previous data table row), leaving stub
+        //  instances of other runs intact
+        wireMockServer.removeStubsByMetadata(IronTestUtils.stubInstanceOfRunPattern(testcaseRunContext.getRunId()));
+        testcaseRunContext.setHttpStubsSetupTime(new Date());
+
+        //  keep requests of this run in their own partition of the request journal, so that requests of other runs
+        //  can't evict them
+        WireMockIndexedRequestJournal.of(wireMockServer).openRun(testcaseRunContext.getRunId());
 
         //  load stub mappings into mock server
-        Map<Short, UUID> httpStubMappingInstanceIds = getTestcaseRunContext().getHttpStubMappingInstanceIds();
+        Map<Short, UUID> httpStubMappingInstanceIds = testcaseRunContext.getHttpStubMappingInstanceIds();
+        httpStubMappingInstanceIds.clear();
         HTTPStubsSetupTeststepProperties otherProperties = (HTTPStubsSetupTeststepProperties) getTeststep().getOtherProperties();
         wireMockServer.loadMappingsUsing(stubMappings -> {
             for (HTTPStubMapping stubMapping: otherProperties.getHttpStubMappings()) {
-                StubMapping stubInstance = IronTestUtils.createStubInstance(stubMapping.getId(), stubMapping.getNumber(), stubMapping.getSpec());
+                StubMapping stubInstance = IronTestUtils.createStubInstance(stubMapping, testcaseRunContext.getRunId(),
+                        testcaseRunContext.isRunIdHeaderRequired());
                 stubMappings.addMapping(stubInstance);
                 httpStubMappingInstanceIds.put(stubMapping.getNumber(), stubInstance.getId());
             }
@@ -5,6 +5,8 @@ import io.irontest.models.teststep.HTTPTeststepProperties;
 import io.irontest.models.teststep.Teststep;
 import io.irontest.utils.IronTestUtils;
 
+import java.util.concurrent.CompletableFuture;
+
 public class HTTPTeststepRunner extends TeststepRunner {
     public BasicTeststepRun run() throws Exception {
         Teststep teststep = getTeststep();
@@ -18,4 +20,24 @@ public class HTTPTeststepRunner extends TeststepRunner {
 
         return basicTeststepRun;
     }
+
+    @Override
+    public CompletableFuture<BasicTeststepRun> runAsync() {
+        Teststep teststep = getTeststep();
+        Endpoint endpoint = teststep.getEndpoint();
+        HTTPTeststepProperties otherProperties = (HTTPTeststepProperties) teststep.getOtherProperties();
+        return HTTPAPIAsyncInvoker.getInstance().invoke(
+                endpoint.getUrl(), endpoint.getUsername(), getDecryptedEndpointPassword(),
+                otherProperties.getHttpMethod(), otherProperties.getHttpHeaders(), (String) teststep.getRequest())
+                .thenApply(apiResponse -> {
+                    BasicTeststepRun basicTeststepRun = new BasicTeststepRun();
+                    basicTeststepRun.setResponse(apiResponse);
+                    return basicTeststepRun;
+                });
+    }
+
+    @Override
+    public boolean isAsync() {
+        return true;
+    }
 }
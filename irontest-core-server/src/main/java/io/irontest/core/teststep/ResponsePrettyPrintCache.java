@@ -0,0 +1,80 @@
+package io.irontest.core.teststep;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.irontest.models.teststep.MQRFH2Folder;
+import io.irontest.utils.IronTestUtils;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static io.irontest.IronTestConstants.RESPONSE_PRETTY_PRINT_CACHE_MAXIMUM_SIZE;
+import static io.irontest.IronTestConstants.RESPONSE_PRETTY_PRINT_CACHE_TTL_MINUTES;
+
+/**
+ * Responses of standalone test step runs, kept on server side so that the UI can fetch their pretty-printed form by
+ * key, instead of posting the raw response back for formatting.
+ * A response is pretty-printed only when it is first fetched (by then the raw response has been returned to the
+ * client), and the pretty-printed form is reused for later fetches until the entry expires.
+ */
+public class ResponsePrettyPrintCache {
+    private static ResponsePrettyPrintCache instance = new ResponsePrettyPrintCache();
+
+    private final Cache<String, Supplier<APIResponse>> prettyPrintedResponses = CacheBuilder.newBuilder()
+            .maximumSize(RESPONSE_PRETTY_PRINT_CACHE_MAXIMUM_SIZE)
+            .expireAfterWrite(RESPONSE_PRETTY_PRINT_CACHE_TTL_MINUTES, TimeUnit.MINUTES).build();
+
+    private ResponsePrettyPrintCache() { }
+
+    public static ResponsePrettyPrintCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * @param response
+     * @return key for fetching the pretty-printed response, or null if the response has nothing to pretty-print.
+     */
+    public String put(APIResponse response) {
+        if (!(response instanceof HTTPAPIResponse || response instanceof MQDequeueResponse)) {
+            return null;
+        }
+        String key = UUID.randomUUID().toString();
+        prettyPrintedResponses.put(key, Suppliers.memoize(() -> prettyPrint(response)));
+        return key;
+    }
+
+    /**
+     * @param key
+     * @return the pretty-printed response, or null if there is no such key or the entry has expired.
+     */
+    public APIResponse get(String key) {
+        Supplier<APIResponse> prettyPrintedResponse = prettyPrintedResponses.getIfPresent(key);
+        return prettyPrintedResponse == null ? null : prettyPrintedResponse.get();
+    }
+
+    public void clear() {
+        prettyPrintedResponses.invalidateAll();
+    }
+
+    private static APIResponse prettyPrint(APIResponse response) {
+        try {
+            if (response instanceof HTTPAPIResponse) {
+                HTTPAPIResponse httpAPIResponse = (HTTPAPIResponse) response;
+                httpAPIResponse.setHttpBody(IronTestUtils.prettyPrintJSONOrXML(httpAPIResponse.getHttpBody()));
+            } else {
+                MQDequeueResponse mqDequeueResponse = (MQDequeueResponse) response;
+                mqDequeueResponse.setBodyAsText(IronTestUtils.prettyPrintJSONOrXML(mqDequeueResponse.getBodyAsText()));
+                if (mqDequeueResponse.getMqrfh2Header() != null) {
+                    for (MQRFH2Folder mqrfh2Folder: mqDequeueResponse.getMqrfh2Header().getFolders()) {
+                        mqrfh2Folder.setString(IronTestUtils.prettyPrintJSONOrXML(mqrfh2Folder.getString()));
+                    }
+                }
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to pretty-print the response", e);
+        }
+        return response;
+    }
+}
@@ -6,6 +6,8 @@ import io.irontest.models.teststep.SOAPTeststepProperties;
 import io.irontest.models.teststep.Teststep;
 import io.irontest.utils.IronTestUtils;
 
+import java.util.concurrent.CompletableFuture;
+
 public class SOAPTeststepRunner extends TeststepRunner {
     public BasicTeststepRun run() throws Exception {
         Teststep teststep = getTeststep();
@@ -19,4 +21,24 @@ public class SOAPTeststepRunner extends TeststepRunner {
 
         return basicTeststepRun;
     }
+
+    @Override
+    public CompletableFuture<BasicTeststepRun> runAsync() {
+        Teststep teststep = getTeststep();
+        Endpoint endpoint = teststep.getEndpoint();
+        SOAPTeststepProperties otherProperties = (SOAPTeststepProperties) teststep.getOtherProperties();
+        return HTTPAPIAsyncInvoker.getInstance().invoke(
+                endpoint.getUrl(), endpoint.getUsername(), getDecryptedEndpointPassword(),
+                HTTPMethod.POST, otherProperties.getHttpHeaders(), (String) teststep.getRequest())
+                .thenApply(apiResponse -> {
+                    BasicTeststepRun basicTeststepRun = new BasicTeststepRun();
+                    basicTeststepRun.setResponse(apiResponse);
+                    return basicTeststepRun;
+                });
+    }
+
+    @Override
+    public boolean isAsync() {
+        return true;
+    }
 }
@@ -3,6 +3,8 @@ package io.irontest.core.teststep;
 import io.irontest.core.testcase.TestcaseRunContext;
 import io.irontest.models.teststep.Teststep;
 
+import java.util.concurrent.CompletableFuture;
+
 public abstract class TeststepRunner {
     private Teststep teststep;
     private String decryptedEndpointPassword;
@@ -12,6 +14,29 @@ public abstract class TeststepRunner {
 
     public abstract BasicTeststepRun run() throws Exception;
 
+    /**
+     * Run the test step without blocking the calling thread.
+     * Runners of test step types that support non-blocking execution override this method (and {@link #isAsync()}).
+     * By default, the test step is run synchronously on the calling thread.
+     * @return a future completed with the test step run, or completed exceptionally if the run failed.
+     */
+    public CompletableFuture<BasicTeststepRun> runAsync() {
+        CompletableFuture<BasicTeststepRun> result = new CompletableFuture<>();
+        try {
+            result.complete(run());
+        } catch (Exception e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    /**
+     * @return true if {@link #runAsync()} doesn't block the calling thread.
+     */
+    public boolean isAsync() {
+        return false;
+    }
+
     public void setDecryptedEndpointPassword(String decryptedEndpointPassword) {
         this.decryptedEndpointPassword = decryptedEndpointPassword;
     }
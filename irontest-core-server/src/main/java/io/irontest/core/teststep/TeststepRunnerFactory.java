@@ -1,7 +1,10 @@
 package io.irontest.core.teststep;
 
+import com.codahale.metrics.Timer;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.irontest.core.EndpointPasswordDecryptor;
+import io.irontest.core.IronTestMetrics;
 import io.irontest.core.MapValueLookup;
 import io.irontest.core.testcase.TestcaseRunContext;
 import io.irontest.db.UtilsDAO;
@@ -45,7 +48,9 @@ public class TeststepRunnerFactory {
         Constructor<TeststepRunner> constructor = runnerClass.getConstructor();
         runner = constructor.newInstance();
 
-        resolveReferenceableStringProperties(teststep, referenceableStringProperties);
+        try (Timer.Context ignored = IronTestMetrics.timer(TeststepRunnerFactory.class, "resolveProperties").time()) {
+            resolveReferenceableStringProperties(teststep, referenceableStringProperties);
+        }
 
         //  special processing for otherProperties that contains HTTPStubMapping objects
         //  must do this after resolving referenceable string properties
@@ -69,7 +74,7 @@ public class TeststepRunnerFactory {
         //    2. Avoid affecting other step runs when the endpoint object comes from a referenceable property (like from data table)
         Endpoint endpoint = teststep.getEndpoint();
         if (endpoint != null && endpoint.getPassword() != null) {
-            runner.setDecryptedEndpointPassword(utilsDAO.decryptEndpointPassword(endpoint.getPassword()));
+            runner.setDecryptedEndpointPassword(EndpointPasswordDecryptor.getInstance().decrypt(endpoint.getPassword()));
         }
 
         runner.setTeststep(teststep);
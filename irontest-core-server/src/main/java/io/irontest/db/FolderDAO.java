@@ -1,6 +1,8 @@
 package io.irontest.db;
 
+import io.irontest.core.FolderTreeCache;
 import io.irontest.models.Folder;
+import io.irontest.models.FolderTreeNode;
 import org.jdbi.v3.sqlobject.config.RegisterRowMapper;
 import org.jdbi.v3.sqlobject.customizer.Bind;
 import org.jdbi.v3.sqlobject.customizer.BindBean;
@@ -9,6 +11,10 @@ import org.jdbi.v3.sqlobject.statement.SqlQuery;
 import org.jdbi.v3.sqlobject.statement.SqlUpdate;
 import org.jdbi.v3.sqlobject.transaction.Transaction;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import static io.irontest.IronTestConstants.DB_UNIQUE_NAME_CONSTRAINT_NAME_SUFFIX;
 
 @RegisterRowMapper(FolderMapper.class)
@@ -19,12 +25,16 @@ public interface FolderDAO {
     @SqlUpdate("CREATE TABLE IF NOT EXISTS folder (" +
             "id BIGINT DEFAULT folder_sequence.NEXTVAL PRIMARY KEY, " +
             "name varchar(200) NOT NULL DEFAULT CURRENT_TIMESTAMP, description CLOB, parent_folder_id BIGINT, " +
+            "path CLOB, id_path varchar(2000), " +
             "created TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
             "updated TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
             "FOREIGN KEY (parent_folder_id) REFERENCES folder(id), " +
             "CONSTRAINT FOLDER_" + DB_UNIQUE_NAME_CONSTRAINT_NAME_SUFFIX + " UNIQUE(parent_folder_id, name))")
     void createTableIfNotExists();
 
+    @SqlUpdate("CREATE INDEX IF NOT EXISTS folder_id_path_index ON folder(id_path)")
+    void createIdPathIndexIfNotExists();
+
     @SqlUpdate("insert into folder (name) " +
                "select 'Root' where not exists (select 1 from folder where parent_folder_id is null)")
     void insertARootNodeIfNotExists();
@@ -43,10 +53,109 @@ public interface FolderDAO {
     default Folder insert(Long parentFolderId) {
         long id = _insert(parentFolderId);
         updateNameForInsert(id, "Folder " + id);
+        refreshPaths(id);
+        FolderTreeCache.getInstance().invalidate();
         return _findById(id);
     }
 
     @SqlUpdate("update folder set name = :name, description = :description, " +
             "updated = CURRENT_TIMESTAMP where id = :id")
-    void update(@BindBean Folder folder);
+    void _updateNameAndDescription(@BindBean Folder folder);
+
+    @Transaction
+    default void _update(Folder folder) {
+        _updateNameAndDescription(folder);
+        refreshPaths(folder.getId());
+    }
+
+    default void update(Folder folder) {
+        _update(folder);
+        FolderTreeCache.getInstance().invalidate();     //  after the transaction is committed
+    }
+
+    @SqlQuery("select parent_folder_id from folder where id = :id")
+    Long _findParentFolderId(@Bind("id") long id);
+
+    /**
+     * @param id
+     * @return materialized path of the folder, i.e. names from the root folder down to the folder, joined with '/'.
+     */
+    @SqlQuery("select path from folder where id = :id")
+    String findPath(@Bind("id") long id);
+
+    /**
+     * @param id
+     * @return materialized id path of the folder, like /1/5/12/. All folders in the subtree of the folder have an
+     * id path starting with it.
+     */
+    @SqlQuery("select id_path from folder where id = :id")
+    String findIdPath(@Bind("id") long id);
+
+    @SqlUpdate("update folder set path = :path, id_path = :idPath where id = :id")
+    void _updatePaths(@Bind("id") long id, @Bind("path") String path, @Bind("idPath") String idPath);
+
+    @SqlUpdate("update folder set path = :newPath || substring(path, :oldPathLength + 1), " +
+            "id_path = :newIdPath || substring(id_path, length(:oldIdPath) + 1) where id_path like :oldIdPath || '%'")
+    void _updateSubtreePaths(@Bind("oldPathLength") int oldPathLength, @Bind("oldIdPath") String oldIdPath,
+                             @Bind("newPath") String newPath, @Bind("newIdPath") String newIdPath);
+
+    /**
+     * Recompute materialized paths of the folder and all folders in its subtree, after the folder is inserted,
+     * renamed or moved. To be called in the same transaction as the change.
+     * @param id
+     */
+    default void refreshPaths(long id) {
+        Long parentFolderId = _findParentFolderId(id);
+        String name = _findById(id).getName();
+        String newPath = parentFolderId == null ? name : findPath(parentFolderId) + "/" + name;
+        String newIdPath = (parentFolderId == null ? "/" : findIdPath(parentFolderId)) + id + "/";
+        String oldIdPath = findIdPath(id);
+        if (oldIdPath == null) {    //  newly inserted folder, which has no sub folder
+            _updatePaths(id, newPath, newIdPath);
+        } else {
+            _updateSubtreePaths(findPath(id).length(), oldIdPath, newPath, newIdPath);
+        }
+    }
+
+    @SqlQuery("select id as id_per_type, name as text, parent_folder_id, 'folder' as type from folder")
+    @RegisterRowMapper(FolderTreeNodeMapper.class)
+    List<FolderTreeNode> _findAllAsTreeNodes();
+
+    @SqlQuery("select count(*) > 0 from folder where path is null or id_path is null")
+    boolean _pathsMissing();
+
+    /**
+     * Populate materialized paths of all folders, if any is missing (e.g. after the system database is upgraded from
+     * a version without materialized paths, or the root folder is just inserted).
+     */
+    @Transaction
+    default void populateMissingPaths() {
+        if (!_pathsMissing()) {
+            return;
+        }
+        Map<Long, FolderTreeNode> folders = new HashMap<>();
+        for (FolderTreeNode folder: _findAllAsTreeNodes()) {
+            folders.put(folder.getIdPerType(), folder);
+        }
+        Map<Long, String[]> paths = new HashMap<>();     //  folder id -> {path, id path}
+        for (FolderTreeNode folder: folders.values()) {
+            String[] folderPaths = _computePaths(folder, folders, paths);
+            _updatePaths(folder.getIdPerType(), folderPaths[0], folderPaths[1]);
+        }
+    }
+
+    default String[] _computePaths(FolderTreeNode folder, Map<Long, FolderTreeNode> folders, Map<Long, String[]> paths) {
+        String[] result = paths.get(folder.getIdPerType());
+        if (result == null) {
+            if (folder.getParentFolderId() == null) {
+                result = new String[] {folder.getText(), "/" + folder.getIdPerType() + "/"};
+            } else {
+                String[] parentPaths = _computePaths(folders.get(folder.getParentFolderId()), folders, paths);
+                result = new String[] {parentPaths[0] + "/" + folder.getText(),
+                        parentPaths[1] + folder.getIdPerType() + "/"};
+            }
+            paths.put(folder.getIdPerType(), result);
+        }
+        return result;
+    }
 }
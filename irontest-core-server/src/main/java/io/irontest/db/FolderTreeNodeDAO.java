@@ -1,5 +1,6 @@
 package io.irontest.db;
 
+import io.irontest.core.FolderTreeCache;
 import io.irontest.models.Folder;
 import io.irontest.models.FolderTreeNode;
 import io.irontest.models.FolderTreeNodeType;
@@ -27,16 +28,33 @@ public interface FolderTreeNodeDAO extends CrossReferenceDAO {
     void _updateFolder(@Bind("name") String name, @Bind("parentFolderId") Long parentFolderId,
                        @Bind("id") long id);
 
-    default void update(FolderTreeNode node) {
+    /**
+     * Rename or move the node. Materialized paths of a folder's subtree are updated in the same transaction.
+     * @param node
+     */
+    @Transaction
+    default void _update(FolderTreeNode node) {
         if (FolderTreeNodeType.TESTCASE == node.getType()) {
             _updateTestcase(node.getText(), node.getParentFolderId(), node.getIdPerType());
         } else if (FolderTreeNodeType.FOLDER == node.getType()) {
             _updateFolder(node.getText(), node.getParentFolderId(), node.getIdPerType());
+            folderDAO().refreshPaths(node.getIdPerType());
         }
     }
 
-    @Transaction
+    default void update(FolderTreeNode node) {
+        _update(node);
+        FolderTreeCache.getInstance().invalidate();     //  after the transaction is committed
+    }
+
     default FolderTreeNode insert(FolderTreeNode node) {
+        FolderTreeNode result = _insert(node);
+        FolderTreeCache.getInstance().invalidate();     //  after the transaction is committed
+        return result;
+    }
+
+    @Transaction
+    default FolderTreeNode _insert(FolderTreeNode node) {
         if (node.getType() == FolderTreeNodeType.TESTCASE) {
             Testcase testcase = new Testcase();
             testcase.setParentFolderId(node.getParentFolderId());
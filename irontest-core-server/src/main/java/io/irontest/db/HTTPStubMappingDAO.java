@@ -21,6 +21,7 @@ public interface HTTPStubMappingDAO {
             "testcase_id BIGINT, number SMALLINT NOT NULL, " +
             "spec_json CLOB NOT NULL DEFAULT '{ \"request\": { \"url\": \"/\", \"method\": \"GET\" }, \"response\": { \"status\": 200 } }', " +
             "request_body_main_pattern_value CLOB, expected_hit_count SMALLINT NOT NULL DEFAULT 1, " +
+            "response_templating_enabled BOOLEAN NOT NULL DEFAULT FALSE, " +
             "created TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
             "updated TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
             "FOREIGN KEY (testcase_id) REFERENCES testcase(id) ON DELETE CASCADE," +
@@ -39,24 +40,27 @@ public interface HTTPStubMappingDAO {
     long insert(@Bind("testcaseId") long testcaseId);
 
     @SqlUpdate("insert into httpstubmapping (testcase_id, number, spec_json, request_body_main_pattern_value, " +
-            "expected_hit_count) values (:testcaseId, :number, :specJson, :requestBodyMainPatternValue, :expectedHitCount)")
+            "expected_hit_count, response_templating_enabled) values (:testcaseId, :number, :specJson, " +
+            ":requestBodyMainPatternValue, :expectedHitCount, :responseTemplatingEnabled)")
     void insert(@Bind("testcaseId") long testcaseId, @Bind("number") short number, @Bind("specJson") String specJson,
                 @Bind("requestBodyMainPatternValue") String requestBodyMainPatternValue,
-                @Bind("expectedHitCount") short expectedHitCount);
+                @Bind("expectedHitCount") short expectedHitCount,
+                @Bind("responseTemplatingEnabled") boolean responseTemplatingEnabled);
 
     @SqlUpdate("delete from httpstubmapping where id = :id")
     void deleteById(@Bind("id") long id);
 
     @SqlUpdate("update httpstubmapping set spec_json = :specJson, " +
             "request_body_main_pattern_value = :requestBodyMainPatternValue, expected_hit_count = :expectedHitCount, " +
-            "updated = CURRENT_TIMESTAMP where id = :id")
+            "response_templating_enabled = :responseTemplatingEnabled, updated = CURRENT_TIMESTAMP where id = :id")
     void _update(@Bind("id") long id, @Bind("specJson") String specJson,
                  @Bind("requestBodyMainPatternValue") String requestBodyMainPatternValue,
-                 @Bind("expectedHitCount") short expectedHitCount);
+                 @Bind("expectedHitCount") short expectedHitCount,
+                 @Bind("responseTemplatingEnabled") boolean responseTemplatingEnabled);
 
     default void update(HTTPStubMapping stub) {
         _update(stub.getId(), StubMapping.buildJsonStringFor(stub.getSpec()), stub.getRequestBodyMainPatternValue(),
-                stub.getExpectedHitCount());
+                stub.getExpectedHitCount(), stub.isResponseTemplatingEnabled());
     }
 
     @SqlQuery("select * from httpstubmapping where testcase_id = :testcaseId and number = :number")
@@ -97,13 +101,13 @@ public interface HTTPStubMappingDAO {
      * @param sourceTestcaseId
      * @param targetTestcaseId
      */
-    @SqlUpdate("insert into httpstubmapping (testcase_id, number, spec_json, request_body_main_pattern_value, expected_hit_count) " +
-            "select :targetTestcaseId, number, spec_json, request_body_main_pattern_value, expected_hit_count from httpstubmapping where testcase_id = :sourceTestcaseId")
+    @SqlUpdate("insert into httpstubmapping (testcase_id, number, spec_json, request_body_main_pattern_value, expected_hit_count, response_templating_enabled) " +
+            "select :targetTestcaseId, number, spec_json, request_body_main_pattern_value, expected_hit_count, response_templating_enabled from httpstubmapping where testcase_id = :sourceTestcaseId")
     void duplicateByTestcase(@Bind("sourceTestcaseId") long sourceTestcaseId,
                              @Bind("targetTestcaseId") long targetTestcaseId);
 
     default void insertByImport(long testcaseId, HTTPStubMapping stub) {
         insert(testcaseId, stub.getNumber(), StubMapping.buildJsonStringFor(stub.getSpec()),
-                stub.getRequestBodyMainPatternValue(), stub.getExpectedHitCount());
+                stub.getRequestBodyMainPatternValue(), stub.getExpectedHitCount(), stub.isResponseTemplatingEnabled());
     }
 }
\ No newline at end of file
@@ -16,7 +16,7 @@ public class HTTPStubMappingMapper implements RowMapper<HTTPStubMapping> {
         HTTPStubMapping httpStubMapping = new HTTPStubMapping(
                 rs.getLong("id"), rs.getLong("testcase_id"),
                 rs.getShort("number"), spec, rs.getString("request_body_main_pattern_value"),
-                rs.getShort("expected_hit_count"));
+                rs.getShort("expected_hit_count"), rs.getBoolean("response_templating_enabled"));
 
         return httpStubMapping;
     }
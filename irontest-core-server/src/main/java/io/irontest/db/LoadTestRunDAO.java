@@ -0,0 +1,61 @@
+package io.irontest.db;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.irontest.models.testrun.LoadTestRun;
+import org.jdbi.v3.sqlobject.config.RegisterRowMapper;
+import org.jdbi.v3.sqlobject.customizer.Bind;
+import org.jdbi.v3.sqlobject.statement.GetGeneratedKeys;
+import org.jdbi.v3.sqlobject.statement.SqlQuery;
+import org.jdbi.v3.sqlobject.statement.SqlUpdate;
+
+import java.util.Date;
+import java.util.List;
+
+@RegisterRowMapper(LoadTestRunMapper.class)
+public interface LoadTestRunDAO {
+    @SqlUpdate("CREATE SEQUENCE IF NOT EXISTS loadtest_run_sequence START WITH 1 INCREMENT BY 1 NOCACHE")
+    void createSequenceIfNotExists();
+
+    @SqlUpdate("CREATE TABLE IF NOT EXISTS loadtest_run (id BIGINT DEFAULT loadtest_run_sequence.NEXTVAL PRIMARY KEY, " +
+            "testcase_id BIGINT NOT NULL, testcase_name varchar(200) NOT NULL, settings CLOB NOT NULL, " +
+            "starttime TIMESTAMP NOT NULL, duration BIGINT NOT NULL, result varchar(15) NOT NULL, " +
+            "iteration_count BIGINT NOT NULL, failed_iteration_count BIGINT NOT NULL, " +
+            "dropped_iteration_count BIGINT NOT NULL, throughput DOUBLE NOT NULL, testcase_latency CLOB NOT NULL, " +
+            "teststep_statistics CLOB NOT NULL, " +
+            "created TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+            "updated TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)")
+    void createTableIfNotExists();
+
+    @SqlUpdate("insert into loadtest_run (testcase_id, testcase_name, settings, starttime, duration, result, " +
+            "iteration_count, failed_iteration_count, dropped_iteration_count, throughput, testcase_latency, " +
+            "teststep_statistics) values (:testcaseId, :testcaseName, :settings, :startTime, :duration, :result, " +
+            ":iterationCount, :failedIterationCount, :droppedIterationCount, :throughput, :testcaseLatency, " +
+            ":teststepStatistics)")
+    @GetGeneratedKeys
+    long _insert(@Bind("testcaseId") long testcaseId, @Bind("testcaseName") String testcaseName,
+                 @Bind("settings") String settings, @Bind("startTime") Date startTime,
+                 @Bind("duration") long duration, @Bind("result") String result,
+                 @Bind("iterationCount") long iterationCount,
+                 @Bind("failedIterationCount") long failedIterationCount,
+                 @Bind("droppedIterationCount") long droppedIterationCount,
+                 @Bind("throughput") double throughput, @Bind("testcaseLatency") String testcaseLatency,
+                 @Bind("teststepStatistics") String teststepStatistics);
+
+    default void insert(LoadTestRun loadTestRun) throws JsonProcessingException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        long id = _insert(loadTestRun.getTestcaseId(), loadTestRun.getTestcaseName(),
+                objectMapper.writeValueAsString(loadTestRun.getSettings()), loadTestRun.getStartTime(),
+                loadTestRun.getDuration(), loadTestRun.getResult().toString(), loadTestRun.getIterationCount(),
+                loadTestRun.getFailedIterationCount(), loadTestRun.getDroppedIterationCount(),
+                loadTestRun.getThroughput(), objectMapper.writeValueAsString(loadTestRun.getTestcaseLatency()),
+                objectMapper.writeValueAsString(loadTestRun.getTeststepStatistics()));
+        loadTestRun.setId(id);
+    }
+
+    @SqlQuery("select * from loadtest_run where id = :id")
+    LoadTestRun findById(@Bind("id") long id);
+
+    @SqlQuery("select * from loadtest_run where testcase_id = :testcaseId order by starttime desc")
+    List<LoadTestRun> findByTestcaseId(@Bind("testcaseId") long testcaseId);
+}
@@ -0,0 +1,47 @@
+package io.irontest.db;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.irontest.models.TestResult;
+import io.irontest.models.testrun.LatencyStatistics;
+import io.irontest.models.testrun.LoadTestRun;
+import io.irontest.models.testrun.LoadTestSettings;
+import io.irontest.models.testrun.TeststepLoadStatistics;
+import org.jdbi.v3.core.mapper.RowMapper;
+import org.jdbi.v3.core.statement.StatementContext;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+public class LoadTestRunMapper implements RowMapper<LoadTestRun> {
+    public LoadTestRun map(ResultSet rs, StatementContext ctx) throws SQLException {
+        LoadTestRun loadTestRun = new LoadTestRun();
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        loadTestRun.setId(rs.getLong("id"));
+        loadTestRun.setTestcaseId(rs.getLong("testcase_id"));
+        loadTestRun.setTestcaseName(rs.getString("testcase_name"));
+        loadTestRun.setStartTime(rs.getTimestamp("starttime"));
+        loadTestRun.setDuration(rs.getLong("duration"));
+        loadTestRun.setResult(TestResult.getByText(rs.getString("result")));
+        loadTestRun.setIterationCount(rs.getLong("iteration_count"));
+        loadTestRun.setFailedIterationCount(rs.getLong("failed_iteration_count"));
+        loadTestRun.setDroppedIterationCount(rs.getLong("dropped_iteration_count"));
+        loadTestRun.setThroughput(rs.getDouble("throughput"));
+
+        try {
+            loadTestRun.setSettings(objectMapper.readValue(rs.getString("settings"), LoadTestSettings.class));
+            loadTestRun.setTestcaseLatency(
+                    objectMapper.readValue(rs.getString("testcase_latency"), LatencyStatistics.class));
+            List<TeststepLoadStatistics> teststepStatistics = objectMapper.readValue(
+                    rs.getString("teststep_statistics"), new TypeReference<List<TeststepLoadStatistics>>() { });
+            loadTestRun.setTeststepStatistics(teststepStatistics);
+        } catch (IOException e) {
+            throw new SQLException("Failed to deserialize load test run statistics JSON.", e);
+        }
+
+        return loadTestRun;
+    }
+}
@@ -0,0 +1,94 @@
+package io.irontest.db;
+
+import io.irontest.models.Schedule;
+import org.jdbi.v3.sqlobject.config.RegisterRowMapper;
+import org.jdbi.v3.sqlobject.customizer.Bind;
+import org.jdbi.v3.sqlobject.statement.GetGeneratedKeys;
+import org.jdbi.v3.sqlobject.statement.SqlQuery;
+import org.jdbi.v3.sqlobject.statement.SqlUpdate;
+
+import java.util.Date;
+import java.util.List;
+
+import static io.irontest.IronTestConstants.DB_UNIQUE_NAME_CONSTRAINT_NAME_SUFFIX;
+
+@RegisterRowMapper(ScheduleMapper.class)
+public interface ScheduleDAO {
+    @SqlUpdate("CREATE SEQUENCE IF NOT EXISTS schedule_sequence START WITH 1 INCREMENT BY 1 NOCACHE")
+    void createSequenceIfNotExists();
+
+    @SqlUpdate("CREATE TABLE IF NOT EXISTS schedule (id BIGINT DEFAULT schedule_sequence.NEXTVAL PRIMARY KEY, " +
+            "name varchar(200) NOT NULL, cron_expression varchar(100) NOT NULL, target_type varchar(20) NOT NULL, " +
+            "target_id BIGINT NOT NULL, enabled BOOLEAN NOT NULL DEFAULT TRUE, " +
+            "misfire_policy varchar(20) NOT NULL, last_fire_time TIMESTAMP, next_fire_time TIMESTAMP, " +
+            "created TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+            "updated TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+            "CONSTRAINT SCHEDULE_" + DB_UNIQUE_NAME_CONSTRAINT_NAME_SUFFIX + " UNIQUE(name))")
+    void createTableIfNotExists();
+
+    @SqlUpdate("insert into schedule (name, cron_expression, target_type, target_id, enabled, misfire_policy, " +
+            "next_fire_time) values (:name, :cronExpression, :targetType, :targetId, :enabled, :misfirePolicy, " +
+            ":nextFireTime)")
+    @GetGeneratedKeys
+    long _insert(@Bind("name") String name, @Bind("cronExpression") String cronExpression,
+                 @Bind("targetType") String targetType, @Bind("targetId") long targetId,
+                 @Bind("enabled") boolean enabled, @Bind("misfirePolicy") String misfirePolicy,
+                 @Bind("nextFireTime") Date nextFireTime);
+
+    default long insert(Schedule schedule) {
+        return _insert(schedule.getName(), schedule.getCronExpression(), schedule.getTargetType().toString(),
+                schedule.getTargetId(), schedule.isEnabled(), schedule.getMisfirePolicy().toString(),
+                schedule.getNextFireTime());
+    }
+
+    @SqlUpdate("update schedule set name = :name, cron_expression = :cronExpression, target_type = :targetType, " +
+            "target_id = :targetId, enabled = :enabled, misfire_policy = :misfirePolicy, " +
+            "next_fire_time = :nextFireTime, updated = CURRENT_TIMESTAMP where id = :id")
+    void _update(@Bind("id") long id, @Bind("name") String name, @Bind("cronExpression") String cronExpression,
+                 @Bind("targetType") String targetType, @Bind("targetId") long targetId,
+                 @Bind("enabled") boolean enabled, @Bind("misfirePolicy") String misfirePolicy,
+                 @Bind("nextFireTime") Date nextFireTime);
+
+    default void update(Schedule schedule) {
+        _update(schedule.getId(), schedule.getName(), schedule.getCronExpression(),
+                schedule.getTargetType().toString(), schedule.getTargetId(), schedule.isEnabled(),
+                schedule.getMisfirePolicy().toString(), schedule.getNextFireTime());
+    }
+
+    /**
+     * Called by the scheduler only. Not touching the updated column, which is for user changes.
+     */
+    @SqlUpdate("update schedule set last_fire_time = :lastFireTime, next_fire_time = :nextFireTime where id = :id")
+    void updateFireTimes(@Bind("id") long id, @Bind("lastFireTime") Date lastFireTime,
+                         @Bind("nextFireTime") Date nextFireTime);
+
+    /**
+     * Called by the scheduler only, when the schedule's target no longer exists.
+     */
+    @SqlUpdate("update schedule set enabled = FALSE, next_fire_time = null where id = :id")
+    void disable(@Bind("id") long id);
+
+    @SqlQuery("select (select count(*) from testcase where :targetType = 'testcase' and id = :targetId) + " +
+            "(select count(*) from folder where :targetType = 'folder' and id = :targetId) > 0")
+    boolean _targetExists(@Bind("targetType") String targetType, @Bind("targetId") long targetId);
+
+    /**
+     * @param schedule
+     * @return true if the test case or folder that the schedule targets exists.
+     */
+    default boolean targetExists(Schedule schedule) {
+        return _targetExists(schedule.getTargetType().toString(), schedule.getTargetId());
+    }
+
+    @SqlUpdate("delete from schedule where id = :id")
+    void deleteById(@Bind("id") long id);
+
+    @SqlQuery("select * from schedule where id = :id")
+    Schedule findById(@Bind("id") long id);
+
+    @SqlQuery("select * from schedule order by name")
+    List<Schedule> findAll();
+
+    @SqlQuery("select * from schedule where enabled = TRUE")
+    List<Schedule> findEnabled();
+}
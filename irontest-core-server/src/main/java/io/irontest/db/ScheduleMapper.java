@@ -0,0 +1,28 @@
+package io.irontest.db;
+
+import io.irontest.models.FolderTreeNodeType;
+import io.irontest.models.Schedule;
+import io.irontest.models.ScheduleMisfirePolicy;
+import org.jdbi.v3.core.mapper.RowMapper;
+import org.jdbi.v3.core.statement.StatementContext;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class ScheduleMapper implements RowMapper<Schedule> {
+    public Schedule map(ResultSet rs, StatementContext ctx) throws SQLException {
+        Schedule schedule = new Schedule();
+
+        schedule.setId(rs.getLong("id"));
+        schedule.setName(rs.getString("name"));
+        schedule.setCronExpression(rs.getString("cron_expression"));
+        schedule.setTargetType(FolderTreeNodeType.getByText(rs.getString("target_type")));
+        schedule.setTargetId(rs.getLong("target_id"));
+        schedule.setEnabled(rs.getBoolean("enabled"));
+        schedule.setMisfirePolicy(ScheduleMisfirePolicy.getByText(rs.getString("misfire_policy")));
+        schedule.setLastFireTime(rs.getTimestamp("last_fire_time"));
+        schedule.setNextFireTime(rs.getTimestamp("next_fire_time"));
+
+        return schedule;
+    }
+}
@@ -1,6 +1,7 @@
 package io.irontest.db;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import io.irontest.core.FolderTreeCache;
 import io.irontest.models.DataTable;
 import io.irontest.models.HTTPStubMapping;
 import io.irontest.models.Testcase;
@@ -48,12 +49,18 @@ public interface TestcaseDAO extends CrossReferenceDAO {
     default Testcase insert(Testcase testcase) {
         long id = _insertWithoutName(testcase);
         updateNameForInsert(id, "Case " + id);
+        FolderTreeCache.getInstance().invalidate();
         return _findById(id);
     }
 
     @SqlUpdate("update testcase set name = :name, description = :description, " +
             "check_http_stubs_hit_order = :checkHTTPStubsHitOrder, updated = CURRENT_TIMESTAMP where id = :id")
-    void update(@BindBean Testcase testcase);
+    void _update(@BindBean Testcase testcase);
+
+    default void update(Testcase testcase) {
+        _update(testcase);
+        FolderTreeCache.getInstance().invalidate();
+    }
 
     @SqlQuery("select * from testcase where id = :id")
     Testcase _findById(@Bind("id") long id);
@@ -70,17 +77,19 @@ public interface TestcaseDAO extends CrossReferenceDAO {
 
     /**
      * @param testcaseId
-     * @return folder path of the testcase
+     * @return folder path of the testcase, i.e. the materialized path of its parent folder
      */
-    @SqlQuery("WITH RECURSIVE T(parent_folder_id, path) AS (" +
-                  "SELECT parent_folder_id, name AS path " +
-                  "FROM folder WHERE id = (SELECT parent_folder_id FROM testcase WHERE id = :testcaseId) " +
-                  "UNION ALL " +
-                  "SELECT T2.parent_folder_id, (T2.name || '/' || T.path) AS path " +
-                  "FROM T INNER JOIN folder AS T2 ON T.parent_folder_id = T2.id " +
-              ") SELECT path FROM T WHERE parent_folder_id IS NULL")
+    @SqlQuery("select f.path from testcase t inner join folder f on t.parent_folder_id = f.id where t.id = :testcaseId")
     String getFolderPath(@Bind("testcaseId") long testcaseId);
 
+    /**
+     * @param folderId
+     * @return ids of all test cases in the folder and its sub folders (recursively), ordered by id.
+     */
+    @SqlQuery("select t.id from testcase t inner join folder f on t.parent_folder_id = f.id " +
+            "where f.id_path like (select id_path from folder where id = :folderId) || '%' order by t.id")
+    List<Long> findIdsUnderFolder(@Bind("folderId") long folderId);
+
     @Transaction
     default Testcase findById_Complete(long id) {
         Testcase result = _findById(id);
@@ -118,8 +127,14 @@ public interface TestcaseDAO extends CrossReferenceDAO {
      * @param targetFolderId id of the folder in which the new test case will be created
      * @return ID of the new test case
      */
-    @Transaction
     default long duplicate(long sourceTestcaseId, long targetFolderId) {
+        long newTestcaseId = _duplicate(sourceTestcaseId, targetFolderId);
+        FolderTreeCache.getInstance().invalidate();     //  after the transaction is committed
+        return newTestcaseId;
+    }
+
+    @Transaction
+    default long _duplicate(long sourceTestcaseId, long targetFolderId) {
         Testcase oldTestcaseRecord = _findById(sourceTestcaseId);
 
         //  resolve new test case name
@@ -151,8 +166,14 @@ public interface TestcaseDAO extends CrossReferenceDAO {
         return newTestcaseId;
     }
 
-    @Transaction
     default long createByImport(Testcase testcase, long targetFolderId) throws JsonProcessingException {
+        long testcaseId = _createByImport(testcase, targetFolderId);
+        FolderTreeCache.getInstance().invalidate();     //  after the transaction is committed
+        return testcaseId;
+    }
+
+    @Transaction
+    default long _createByImport(Testcase testcase, long targetFolderId) throws JsonProcessingException {
         if (_nameExistsInFolder(testcase.getName(), targetFolderId)) {
             throw new RuntimeException("Duplicate test case name: " + testcase.getName());
         }
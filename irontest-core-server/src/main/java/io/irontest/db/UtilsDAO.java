@@ -1,11 +1,4 @@
 package io.irontest.db;
 
-import org.jdbi.v3.sqlobject.customizer.Bind;
-import org.jdbi.v3.sqlobject.statement.SqlQuery;
-
-import static io.irontest.IronTestConstants.ENDPOINT_PASSWORD_ENCRYPTION_KEY;
-
 public interface UtilsDAO {
-    @SqlQuery("select TRIM(CHAR(0) FROM UTF8TOSTRING(DECRYPT('AES', '" + ENDPOINT_PASSWORD_ENCRYPTION_KEY + "', :encryptedPassword)))")
-    String decryptEndpointPassword(@Bind("encryptedPassword") String encryptedPassword);
 }
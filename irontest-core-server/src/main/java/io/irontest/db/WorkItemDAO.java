@@ -0,0 +1,129 @@
+package io.irontest.db;
+
+import io.irontest.models.testrun.WorkItem;
+import org.jdbi.v3.sqlobject.config.RegisterRowMapper;
+import org.jdbi.v3.sqlobject.customizer.Bind;
+import org.jdbi.v3.sqlobject.statement.GetGeneratedKeys;
+import org.jdbi.v3.sqlobject.statement.SqlQuery;
+import org.jdbi.v3.sqlobject.statement.SqlUpdate;
+import org.jdbi.v3.sqlobject.transaction.Transaction;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The distributed run queue. Worker agents (possibly on other hosts) lease work items from it, and keep the leases
+ * alive by heartbeat. Items whose lease expired (e.g. their worker crashed) are leasable again by other workers.
+ */
+@RegisterRowMapper(WorkItemMapper.class)
+public interface WorkItemDAO {
+    //  max number of times a lease is tried when competing with other workers for the same item
+    int MAX_LEASE_TRIES = 5;
+    //  number of oldest leasable items a worker randomly picks one from, so that competing workers mostly try
+    //  different items
+    int LEASE_CANDIDATES = 20;
+
+    @SqlUpdate("CREATE SEQUENCE IF NOT EXISTS work_item_sequence START WITH 1 INCREMENT BY 1 NOCACHE")
+    void createSequenceIfNotExists();
+
+    @SqlUpdate("CREATE TABLE IF NOT EXISTS work_item (id BIGINT DEFAULT work_item_sequence.NEXTVAL PRIMARY KEY, " +
+            "batch_id varchar(36) NOT NULL, testcase_id BIGINT NOT NULL, data_table_row_index INT, " +
+            "status varchar(15) NOT NULL DEFAULT 'QUEUED', worker_id varchar(200), lease_expires TIMESTAMP, " +
+            "attempts INT NOT NULL DEFAULT 0, testcase_run_id BIGINT, result varchar(15), error_message CLOB, " +
+            "carried_over BOOLEAN NOT NULL DEFAULT FALSE, " +
+            "created TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+            "updated TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+            "FOREIGN KEY (testcase_id) REFERENCES testcase(id) ON DELETE CASCADE, " +
+            "FOREIGN KEY (testcase_run_id) REFERENCES testcase_run(id) ON DELETE SET NULL)")
+    void createTableIfNotExists();
+
+    @SqlUpdate("CREATE INDEX IF NOT EXISTS work_item_status_index ON work_item(status, id)")
+    void createStatusIndexIfNotExists();
+
+    @SqlUpdate("insert into work_item (batch_id, testcase_id, data_table_row_index, status, testcase_run_id, " +
+            "result, carried_over) values (:batchId, :testcaseId, :dataTableRowIndex, :status, :testcaseRunId, " +
+            ":result, :carriedOver)")
+    @GetGeneratedKeys
+    long _insert(@Bind("batchId") String batchId, @Bind("testcaseId") long testcaseId,
+                 @Bind("dataTableRowIndex") Integer dataTableRowIndex, @Bind("status") String status,
+                 @Bind("testcaseRunId") Long testcaseRunId, @Bind("result") String result,
+                 @Bind("carriedOver") boolean carriedOver);
+
+    /**
+     * Queue the work items of a batch all at once, so that workers never see a partial batch.
+     * Carried over work items are inserted as finished.
+     * @param workItems
+     */
+    @Transaction
+    default void insertBatch(List<WorkItem> workItems) {
+        for (WorkItem workItem: workItems) {
+            long id = _insert(workItem.getBatchId(), workItem.getTestcaseId(), workItem.getDataTableRowIndex(),
+                    workItem.getStatus().toString(), workItem.getTestcaseRunId(),
+                    workItem.getResult() == null ? null : workItem.getResult().toString(), workItem.isCarriedOver());
+            workItem.setId(id);
+        }
+    }
+
+    @SqlQuery("select * from work_item where id = :id")
+    WorkItem findById(@Bind("id") long id);
+
+    @SqlQuery("select * from work_item where batch_id = :batchId order by id")
+    List<WorkItem> findByBatchId(@Bind("batchId") String batchId);
+
+    /**
+     * Items whose lease expired for maxAttempts times are not re-queued any more.
+     */
+    @SqlUpdate("update work_item set status = 'ABANDONED', error_message = 'Lease expired ' || attempts || ' times.', " +
+            "updated = CURRENT_TIMESTAMP where status = 'LEASED' and lease_expires < CURRENT_TIMESTAMP " +
+            "and attempts >= :maxAttempts")
+    int abandonExpired(@Bind("maxAttempts") int maxAttempts);
+
+    @SqlQuery("select id from work_item where status = 'QUEUED' or " +
+            "(status = 'LEASED' and lease_expires < CURRENT_TIMESTAMP) order by id limit :limit")
+    List<Long> _findFirstLeasableIds(@Bind("limit") int limit);
+
+    //  the where clause re-checks leasability, so that only one of the competing workers wins the item
+    @SqlUpdate("update work_item set status = 'LEASED', worker_id = :workerId, " +
+            "lease_expires = DATEADD('SECOND', :leaseSeconds, CURRENT_TIMESTAMP), attempts = attempts + 1, " +
+            "updated = CURRENT_TIMESTAMP where id = :id and (status = 'QUEUED' or " +
+            "(status = 'LEASED' and lease_expires < CURRENT_TIMESTAMP))")
+    int _lease(@Bind("id") long id, @Bind("workerId") String workerId, @Bind("leaseSeconds") int leaseSeconds);
+
+    /**
+     * @param workerId
+     * @param leaseSeconds
+     * @param maxAttempts
+     * @return the leased work item, or null if there is no leasable item.
+     */
+    default WorkItem lease(String workerId, int leaseSeconds, int maxAttempts) {
+        abandonExpired(maxAttempts);
+        for (int i = 0; i < MAX_LEASE_TRIES; i++) {
+            List<Long> ids = _findFirstLeasableIds(LEASE_CANDIDATES);
+            if (ids.isEmpty()) {
+                return null;
+            }
+            long id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+            if (_lease(id, workerId, leaseSeconds) == 1) {
+                return findById(id);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return false if the lease has been lost (expired and taken by another worker).
+     */
+    @SqlUpdate("update work_item set lease_expires = DATEADD('SECOND', :leaseSeconds, CURRENT_TIMESTAMP), " +
+            "updated = CURRENT_TIMESTAMP where id = :id and worker_id = :workerId and status = 'LEASED'")
+    boolean heartbeat(@Bind("id") long id, @Bind("workerId") String workerId, @Bind("leaseSeconds") int leaseSeconds);
+
+    /**
+     * @return false if the lease has been lost (expired and taken by another worker), in which case the result is not
+     * written back.
+     */
+    @SqlUpdate("update work_item set status = 'FINISHED', lease_expires = null, testcase_run_id = :testcaseRunId, " +
+            "result = :result, error_message = :errorMessage, updated = CURRENT_TIMESTAMP " +
+            "where id = :id and worker_id = :workerId and status = 'LEASED'")
+    boolean finish(@Bind("id") long id, @Bind("workerId") String workerId, @Bind("testcaseRunId") Long testcaseRunId,
+                   @Bind("result") String result, @Bind("errorMessage") String errorMessage);
+}
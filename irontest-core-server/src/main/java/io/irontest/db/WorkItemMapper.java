@@ -0,0 +1,33 @@
+package io.irontest.db;
+
+import io.irontest.models.TestResult;
+import io.irontest.models.testrun.WorkItem;
+import io.irontest.models.testrun.WorkItemStatus;
+import org.jdbi.v3.core.mapper.RowMapper;
+import org.jdbi.v3.core.statement.StatementContext;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class WorkItemMapper implements RowMapper<WorkItem> {
+    public WorkItem map(ResultSet rs, StatementContext ctx) throws SQLException {
+        WorkItem workItem = new WorkItem();
+
+        workItem.setId(rs.getLong("id"));
+        workItem.setBatchId(rs.getString("batch_id"));
+        workItem.setTestcaseId(rs.getLong("testcase_id"));
+        int dataTableRowIndex = rs.getInt("data_table_row_index");
+        workItem.setDataTableRowIndex(rs.wasNull() ? null : dataTableRowIndex);
+        workItem.setStatus(WorkItemStatus.valueOf(rs.getString("status")));
+        workItem.setWorkerId(rs.getString("worker_id"));
+        workItem.setLeaseExpires(rs.getTimestamp("lease_expires"));
+        workItem.setAttempts(rs.getInt("attempts"));
+        long testcaseRunId = rs.getLong("testcase_run_id");
+        workItem.setTestcaseRunId(rs.wasNull() ? null : testcaseRunId);
+        workItem.setResult(TestResult.getByText(rs.getString("result")));
+        workItem.setErrorMessage(rs.getString("error_message"));
+        workItem.setCarriedOver(rs.getBoolean("carried_over"));
+
+        return workItem;
+    }
+}
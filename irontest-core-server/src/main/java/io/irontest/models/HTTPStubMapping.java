@@ -1,6 +1,8 @@
 package io.irontest.models;
 
+import com.fasterxml.jackson.annotation.JsonSetter;
 import com.fasterxml.jackson.annotation.JsonView;
+import com.fasterxml.jackson.annotation.Nulls;
 import com.github.tomakehurst.wiremock.stubbing.StubMapping;
 import io.irontest.resources.ResourceJsonViews;
 
@@ -16,16 +18,22 @@ public class HTTPStubMapping {
     private String requestBodyMainPatternValue;     //  this is to enable using Iron Test properties in request body patterns like equalToXml and equalToJson.
     @JsonView(ResourceJsonViews.TestcaseExport.class)
     private short expectedHitCount;
+    @JsonView(ResourceJsonViews.TestcaseExport.class)
+    //  render the response with WireMock response templating or not. Missing or null on import means true, as test
+    //  cases exported before this flag existed relied on response templating being applied to all stubs.
+    private boolean responseTemplatingEnabled = true;
 
     public HTTPStubMapping() {}
 
-    public HTTPStubMapping(long id, long testcaseId, short number, StubMapping spec, String requestBodyMainPatternValue, short expectedHitCount) {
+    public HTTPStubMapping(long id, long testcaseId, short number, StubMapping spec, String requestBodyMainPatternValue,
+                           short expectedHitCount, boolean responseTemplatingEnabled) {
         this.id = id;
         this.testcaseId = testcaseId;
         this.number = number;
         setSpec(spec);
         this.requestBodyMainPatternValue = requestBodyMainPatternValue;
         this.expectedHitCount = expectedHitCount;
+        this.responseTemplatingEnabled = responseTemplatingEnabled;
     }
 
     public long getId() {
@@ -76,4 +84,13 @@ public class HTTPStubMapping {
     public void setExpectedHitCount(short expectedHitCount) {
         this.expectedHitCount = expectedHitCount;
     }
+
+    public boolean isResponseTemplatingEnabled() {
+        return responseTemplatingEnabled;
+    }
+
+    @JsonSetter(nulls = Nulls.SKIP)
+    public void setResponseTemplatingEnabled(boolean responseTemplatingEnabled) {
+        this.responseTemplatingEnabled = responseTemplatingEnabled;
+    }
 }
@@ -0,0 +1,90 @@
+package io.irontest.models;
+
+import java.util.Date;
+
+/**
+ * Recurring run of a test case, or of all test cases in a folder (and its sub folders), by the built-in scheduler.
+ */
+public class Schedule {
+    private long id;
+    private String name;
+    private String cronExpression;
+    private FolderTreeNodeType targetType;
+    private long targetId;                  //  id of the folder or test case to run
+    private boolean enabled = true;
+    private ScheduleMisfirePolicy misfirePolicy = ScheduleMisfirePolicy.RUN_ONCE;
+    private Date lastFireTime;
+    private Date nextFireTime;
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getCronExpression() {
+        return cronExpression;
+    }
+
+    public void setCronExpression(String cronExpression) {
+        this.cronExpression = cronExpression;
+    }
+
+    public FolderTreeNodeType getTargetType() {
+        return targetType;
+    }
+
+    public void setTargetType(FolderTreeNodeType targetType) {
+        this.targetType = targetType;
+    }
+
+    public long getTargetId() {
+        return targetId;
+    }
+
+    public void setTargetId(long targetId) {
+        this.targetId = targetId;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public ScheduleMisfirePolicy getMisfirePolicy() {
+        return misfirePolicy;
+    }
+
+    public void setMisfirePolicy(ScheduleMisfirePolicy misfirePolicy) {
+        this.misfirePolicy = misfirePolicy;
+    }
+
+    public Date getLastFireTime() {
+        return lastFireTime;
+    }
+
+    public void setLastFireTime(Date lastFireTime) {
+        this.lastFireTime = lastFireTime;
+    }
+
+    public Date getNextFireTime() {
+        return nextFireTime;
+    }
+
+    public void setNextFireTime(Date nextFireTime) {
+        this.nextFireTime = nextFireTime;
+    }
+}
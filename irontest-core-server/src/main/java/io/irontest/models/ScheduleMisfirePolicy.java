@@ -0,0 +1,32 @@
+package io.irontest.models;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * What to do when a schedule's fire time was missed, e.g. because the server was down at that time.
+ */
+public enum ScheduleMisfirePolicy {
+    RUN_ONCE("runOnce"),    //  fire once as soon as possible, no matter how many fire times were missed
+    SKIP("skip");           //  do not fire until the next fire time
+
+    private final String text;
+
+    ScheduleMisfirePolicy(String text) {
+        this.text = text;
+    }
+
+    @Override
+    @JsonValue
+    public String toString() {
+        return text;
+    }
+
+    public static ScheduleMisfirePolicy getByText(String text) {
+        for (ScheduleMisfirePolicy e : values()) {
+            if (e.text.equals(text)) {
+                return e;
+            }
+        }
+        return null;
+    }
+}
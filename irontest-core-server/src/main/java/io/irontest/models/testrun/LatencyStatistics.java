@@ -0,0 +1,88 @@
+package io.irontest.models.testrun;
+
+/**
+ * Latency distribution of a test case or test step across load test iterations. All values are in milliseconds.
+ */
+public class LatencyStatistics {
+    private long count;
+    private long min;
+    private long max;
+    private double mean;
+    private long p50;
+    private long p90;
+    private long p95;
+    private long p99;
+    private long p999;
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public long getMin() {
+        return min;
+    }
+
+    public void setMin(long min) {
+        this.min = min;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public void setMax(long max) {
+        this.max = max;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public void setMean(double mean) {
+        this.mean = mean;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public void setP50(long p50) {
+        this.p50 = p50;
+    }
+
+    public long getP90() {
+        return p90;
+    }
+
+    public void setP90(long p90) {
+        this.p90 = p90;
+    }
+
+    public long getP95() {
+        return p95;
+    }
+
+    public void setP95(long p95) {
+        this.p95 = p95;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    public void setP99(long p99) {
+        this.p99 = p99;
+    }
+
+    public long getP999() {
+        return p999;
+    }
+
+    public void setP999(long p999) {
+        this.p999 = p999;
+    }
+}
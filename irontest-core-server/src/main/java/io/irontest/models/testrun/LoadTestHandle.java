@@ -0,0 +1,72 @@
+package io.irontest.models.testrun;
+
+import java.util.Date;
+
+/**
+ * Handle of a load test running in background, for polling its status.
+ * Once the load test is finished, its aggregated statistics are available as a load test run.
+ */
+public class LoadTestHandle {
+    private String id;
+    private long testcaseId;
+    private Date startTime;
+    private volatile LoadTestStatus status = LoadTestStatus.RUNNING;
+    private volatile Long loadTestRunId;    //  set when the load test is finished
+    private volatile String errorMessage;   //  set when the load test failed
+
+    public LoadTestHandle() {}
+
+    public LoadTestHandle(String id, long testcaseId, Date startTime) {
+        this.id = id;
+        this.testcaseId = testcaseId;
+        this.startTime = startTime;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public long getTestcaseId() {
+        return testcaseId;
+    }
+
+    public void setTestcaseId(long testcaseId) {
+        this.testcaseId = testcaseId;
+    }
+
+    public Date getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(Date startTime) {
+        this.startTime = startTime;
+    }
+
+    public LoadTestStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(LoadTestStatus status) {
+        this.status = status;
+    }
+
+    public Long getLoadTestRunId() {
+        return loadTestRunId;
+    }
+
+    public void setLoadTestRunId(Long loadTestRunId) {
+        this.loadTestRunId = loadTestRunId;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+}
@@ -0,0 +1,92 @@
+package io.irontest.models.testrun;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Aggregated result of running a test case repeatedly as a load test.
+ * Individual iterations are not kept, only their statistics.
+ */
+public class LoadTestRun extends TestRun {
+    private long testcaseId;
+    private String testcaseName;
+    private LoadTestSettings settings;
+    private long iterationCount;            //  finished iterations
+    private long failedIterationCount;
+    private long droppedIterationCount;     //  open model only: iterations not started as max in-flight iterations was reached
+    private double throughput;              //  finished iterations per second
+    private LatencyStatistics testcaseLatency;
+    private List<TeststepLoadStatistics> teststepStatistics = new ArrayList<>();
+
+    public long getTestcaseId() {
+        return testcaseId;
+    }
+
+    public void setTestcaseId(long testcaseId) {
+        this.testcaseId = testcaseId;
+    }
+
+    public String getTestcaseName() {
+        return testcaseName;
+    }
+
+    public void setTestcaseName(String testcaseName) {
+        this.testcaseName = testcaseName;
+    }
+
+    public LoadTestSettings getSettings() {
+        return settings;
+    }
+
+    public void setSettings(LoadTestSettings settings) {
+        this.settings = settings;
+    }
+
+    public long getIterationCount() {
+        return iterationCount;
+    }
+
+    public void setIterationCount(long iterationCount) {
+        this.iterationCount = iterationCount;
+    }
+
+    public long getFailedIterationCount() {
+        return failedIterationCount;
+    }
+
+    public void setFailedIterationCount(long failedIterationCount) {
+        this.failedIterationCount = failedIterationCount;
+    }
+
+    public long getDroppedIterationCount() {
+        return droppedIterationCount;
+    }
+
+    public void setDroppedIterationCount(long droppedIterationCount) {
+        this.droppedIterationCount = droppedIterationCount;
+    }
+
+    public double getThroughput() {
+        return throughput;
+    }
+
+    public void setThroughput(double throughput) {
+        this.throughput = throughput;
+    }
+
+    public LatencyStatistics getTestcaseLatency() {
+        return testcaseLatency;
+    }
+
+    public void setTestcaseLatency(LatencyStatistics testcaseLatency) {
+        this.testcaseLatency = testcaseLatency;
+    }
+
+    public List<TeststepLoadStatistics> getTeststepStatistics() {
+        return teststepStatistics;
+    }
+
+    public void setTeststepStatistics(List<TeststepLoadStatistics> teststepStatistics) {
+        this.teststepStatistics = teststepStatistics;
+    }
+}
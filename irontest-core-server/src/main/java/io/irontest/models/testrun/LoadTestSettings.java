@@ -0,0 +1,49 @@
+package io.irontest.models.testrun;
+
+public class LoadTestSettings {
+    private LoadTestWorkloadModel workloadModel = LoadTestWorkloadModel.CLOSED;
+    private int virtualUsers = 1;           //  closed model: number of concurrent iterations; open model: max number of in-flight iterations
+    private double iterationsPerSecond;     //  open model only
+    private long durationSeconds;           //  0 means not limited by duration
+    private long iterations;                //  0 means not limited by iteration count
+
+    public LoadTestWorkloadModel getWorkloadModel() {
+        return workloadModel;
+    }
+
+    public void setWorkloadModel(LoadTestWorkloadModel workloadModel) {
+        this.workloadModel = workloadModel;
+    }
+
+    public int getVirtualUsers() {
+        return virtualUsers;
+    }
+
+    public void setVirtualUsers(int virtualUsers) {
+        this.virtualUsers = virtualUsers;
+    }
+
+    public double getIterationsPerSecond() {
+        return iterationsPerSecond;
+    }
+
+    public void setIterationsPerSecond(double iterationsPerSecond) {
+        this.iterationsPerSecond = iterationsPerSecond;
+    }
+
+    public long getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public void setDurationSeconds(long durationSeconds) {
+        this.durationSeconds = durationSeconds;
+    }
+
+    public long getIterations() {
+        return iterations;
+    }
+
+    public void setIterations(long iterations) {
+        this.iterations = iterations;
+    }
+}
@@ -0,0 +1,11 @@
+package io.irontest.models.testrun;
+
+/**
+ * Status of a load test running in background.
+ */
+public enum LoadTestStatus {
+    RUNNING,
+    FINISHED,   //  all iterations finished and the aggregated statistics persisted
+    STOPPED,    //  stopped on request before all iterations finished; statistics of the finished ones persisted
+    FAILED      //  the load test itself failed (not to be confused with failed iterations)
+}
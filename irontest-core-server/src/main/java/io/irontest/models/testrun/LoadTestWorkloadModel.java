@@ -0,0 +1,9 @@
+package io.irontest.models.testrun;
+
+/**
+ * How iterations of a load test are started.
+ */
+public enum LoadTestWorkloadModel {
+    CLOSED,     //  a fixed number of virtual users, each starting its next iteration as soon as the previous one finishes
+    OPEN        //  iterations started at a fixed arrival rate, regardless of how long previous iterations take
+}
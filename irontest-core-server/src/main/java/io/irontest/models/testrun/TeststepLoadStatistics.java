@@ -0,0 +1,42 @@
+package io.irontest.models.testrun;
+
+/**
+ * Aggregated runs of one test step across load test iterations.
+ */
+public class TeststepLoadStatistics {
+    private String teststepName;
+    private long failureCount;
+    private LatencyStatistics latency;
+
+    public TeststepLoadStatistics() {}
+
+    public TeststepLoadStatistics(String teststepName, long failureCount, LatencyStatistics latency) {
+        this.teststepName = teststepName;
+        this.failureCount = failureCount;
+        this.latency = latency;
+    }
+
+    public String getTeststepName() {
+        return teststepName;
+    }
+
+    public void setTeststepName(String teststepName) {
+        this.teststepName = teststepName;
+    }
+
+    public long getFailureCount() {
+        return failureCount;
+    }
+
+    public void setFailureCount(long failureCount) {
+        this.failureCount = failureCount;
+    }
+
+    public LatencyStatistics getLatency() {
+        return latency;
+    }
+
+    public void setLatency(LatencyStatistics latency) {
+        this.latency = latency;
+    }
+}
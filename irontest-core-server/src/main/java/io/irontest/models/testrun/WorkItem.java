@@ -0,0 +1,120 @@
+package io.irontest.models.testrun;
+
+import io.irontest.models.TestResult;
+
+import java.util.Date;
+
+/**
+ * A unit of work in the distributed run queue, i.e. a test case, or a single data table row of a data driven
+ * test case, to be run by a worker agent.
+ */
+public class WorkItem {
+    private long id;
+    private String batchId;                 //  work items created by the same distributed run share the batch id
+    private long testcaseId;
+    private Integer dataTableRowIndex;      //  null if the whole test case is to be run
+    private WorkItemStatus status;
+    private String workerId;
+    private Date leaseExpires;
+    private int attempts;                   //  number of times the item has been leased
+    private Long testcaseRunId;
+    private TestResult result;
+    private String errorMessage;
+    private boolean carriedOver;            //  true if the result is carried over from the run history, not run again
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getBatchId() {
+        return batchId;
+    }
+
+    public void setBatchId(String batchId) {
+        this.batchId = batchId;
+    }
+
+    public long getTestcaseId() {
+        return testcaseId;
+    }
+
+    public void setTestcaseId(long testcaseId) {
+        this.testcaseId = testcaseId;
+    }
+
+    public Integer getDataTableRowIndex() {
+        return dataTableRowIndex;
+    }
+
+    public void setDataTableRowIndex(Integer dataTableRowIndex) {
+        this.dataTableRowIndex = dataTableRowIndex;
+    }
+
+    public WorkItemStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(WorkItemStatus status) {
+        this.status = status;
+    }
+
+    public String getWorkerId() {
+        return workerId;
+    }
+
+    public void setWorkerId(String workerId) {
+        this.workerId = workerId;
+    }
+
+    public Date getLeaseExpires() {
+        return leaseExpires;
+    }
+
+    public void setLeaseExpires(Date leaseExpires) {
+        this.leaseExpires = leaseExpires;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Long getTestcaseRunId() {
+        return testcaseRunId;
+    }
+
+    public void setTestcaseRunId(Long testcaseRunId) {
+        this.testcaseRunId = testcaseRunId;
+    }
+
+    public TestResult getResult() {
+        return result;
+    }
+
+    public void setResult(TestResult result) {
+        this.result = result;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    public boolean isCarriedOver() {
+        return carriedOver;
+    }
+
+    public void setCarriedOver(boolean carriedOver) {
+        this.carriedOver = carriedOver;
+    }
+}
@@ -0,0 +1,11 @@
+package io.irontest.models.testrun;
+
+/**
+ * Status of a work item in the distributed run queue.
+ */
+public enum WorkItemStatus {
+    QUEUED,     //  waiting to be leased by a worker agent
+    LEASED,     //  being run by a worker agent; re-leasable by another worker once the lease expires
+    FINISHED,   //  run finished (passed or failed) and result written back
+    ABANDONED   //  lease expired too many times (e.g. the item keeps crashing its workers)
+}
@@ -7,6 +7,8 @@ import io.irontest.resources.ResourceJsonViews;
 @JsonView(ResourceJsonViews.TeststepEdit.class)
 public class AMQPTeststepProperties extends Properties {
     private String nodeAddress;
+    //  in seconds, for starting the client and for sending the message respectively; 0 means no time limit
+    private int timeout = 30;
 
     public String getNodeAddress() {
         return nodeAddress;
@@ -15,4 +17,12 @@ public class AMQPTeststepProperties extends Properties {
     public void setNodeAddress(String nodeAddress) {
         this.nodeAddress = nodeAddress;
     }
+
+    public int getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(int timeout) {
+        this.timeout = timeout;
+    }
 }
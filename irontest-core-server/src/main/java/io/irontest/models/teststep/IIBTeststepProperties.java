@@ -9,6 +9,8 @@ public class IIBTeststepProperties extends Properties {
     private String integrationServerName;
     private String applicationName;
     private String messageFlowName;
+    private int processingCompletionTimeout = 30;       //  in seconds
+    private int processingCompletionQuietPeriod = 2;    //  in seconds, no new activity logs after rollback log
 
     public String getIntegrationServerName() {
         return integrationServerName;
@@ -33,4 +35,20 @@ public class IIBTeststepProperties extends Properties {
     public void setMessageFlowName(String messageFlowName) {
         this.messageFlowName = messageFlowName;
     }
+
+    public int getProcessingCompletionTimeout() {
+        return processingCompletionTimeout;
+    }
+
+    public void setProcessingCompletionTimeout(int processingCompletionTimeout) {
+        this.processingCompletionTimeout = processingCompletionTimeout;
+    }
+
+    public int getProcessingCompletionQuietPeriod() {
+        return processingCompletionQuietPeriod;
+    }
+
+    public void setProcessingCompletionQuietPeriod(int processingCompletionQuietPeriod) {
+        this.processingCompletionQuietPeriod = processingCompletionQuietPeriod;
+    }
 }
@@ -22,7 +22,6 @@ public class Teststep {
     public static final String TYPE_AMQP = "AMQP";
     public static final String TYPE_WAIT = "Wait";
 
-    public static final String TYPE_WAIT_UNTIL_NEXT_SECOND = "WaitUntilNextSecond";
     public static final String TYPE_HTTP_STUBS_SETUP = "HTTPStubsSetup";
     public static final String TYPE_HTTP_STUB_REQUESTS_CHECK = "HTTPStubRequestsCheck";
 
@@ -30,6 +29,7 @@ public class Teststep {
     public static final String ACTION_START = "Start";
     public static final String ACTION_STOP = "Stop";
     public static final String ACTION_WAIT_FOR_PROCESSING_COMPLETION = "WaitForProcessingCompletion";
+    public static final String ACTION_CAPTURE_ACTIVITY_LOG_POSITION = "CaptureActivityLogPosition";  //  only used by dynamically created test step
 
     /* of MQ test step */
     public static final String ACTION_CLEAR = "Clear";
@@ -1,12 +1,12 @@
 package io.irontest.resources;
 
+import io.irontest.core.FolderTreeCache;
 import io.irontest.db.FolderTreeNodeDAO;
 import io.irontest.models.FolderTreeNode;
 
 import javax.annotation.security.PermitAll;
 import javax.ws.rs.*;
-import javax.ws.rs.core.MediaType;
-import java.util.List;
+import javax.ws.rs.core.*;
 
 @Path("/foldertreenodes") @Produces({ MediaType.APPLICATION_JSON })
 public class FolderTreeNodeResource {
@@ -22,9 +22,21 @@ public class FolderTreeNodeResource {
         return folderTreeNodeDAO.insert(node);
     }
 
+    /**
+     * The whole tree, with the root folder's subtree hash as ETag.
+     */
     @GET
-    public List<FolderTreeNode> findAll() {
-        return folderTreeNodeDAO.findAll();
+    public Response findAll(@Context Request request) {
+        FolderTreeCache.Snapshot snapshot = FolderTreeCache.getInstance().getSnapshot(folderTreeNodeDAO);
+        EntityTag entityTag = new EntityTag(snapshot.getRoot() == null ? "" :
+                snapshot.getSubtreeHash(snapshot.getRoot().getIdPerType()));
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setNoCache(true);      //  let the browser revalidate with If-None-Match every time
+        Response.ResponseBuilder builder = request.evaluatePreconditions(entityTag);
+        if (builder == null) {
+            builder = Response.ok(snapshot.getAllNodes()).tag(entityTag);
+        }
+        return builder.cacheControl(cacheControl).build();
     }
 
     @PUT
@@ -5,7 +5,6 @@ import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.tomakehurst.wiremock.WireMockServer;
-import com.github.tomakehurst.wiremock.stubbing.StubMapping;
 import io.irontest.core.MapValueLookup;
 import io.irontest.db.DataTableDAO;
 import io.irontest.db.HTTPStubMappingDAO;
@@ -24,10 +23,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
-import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
-import static com.github.tomakehurst.wiremock.client.WireMock.matchingJsonPath;
-import static io.irontest.IronTestConstants.WIREMOCK_STUB_METADATA_ATTR_NAME_IRON_TEST_ID;
-
 @Path("/") @Produces({ MediaType.APPLICATION_JSON })
 public class HTTPStubResource {
     private HTTPStubMappingDAO httpStubMappingDAO;
@@ -95,7 +90,9 @@ public class HTTPStubResource {
         String httpStubMappingsJSON = objectMapper.writeValueAsString(stubs);
         MapValueLookup propertyReferenceResolver = new MapValueLookup(referenceableStringProperties, true);
         String resolvedHttpStubMappingsJSON = new StrSubstitutor(propertyReferenceResolver).replace(httpStubMappingsJSON);
-        stubs = objectMapper.readValue(resolvedHttpStubMappingsJSON, new TypeReference<List<HTTPStubMapping>>() { });
+        if (!resolvedHttpStubMappingsJSON.equals(httpStubMappingsJSON)) {     //  only deserialize if any property reference was resolved
+            stubs = objectMapper.readValue(resolvedHttpStubMappingsJSON, new TypeReference<List<HTTPStubMapping>>() { });
+        }
         undefinedStringProperties.addAll(propertyReferenceResolver.getUnfoundKeys());
         if (!undefinedStringProperties.isEmpty()) {
             throw new RuntimeException("String properties " + undefinedStringProperties + " not defined.");
@@ -104,21 +101,7 @@ public class HTTPStubResource {
         IronTestUtils.substituteRequestBodyMainPatternValue(stubs);
 
         //  load stubs
-        final List<HTTPStubMapping> finalStubs = stubs;
-        wireMockServer.loadMappingsUsing(stubMappings -> {
-            for (HTTPStubMapping stub: finalStubs) {
-                //  delete old instances if exist
-                List<StubMapping> existingInstances = wireMockServer.findStubMappingsByMetadata(
-                        matchingJsonPath("$." + WIREMOCK_STUB_METADATA_ATTR_NAME_IRON_TEST_ID,
-                                equalTo(Long.toString(stub.getId()))));
-                for (StubMapping existingInstance: existingInstances) {
-                    wireMockServer.removeStubMapping(existingInstance);
-                }
-
-                StubMapping stubInstance = IronTestUtils.createStubInstance(stub.getId(), stub.getNumber(), stub.getSpec());
-                stubMappings.addMapping(stubInstance);
-            }
-        });
+        IronTestUtils.loadStubInstances(wireMockServer, stubs);
     }
 
     @POST @Path("testcases/{testcaseId}/httpstubs/move")
@@ -1,5 +1,6 @@
 package io.irontest.resources;
 
+import io.irontest.core.EndpointPasswordDecryptor;
 import io.irontest.db.EndpointDAO;
 import io.irontest.models.AppInfo;
 import io.irontest.models.AppMode;
@@ -49,6 +50,7 @@ public class ManagedEndpointResource {
     @PermitAll
     public Endpoint update(Endpoint endpoint) {
         endpointDAO.update(endpoint);
+        EndpointPasswordDecryptor.getInstance().clearCache();
         return endpointDAO.findById(endpoint.getId());
     }
 
@@ -56,6 +58,7 @@ public class ManagedEndpointResource {
     @PermitAll
     public void delete(@PathParam("endpointId") long endpointId) {
         endpointDAO.deleteById(endpointId);
+        EndpointPasswordDecryptor.getInstance().clearCache();
     }
 
     @GET @Path("endpoints/{endpointId}")
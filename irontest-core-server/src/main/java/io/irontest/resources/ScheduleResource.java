@@ -0,0 +1,66 @@
+package io.irontest.resources;
+
+import io.irontest.core.schedule.TestcaseRunScheduler;
+import io.irontest.db.ScheduleDAO;
+import io.irontest.models.Schedule;
+
+import javax.annotation.security.PermitAll;
+import javax.ws.rs.*;
+import javax.ws.rs.core.MediaType;
+import java.util.List;
+
+@Path("/schedules") @Produces({ MediaType.APPLICATION_JSON })
+public class ScheduleResource {
+    private final ScheduleDAO scheduleDAO;
+
+    public ScheduleResource(ScheduleDAO scheduleDAO) {
+        this.scheduleDAO = scheduleDAO;
+    }
+
+    @POST @PermitAll
+    @Consumes(MediaType.APPLICATION_JSON)
+    public Schedule create(Schedule schedule) {
+        validate(schedule);
+        schedule.setNextFireTime(TestcaseRunScheduler.computeNextFireTime(schedule));
+        long id = scheduleDAO.insert(schedule);
+        return scheduleDAO.findById(id);
+    }
+
+    @PUT @Path("{scheduleId}") @PermitAll
+    @Consumes(MediaType.APPLICATION_JSON)
+    public Schedule update(@PathParam("scheduleId") long scheduleId, Schedule schedule) {
+        validate(schedule);
+        schedule.setId(scheduleId);
+        schedule.setNextFireTime(TestcaseRunScheduler.computeNextFireTime(schedule));
+        scheduleDAO.update(schedule);
+        return scheduleDAO.findById(scheduleId);
+    }
+
+    private void validate(Schedule schedule) {
+        if (schedule.getName() == null || schedule.getName().trim().isEmpty()) {
+            throw new IllegalArgumentException("Schedule name is not specified.");
+        } else if (schedule.getTargetType() == null) {
+            throw new IllegalArgumentException("Schedule target type is not specified.");
+        } else if (schedule.getMisfirePolicy() == null) {
+            throw new IllegalArgumentException("Schedule misfire policy is not specified.");
+        } else if (!scheduleDAO.targetExists(schedule)) {
+            throw new IllegalArgumentException("Schedule target " + schedule.getTargetType() + " " +
+                    schedule.getTargetId() + " does not exist.");
+        }
+    }
+
+    @DELETE @Path("{scheduleId}") @PermitAll
+    public void delete(@PathParam("scheduleId") long scheduleId) {
+        scheduleDAO.deleteById(scheduleId);
+    }
+
+    @GET
+    public List<Schedule> findAll() {
+        return scheduleDAO.findAll();
+    }
+
+    @GET @Path("{scheduleId}")
+    public Schedule findById(@PathParam("scheduleId") long scheduleId) {
+        return scheduleDAO.findById(scheduleId);
+    }
+}
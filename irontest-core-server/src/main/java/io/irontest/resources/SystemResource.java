@@ -1,10 +1,12 @@
 package io.irontest.resources;
 
+import io.irontest.core.teststep.APIResponse;
+import io.irontest.core.teststep.BasicTeststepRun;
+import io.irontest.core.teststep.ResponsePrettyPrintCache;
 import io.irontest.models.AppInfo;
 
-import javax.ws.rs.GET;
-import javax.ws.rs.Path;
-import javax.ws.rs.Produces;
+import javax.annotation.security.PermitAll;
+import javax.ws.rs.*;
 import javax.ws.rs.core.MediaType;
 
 /**
@@ -22,4 +24,21 @@ public class SystemResource {
     public AppInfo getAppInfo() {
         return appInfo;
     }
-}
\ No newline at end of file
+
+    /**
+     * Get a standalone test step run response with its JSON or XML content (like HTTP body) pretty-printed.
+     * @param key the prettyPrintKey of the test step run
+     * @return the test step run with the pretty-printed response
+     */
+    @GET @Path("prettyprintedresponses/{key}")
+    @PermitAll
+    public BasicTeststepRun prettyPrint(@PathParam("key") String key) {
+        APIResponse response = ResponsePrettyPrintCache.getInstance().get(key);
+        if (response == null) {
+            throw new IllegalArgumentException("Response " + key + " not found or expired.");
+        }
+        BasicTeststepRun basicTeststepRun = new BasicTeststepRun();
+        basicTeststepRun.setResponse(response);
+        return basicTeststepRun;
+    }
+}
@@ -1,17 +1,31 @@
 package io.irontest.resources;
 
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Timer;
 import com.fasterxml.jackson.annotation.JsonView;
 import com.github.tomakehurst.wiremock.WireMockServer;
+import io.irontest.core.IronTestMetrics;
 import io.irontest.core.testcase.DataDrivenTestcaseRunner;
+import io.irontest.core.testcase.LoadTestExecutor;
+import io.irontest.core.testcase.LoadTestRunner;
 import io.irontest.core.testcase.RegularTestcaseRunner;
 import io.irontest.core.testcase.TestcaseRunner;
+import io.irontest.db.DataTableDAO;
+import io.irontest.db.LoadTestRunDAO;
 import io.irontest.db.TestcaseDAO;
 import io.irontest.db.TestcaseRunDAO;
 import io.irontest.db.TeststepRunDAO;
 import io.irontest.db.UtilsDAO;
+import io.irontest.db.WorkItemDAO;
+import io.irontest.models.TestResult;
 import io.irontest.models.Testcase;
+import io.irontest.models.testrun.LoadTestHandle;
+import io.irontest.models.testrun.LoadTestRun;
+import io.irontest.models.testrun.LoadTestSettings;
 import io.irontest.models.testrun.TestcaseRun;
 import io.irontest.models.testrun.TeststepRun;
+import io.irontest.models.testrun.WorkItem;
+import io.irontest.models.testrun.WorkItemStatus;
 import io.irontest.views.TestcaseRunView;
 import io.irontest.views.TeststepRunView;
 
@@ -19,6 +33,7 @@ import javax.annotation.security.PermitAll;
 import javax.ws.rs.*;
 import javax.ws.rs.core.MediaType;
 import java.io.IOException;
+import java.util.*;
 
 @Path("/") @Produces({ MediaType.APPLICATION_JSON })
 public class TestcaseRunResource {
@@ -26,14 +41,21 @@ public class TestcaseRunResource {
     private final UtilsDAO utilsDAO;
     private final TestcaseRunDAO testcaseRunDAO;
     private final TeststepRunDAO teststepRunDAO;
+    private final LoadTestRunDAO loadTestRunDAO;
+    private final DataTableDAO dataTableDAO;
+    private final WorkItemDAO workItemDAO;
     private WireMockServer wireMockServer;
 
     public TestcaseRunResource(TestcaseDAO testcaseDAO, UtilsDAO utilsDAO, TestcaseRunDAO testcaseRunDAO,
-                               TeststepRunDAO teststepRunDAO, WireMockServer wireMockServer) {
+                               TeststepRunDAO teststepRunDAO, LoadTestRunDAO loadTestRunDAO, DataTableDAO dataTableDAO,
+                               WorkItemDAO workItemDAO, WireMockServer wireMockServer) {
         this.testcaseDAO = testcaseDAO;
         this.utilsDAO = utilsDAO;
         this.testcaseRunDAO = testcaseRunDAO;
         this.teststepRunDAO = teststepRunDAO;
+        this.loadTestRunDAO = loadTestRunDAO;
+        this.dataTableDAO = dataTableDAO;
+        this.workItemDAO = workItemDAO;
         this.wireMockServer = wireMockServer;
     }
 
@@ -47,24 +69,200 @@ public class TestcaseRunResource {
         } else {
             testcaseRunner = new DataDrivenTestcaseRunner(testcase, utilsDAO, testcaseRunDAO, wireMockServer);
         }
-        return testcaseRunner.run();
+        Counter activeRuns = IronTestMetrics.counter(TestcaseRunner.class, "activeRuns");
+        activeRuns.inc();
+        try {
+            return testcaseRunner.run();
+        } finally {
+            activeRuns.dec();
+        }
+    }
+
+    /**
+     * Start a load test of the test case in background.
+     * @param testcaseId
+     * @param settings
+     * @return handle of the load test, for polling its status (see {@link #findLoadTest(String)})
+     */
+    @POST @Path("testcaseruns/loadtest") @PermitAll
+    public LoadTestHandle createLoadTest(@QueryParam("testcaseId") long testcaseId, LoadTestSettings settings) {
+        if (settings == null) {
+            throw new BadRequestException("Load test settings not specified.");
+        }
+        Testcase testcase = testcaseDAO.findById_Complete(testcaseId);
+        LoadTestRunner loadTestRunner = new LoadTestRunner(testcase, settings, utilsDAO, testcaseRunDAO,
+                loadTestRunDAO, wireMockServer);
+        return LoadTestExecutor.getInstance().submit(loadTestRunner, testcaseId);
+    }
+
+    @GET @Path("testcaseruns/loadtest/{handleId}")
+    public LoadTestHandle findLoadTest(@PathParam("handleId") String handleId) {
+        LoadTestHandle handle = LoadTestExecutor.getInstance().findHandle(handleId);
+        if (handle == null) {
+            throw new IllegalArgumentException("Load test " + handleId + " not found.");
+        }
+        return handle;
+    }
+
+    /**
+     * Stop the load test from starting new iterations. Its running iterations are finished, and the statistics of
+     * finished iterations are persisted as usual.
+     * @param handleId
+     * @return handle of the load test, for polling its status
+     */
+    @POST @Path("testcaseruns/loadtest/{handleId}/stop") @PermitAll
+    public LoadTestHandle stopLoadTest(@PathParam("handleId") String handleId) {
+        LoadTestHandle handle = LoadTestExecutor.getInstance().stop(handleId);
+        if (handle == null) {
+            throw new IllegalArgumentException("Load test " + handleId + " not found.");
+        }
+        return handle;
+    }
+
+    /**
+     * Queue test cases to be run by worker agents (see the worker command), instead of running them in this JVM.
+     * Each regular test case becomes a work item, and each data table row of a data driven test case becomes a work
+     * item, so that the rows are spread across the workers.
+     * @param testcaseIds test cases to run
+     * @param folderId if specified, all test cases in the folder and its sub folders are run as well
+     * @return the queued work items, sharing the same batch id
+     */
+    @POST @Path("testcaseruns/distributed") @PermitAll
+    public List<WorkItem> createDistributedRun(@QueryParam("testcaseId") List<Long> testcaseIds,
+                                               @QueryParam("folderId") Long folderId) {
+        Set<Long> allTestcaseIds = new LinkedHashSet<>(testcaseIds);
+        if (folderId != null) {
+            allTestcaseIds.addAll(testcaseDAO.findIdsUnderFolder(folderId));
+        }
+        if (allTestcaseIds.isEmpty()) {
+            throw new IllegalArgumentException("No test case to run.");
+        }
+
+        String batchId = UUID.randomUUID().toString();
+        List<WorkItem> workItems = new ArrayList<>();
+        for (long testcaseId: allTestcaseIds) {
+            int rowCount = dataTableDAO.getTestcaseDataTable(testcaseId, false).getRows().size();
+            if (rowCount == 0) {
+                workItems.add(newWorkItem(batchId, testcaseId, null));
+            } else {
+                for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
+                    workItems.add(newWorkItem(batchId, testcaseId, rowIndex));
+                }
+            }
+        }
+        workItemDAO.insertBatch(workItems);
+
+        return workItems;
+    }
+
+    /**
+     * Rerun only what failed in a distributed run.
+     * The result of each regular test case and of each data table row of a data driven test case is read from its own
+     * work item in the batch, not from the run history (the test case could have been run elsewhere since, and captions
+     * of data table rows are not unique).
+     * Failed or never run test cases and rows are queued again, while passed ones are carried over, i.e. added to the
+     * new batch as finished work items pointing to the passed test case run.
+     * @param batchId batch id of the distributed run to rerun
+     * @return work items of the new batch, including the carried over ones
+     */
+    @POST @Path("testcaseruns/distributed/{batchId}/rerunfailed") @PermitAll
+    public List<WorkItem> rerunFailedOfDistributedRun(@PathParam("batchId") String batchId) {
+        //  work items of the batch, keyed by test case id and then by data table row index (null for regular test case)
+        Map<Long, Map<Integer, WorkItem>> batchWorkItems = new LinkedHashMap<>();
+        for (WorkItem workItem: workItemDAO.findByBatchId(batchId)) {
+            batchWorkItems.computeIfAbsent(workItem.getTestcaseId(), k -> new HashMap<>())
+                    .put(workItem.getDataTableRowIndex(), workItem);
+        }
+        if (batchWorkItems.isEmpty()) {
+            throw new IllegalArgumentException("Distributed run " + batchId + " not found.");
+        }
+
+        String newBatchId = UUID.randomUUID().toString();
+        List<WorkItem> workItems = new ArrayList<>();
+        for (Map.Entry<Long, Map<Integer, WorkItem>> entry: batchWorkItems.entrySet()) {
+            long testcaseId = entry.getKey();
+            int rowCount = dataTableDAO.getTestcaseDataTable(testcaseId, false).getRows().size();
+            if (rowCount == 0) {
+                workItems.add(newRerunWorkItem(newBatchId, testcaseId, null, entry.getValue().get(null)));
+            } else {
+                for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
+                    workItems.add(newRerunWorkItem(newBatchId, testcaseId, rowIndex, entry.getValue().get(rowIndex)));
+                }
+            }
+        }
+        workItemDAO.insertBatch(workItems);
+
+        return workItems;
+    }
+
+    /**
+     * @param batchId
+     * @param testcaseId
+     * @param dataTableRowIndex
+     * @param previousWorkItem work item of the same test case (and data table row) in the batch being rerun, or null
+     * @return a carried over work item if the previous work item passed, otherwise a queued work item
+     */
+    private WorkItem newRerunWorkItem(String batchId, long testcaseId, Integer dataTableRowIndex,
+                                      WorkItem previousWorkItem) {
+        return previousWorkItem != null && TestResult.PASSED == previousWorkItem.getResult() &&
+                previousWorkItem.getTestcaseRunId() != null ?
+                newCarriedOverWorkItem(batchId, testcaseId, dataTableRowIndex, previousWorkItem.getTestcaseRunId()) :
+                newWorkItem(batchId, testcaseId, dataTableRowIndex);
+    }
+
+    private WorkItem newCarriedOverWorkItem(String batchId, long testcaseId, Integer dataTableRowIndex,
+                                            long testcaseRunId) {
+        WorkItem workItem = newWorkItem(batchId, testcaseId, dataTableRowIndex);
+        workItem.setStatus(WorkItemStatus.FINISHED);
+        workItem.setResult(TestResult.PASSED);
+        workItem.setTestcaseRunId(testcaseRunId);
+        workItem.setCarriedOver(true);
+        return workItem;
+    }
+
+    private WorkItem newWorkItem(String batchId, long testcaseId, Integer dataTableRowIndex) {
+        WorkItem workItem = new WorkItem();
+        workItem.setBatchId(batchId);
+        workItem.setTestcaseId(testcaseId);
+        workItem.setDataTableRowIndex(dataTableRowIndex);
+        workItem.setStatus(WorkItemStatus.QUEUED);
+        return workItem;
+    }
+
+    @GET @Path("testcaseruns/distributed/{batchId}")
+    public List<WorkItem> findDistributedRunWorkItems(@PathParam("batchId") String batchId) {
+        return workItemDAO.findByBatchId(batchId);
+    }
+
+    @GET @Path("loadtestruns/{loadTestRunId}")
+    public LoadTestRun findLoadTestRunById(@PathParam("loadTestRunId") long loadTestRunId) {
+        return loadTestRunDAO.findById(loadTestRunId);
     }
 
     @GET @Path("testcaseruns/{testcaseRunId}/htmlreport") @Produces(MediaType.TEXT_HTML)
     public TestcaseRunView getHTMLReportByTestcaseRunId(@PathParam("testcaseRunId") long testcaseRunId) {
-        TestcaseRun testcaseRun = testcaseRunDAO.findById(testcaseRunId);
+        TestcaseRun testcaseRun;
+        try (Timer.Context ignored = IronTestMetrics.timer(TestcaseRunView.class, "loading").time()) {
+            testcaseRun = testcaseRunDAO.findById(testcaseRunId);
+        }
         return new TestcaseRunView(testcaseRun);
     }
 
     @GET @Path("teststepruns/{stepRunId}/htmlreport") @Produces(MediaType.TEXT_HTML)
     public TeststepRunView getStepRunHTMLReportById(@PathParam("stepRunId") long stepRunId) {
-        TeststepRun sstepRun = teststepRunDAO.findById(stepRunId);
+        TeststepRun sstepRun;
+        try (Timer.Context ignored = IronTestMetrics.timer(TeststepRunView.class, "loading").time()) {
+            sstepRun = teststepRunDAO.findById(stepRunId);
+        }
         return new TeststepRunView(sstepRun);
     }
 
     @GET @Path("testcaseruns/lastrun/htmlreport") @Produces(MediaType.TEXT_HTML)
     public Object getTestcaseLastRunHTMLReport(@QueryParam("testcaseId") long testcaseId) {
-        TestcaseRun testcaseRun = testcaseRunDAO.findLastByTestcaseId(testcaseId);
+        TestcaseRun testcaseRun;
+        try (Timer.Context ignored = IronTestMetrics.timer(TestcaseRunView.class, "loading").time()) {
+            testcaseRun = testcaseRunDAO.findLastByTestcaseId(testcaseId);
+        }
         if (testcaseRun == null) {
             return "The test case has never been run.";
         } else {
@@ -1,7 +1,9 @@
 package io.irontest.resources;
 
+import com.codahale.metrics.Timer;
 import com.fasterxml.jackson.annotation.JsonView;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import io.irontest.core.IronTestMetrics;
 import io.irontest.core.teststep.*;
 import io.irontest.db.*;
 import io.irontest.models.AppInfo;
@@ -11,7 +13,6 @@ import io.irontest.models.assertion.Assertion;
 import io.irontest.models.endpoint.Endpoint;
 import io.irontest.models.teststep.*;
 import io.irontest.utils.IronTestUtils;
-import io.irontest.utils.XMLUtils;
 import org.glassfish.jersey.media.multipart.FormDataContentDisposition;
 import org.glassfish.jersey.media.multipart.FormDataParam;
 
@@ -158,35 +159,15 @@ public class TeststepResource {
         //  run the test step
         TeststepRunner teststepRunner = TeststepRunnerFactory.getInstance().newTeststepRunner(
                 teststep, utilsDAO, referenceableStringProperties, referenceableEndpointProperties, null);
-        BasicTeststepRun basicTeststepRun = teststepRunner.run();
-
-        //  for better display in browser, transform JSON/XML response to be pretty-printed
-        switch (teststep.getType()) {
-            case Teststep.TYPE_SOAP:
-                HTTPAPIResponse soapAPIResponse = (HTTPAPIResponse) basicTeststepRun.getResponse();
-                soapAPIResponse.setHttpBody(XMLUtils.prettyPrintXML(soapAPIResponse.getHttpBody()));
-                break;
-            case Teststep.TYPE_HTTP:
-                HTTPAPIResponse httpAPIResponse = (HTTPAPIResponse) basicTeststepRun.getResponse();
-                httpAPIResponse.setHttpBody(IronTestUtils.prettyPrintJSONOrXML(httpAPIResponse.getHttpBody()));
-                break;
-            case Teststep.TYPE_MQ:
-                if (Teststep.ACTION_DEQUEUE.equals(teststep.getAction())) {
-                    MQDequeueResponse mqDequeueResponse = (MQDequeueResponse) basicTeststepRun.getResponse();
-                    if (mqDequeueResponse != null) {
-                        mqDequeueResponse.setBodyAsText(IronTestUtils.prettyPrintJSONOrXML(mqDequeueResponse.getBodyAsText()));
-                        if (mqDequeueResponse.getMqrfh2Header() != null) {
-                            for (MQRFH2Folder mqrfh2Folder: mqDequeueResponse.getMqrfh2Header().getFolders()) {
-                                mqrfh2Folder.setString(IronTestUtils.prettyPrintJSONOrXML(mqrfh2Folder.getString()));
-                            }
-                        }
-                    }
-                }
-                break;
-            default:
-                break;
+        BasicTeststepRun basicTeststepRun;
+        try (Timer.Context ignored = IronTestMetrics.timer(TeststepRunner.class, teststep.getType(), "run").time()) {
+            basicTeststepRun = teststepRunner.run();
         }
 
+        //  the response is returned as is; it is pretty-printed for display only on demand (see SystemResource.prettyPrint),
+        //  as formatting a big JSON/XML response costs much more than returning it
+        basicTeststepRun.setPrettyPrintKey(
+                ResponsePrettyPrintCache.getInstance().put(basicTeststepRun.getResponse()));
         return basicTeststepRun;
     }
 
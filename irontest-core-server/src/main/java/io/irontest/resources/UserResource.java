@@ -1,6 +1,7 @@
 package io.irontest.resources;
 
 import io.irontest.IronTestConstants;
+import io.irontest.auth.CachingResourceAuthenticator;
 import io.irontest.auth.SimplePrincipal;
 import io.irontest.db.UserDAO;
 import io.irontest.models.User;
@@ -19,9 +20,11 @@ import java.util.List;
 @Path("/users") @Produces({ MediaType.APPLICATION_JSON })
 public class UserResource {
     private final UserDAO userDAO;
+    private final CachingResourceAuthenticator authenticator;
 
-    public UserResource(UserDAO userDAO) {
+    public UserResource(UserDAO userDAO, CachingResourceAuthenticator authenticator) {
         this.userDAO = userDAO;
+        this.authenticator = authenticator;
     }
 
     /**
@@ -55,6 +58,9 @@ public class UserResource {
         }
 
         userDAO.deleteById(userId);
+        if (user != null) {
+            authenticator.invalidate(user.getUsername());
+        }
     }
 
     @PUT @Path("{userId}/password")
@@ -65,6 +71,7 @@ public class UserResource {
         User user = userDAO.findByUsername(principal.getName());
         if (user.getId() == userId) {
             userDAO.updatePassword(userId, newPassword);
+            authenticator.invalidate(user.getUsername());
         } else {
             throw new RuntimeException("You can't change other user's password.");
         }
@@ -3,11 +3,7 @@ package io.irontest.resources;
 import com.predic8.wsdl.Binding;
 import com.predic8.wsdl.BindingOperation;
 import com.predic8.wsdl.Definitions;
-import com.predic8.wsdl.WSDLParser;
-import com.predic8.wstool.creator.RequestTemplateCreator;
-import com.predic8.wstool.creator.SOARequestCreator;
-import groovy.xml.MarkupBuilder;
-import io.irontest.core.SSLTrustedExternalResolver;
+import io.irontest.core.WSDLCache;
 import io.irontest.models.WSDLBinding;
 import io.irontest.models.teststep.SOAPOperationInfo;
 
@@ -15,8 +11,8 @@ import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
-import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
 import java.util.List;
@@ -25,12 +21,21 @@ import java.util.List;
 public class WSDLResource {
     public WSDLResource() {}
 
+    /**
+     * @param wsdlUrl
+     * @param refresh true to re-download and re-parse the WSDL instead of using the cached one
+     * @return
+     * @throws UnsupportedEncodingException
+     */
     @GET @Path("/{wsdlUrl}/bindings")
-    public List<WSDLBinding> getWSDLBindings(@PathParam("wsdlUrl") String wsdlUrl) throws UnsupportedEncodingException {
+    public List<WSDLBinding> getWSDLBindings(@PathParam("wsdlUrl") String wsdlUrl,
+                                             @QueryParam("refresh") boolean refresh) throws UnsupportedEncodingException {
+        if (refresh) {
+            WSDLCache.getInstance().refresh(wsdlUrl);
+        }
+
         List<WSDLBinding> result = new ArrayList<WSDLBinding>();
-        WSDLParser parser = new WSDLParser();
-        parser.setResourceResolver(new SSLTrustedExternalResolver());
-        Definitions definition = parser.parse(wsdlUrl);
+        Definitions definition = WSDLCache.getInstance().getDefinitions(wsdlUrl);
         for (Binding binding: definition.getBindings()) {
             List<String> operationNames = new ArrayList<String>();
             for (BindingOperation operation: binding.getOperations()) {
@@ -46,12 +51,7 @@ public class WSDLResource {
     public SOAPOperationInfo getOperationInfo(@PathParam("wsdlUrl") String wsdlUrl, @PathParam("bindingName") String bindingName,
                                               @PathParam("operationName") String operationName) {
         SOAPOperationInfo info = new SOAPOperationInfo();
-        WSDLParser parser = new WSDLParser();
-        Definitions definition = parser.parse(wsdlUrl);
-        StringWriter writer = new StringWriter();
-        SOARequestCreator creator = new SOARequestCreator(definition, new RequestTemplateCreator(), new MarkupBuilder(writer));
-        creator.createRequest(null, operationName, bindingName);
-        info.setSampleRequest(writer.toString());
+        info.setSampleRequest(WSDLCache.getInstance().getSampleRequest(wsdlUrl, bindingName, operationName));
 
         return info;
     }
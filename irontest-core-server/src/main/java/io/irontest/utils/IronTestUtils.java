@@ -3,7 +3,11 @@ package io.irontest.utils;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
 import com.github.tomakehurst.wiremock.common.Encoding;
+import com.github.tomakehurst.wiremock.common.Metadata;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
 import com.github.tomakehurst.wiremock.http.LoggedResponse;
 import com.github.tomakehurst.wiremock.http.ResponseDefinition;
 import com.github.tomakehurst.wiremock.matching.*;
@@ -12,6 +16,8 @@ import com.github.tomakehurst.wiremock.stubbing.StubMapping;
 import com.github.tomakehurst.wiremock.verification.LoggedRequest;
 import com.github.tomakehurst.wiremock.verification.notmatched.PlainTextStubNotMatchedRenderer;
 import com.google.common.net.UrlEscapers;
+import io.irontest.WireMockRunScopeRequestMatcher;
+import io.irontest.core.testcase.TestcaseRunContext;
 import io.irontest.core.teststep.HTTPAPIResponse;
 import io.irontest.db.SQLStatementType;
 import io.irontest.models.*;
@@ -26,6 +32,7 @@ import org.apache.http.Header;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpHeaders;
 import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
 import org.apache.http.client.ClientProtocolException;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.ResponseHandler;
@@ -49,16 +56,23 @@ import javax.xml.transform.TransformerException;
 import javax.xml.xpath.XPathExpressionException;
 import java.io.IOException;
 import java.net.*;
+import java.security.GeneralSecurityException;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.regex.Pattern;
 
-import static com.github.tomakehurst.wiremock.common.Metadata.metadata;
-import static io.irontest.IronTestConstants.WIREMOCK_STUB_METADATA_ATTR_NAME_IRON_TEST_ID;
-import static io.irontest.IronTestConstants.WIREMOCK_STUB_METADATA_ATTR_NAME_IRON_TEST_NUMBER;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.matching;
+import static com.github.tomakehurst.wiremock.client.WireMock.matchingJsonPath;
+import static io.irontest.IronTestConstants.*;
 
 public final class IronTestUtils {
+    //  haven't found a way, without custom code, to pretty print JSON with duplicate keys (which is invalid JSON)
+    private static final ObjectMapper PRETTY_PRINT_JSON_OBJECT_MAPPER = new ObjectMapper()
+            .enable(JsonParser.Feature.STRICT_DUPLICATE_DETECTION);
+
     /**
      * @param rs
      * @return a list of lower case column names present in the result set.
@@ -127,6 +141,41 @@ public final class IronTestUtils {
      */
     public static HTTPAPIResponse invokeHTTPAPI(String url, String username, String password, HTTPMethod httpMethod,
                                                 List<HTTPHeader> httpHeaders, String httpBody) throws Exception {
+        HttpUriRequest httpRequest = createHTTPRequest(url, username, password, httpMethod, httpHeaders, httpBody);
+
+        ResponseHandler<HTTPAPIResponse> responseHandler = IronTestUtils::toHTTPAPIResponse;
+
+        //  build HTTP Client instance, trusting all SSL certificates, using system HTTP proxy if needed and exists
+        SSLContext sslContext = createTrustAllSSLContext();
+        HostnameVerifier allowAllHosts = new NoopHostnameVerifier();
+        SSLConnectionSocketFactory connectionFactory = new SSLConnectionSocketFactory(sslContext, allowAllHosts);
+        HttpClientBuilder httpClientBuilder = HttpClients.custom().setSSLSocketFactory(connectionFactory);
+        HttpHost proxy = getHTTPProxy(url);
+        if (proxy != null) {
+            httpClientBuilder.setProxy(proxy);
+        }
+        HttpClient httpClient = httpClientBuilder.build();
+
+        //  invoke the API
+        try {
+            return httpClient.execute(httpRequest, responseHandler);
+        } catch (ClientProtocolException e) {
+            throw new RuntimeException(e.getCause().getMessage(), e);
+        }
+    }
+
+    /**
+     * Create HTTP request object for invoking an HTTP API, with body, headers and HTTP basic auth set.
+     * @param url
+     * @param username
+     * @param password
+     * @param httpMethod
+     * @param httpHeaders
+     * @param httpBody
+     * @return
+     */
+    public static HttpUriRequest createHTTPRequest(String url, String username, String password, HTTPMethod httpMethod,
+                                                   List<HTTPHeader> httpHeaders, String httpBody) {
         UrlValidator urlValidator = new UrlValidator(new String[] {"http", "https"}, UrlValidator.ALLOW_LOCAL_URLS);
         if (!urlValidator.isValid(url)) {
             throw new RuntimeException("Invalid URL");
@@ -170,43 +219,44 @@ public final class IronTestUtils {
             httpRequest.setHeader(HttpHeaders.AUTHORIZATION, authHeader);
         }
 
-        final HTTPAPIResponse apiResponse = new HTTPAPIResponse();
-        ResponseHandler<Void> responseHandler = httpResponse -> {
-            apiResponse.setStatusCode(httpResponse.getStatusLine().getStatusCode());
-            apiResponse.getHttpHeaders().add(
-                    new HTTPHeader("*Status-Line*", httpResponse.getStatusLine().toString()));
-            Header[] headers = httpResponse.getAllHeaders();
-            for (Header header: headers) {
-                apiResponse.getHttpHeaders().add(new HTTPHeader(header.getName(), header.getValue()));
-            }
-            HttpEntity entity = httpResponse.getEntity();
-            apiResponse.setHttpBody(entity != null ? EntityUtils.toString(entity) : null);
-            return null;
-        };
+        return httpRequest;
+    }
 
-        //  build HTTP Client instance, trusting all SSL certificates, using system HTTP proxy if needed and exists
-        SSLContext sslContext = new SSLContextBuilder().loadTrustMaterial((TrustStrategy) (chain, authType) -> true).build();
-        HostnameVerifier allowAllHosts = new NoopHostnameVerifier();
-        SSLConnectionSocketFactory connectionFactory = new SSLConnectionSocketFactory(sslContext, allowAllHosts);
-        HttpClientBuilder httpClientBuilder = HttpClients.custom().setSSLSocketFactory(connectionFactory);
+    public static HTTPAPIResponse toHTTPAPIResponse(HttpResponse httpResponse) throws IOException {
+        HTTPAPIResponse apiResponse = new HTTPAPIResponse();
+        apiResponse.setStatusCode(httpResponse.getStatusLine().getStatusCode());
+        apiResponse.getHttpHeaders().add(
+                new HTTPHeader("*Status-Line*", httpResponse.getStatusLine().toString()));
+        Header[] headers = httpResponse.getAllHeaders();
+        for (Header header: headers) {
+            apiResponse.getHttpHeaders().add(new HTTPHeader(header.getName(), header.getValue()));
+        }
+        HttpEntity entity = httpResponse.getEntity();
+        apiResponse.setHttpBody(entity != null ? EntityUtils.toString(entity) : null);
+        return apiResponse;
+    }
+
+    public static SSLContext createTrustAllSSLContext() throws GeneralSecurityException {
+        return new SSLContextBuilder().loadTrustMaterial((TrustStrategy) (chain, authType) -> true).build();
+    }
+
+    /**
+     * System HTTP proxy is only used for external address.
+     * @param url
+     * @return the system HTTP proxy if it is needed for the url and it exists, otherwise null.
+     * @throws UnknownHostException
+     * @throws MalformedURLException
+     */
+    public static HttpHost getHTTPProxy(String url) throws UnknownHostException, MalformedURLException {
         InetAddress urlHost = InetAddress.getByName(new URL(url).getHost());
-        if (!(urlHost.isLoopbackAddress() || urlHost.isSiteLocalAddress())) {    //  only use system proxy for external address
+        if (!(urlHost.isLoopbackAddress() || urlHost.isSiteLocalAddress())) {
             Proxy systemHTTPProxy = getSystemHTTPProxy();
             if (systemHTTPProxy != null) {
                 InetSocketAddress addr = (InetSocketAddress) systemHTTPProxy.address();
-                httpClientBuilder.setProxy(new HttpHost(addr.getHostName(), addr.getPort()));
+                return new HttpHost(addr.getHostName(), addr.getPort());
             }
         }
-        HttpClient httpClient = httpClientBuilder.build();
-
-        //  invoke the API
-        try {
-            httpClient.execute(httpRequest, responseHandler);
-        } catch (ClientProtocolException e) {
-            throw new RuntimeException(e.getCause().getMessage(), e);
-        }
-
-        return apiResponse;
+        return null;
     }
 
     public static Proxy getSystemHTTPProxy() {
@@ -251,16 +301,14 @@ public final class IronTestUtils {
             return XMLUtils.prettyPrintXML(input);
         } else if (trimmedInput.startsWith("[") || trimmedInput.startsWith("{")) {   //  potentially json array/object (impossible to be xml)
             //  notice that string "111 222 333" will be parsed by Jackson as Integer 111, so only pretty print potential json array/object here.
-            ObjectMapper objectMapper = new ObjectMapper();
-            objectMapper.enable(JsonParser.Feature.STRICT_DUPLICATE_DETECTION);  //  haven't found a way, without custom code, to pretty print JSON with duplicate keys (which is invalid JSON)
             Object jsonObject;
             try {
-                jsonObject = objectMapper.readValue(input, Object.class);
+                jsonObject = PRETTY_PRINT_JSON_OBJECT_MAPPER.readValue(input, Object.class);
             } catch (Exception e) {
                 //  the input string is not well formed JSON
                 return input;
             }
-            return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(jsonObject);
+            return PRETTY_PRINT_JSON_OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(jsonObject);
         } else {
             return input;
         }
@@ -279,21 +327,130 @@ public final class IronTestUtils {
 
     /**
      * Create (clone) a new instance out of the stub spec, with UUID generated for the instance.
-     * The instance also has the ironTestId as metadata.
+     * The instance also has the stub's id and number as metadata, and has response templating applied if the stub
+     * has it enabled.
      * The spec is not changed.
-     * @param spec
+     * @param stub
+     * @return
+     */
+    public static StubMapping createStubInstance(HTTPStubMapping stub) {
+        return createStubInstance(stub, null, false);
+    }
+
+    /**
+     * Same as {@link #createStubInstance(HTTPStubMapping)}, except that if runId is not null, the instance
+     * is scoped to the test case run, i.e. it has the runId as metadata, its scenario (if any) is the run's own, and it
+     * does not match requests carrying another run's id header (unless the spec has its own custom matcher).
+     * @param stub
+     * @param runId
+     * @param runIdHeaderRequired if true, the run scoped instance does not match requests without the run id header
+     *                            either (unless the spec has its own custom matcher)
      * @return
      */
-    public static StubMapping createStubInstance(long ironTestId, short ironTestNumber, StubMapping spec) {
-        StubMapping stubInstance = StubMapping.buildFrom(StubMapping.buildJsonStringFor(spec));
-        stubInstance.setMetadata(metadata()
-                .attr(WIREMOCK_STUB_METADATA_ATTR_NAME_IRON_TEST_ID, ironTestId)
-                .attr(WIREMOCK_STUB_METADATA_ATTR_NAME_IRON_TEST_NUMBER, ironTestNumber)
-                .build());
+    public static StubMapping createStubInstance(HTTPStubMapping stub, String runId, boolean runIdHeaderRequired) {
+        StubMapping spec = stub.getSpec();
+
+        //  copy the spec field by field instead of JSON round-trip. The request pattern and response definition are
+        //  shared with the spec, as WireMock does not change them (the response definition is copied on serving).
+        ResponseDefinition response = spec.getResponse();
+        List<String> transformers = response.getTransformers() == null ?
+                new ArrayList<>() : new ArrayList<>(response.getTransformers());
+        if (stub.isResponseTemplatingEnabled() && !transformers.contains(ResponseTemplateTransformer.NAME)) {
+            transformers.add(ResponseTemplateTransformer.NAME);
+            response = ResponseDefinitionBuilder.like(response)
+                    .withTransformers(transformers.toArray(new String[0])).build();
+        }
+        StubMapping stubInstance = new StubMapping(spec.getRequest(), response);
+        stubInstance.setName(spec.getName());
+        stubInstance.setPersistent(spec.isPersistent());
+        stubInstance.setPriority(spec.getPriority());
+        stubInstance.setScenarioName(spec.getScenarioName());
+        stubInstance.setRequiredScenarioState(spec.getRequiredScenarioState());
+        stubInstance.setNewScenarioState(spec.getNewScenarioState());
+        if (spec.getPostServeActions() != null) {
+            stubInstance.setPostServeActions(new LinkedHashMap<>(spec.getPostServeActions()));
+        }
+        Metadata metadata = spec.getMetadata() == null ? new Metadata() : new Metadata(spec.getMetadata());
+        metadata.put(WIREMOCK_STUB_METADATA_ATTR_NAME_IRON_TEST_ID, stub.getId());
+        metadata.put(WIREMOCK_STUB_METADATA_ATTR_NAME_IRON_TEST_NUMBER, stub.getNumber());
+        if (runId != null) {
+            metadata.put(WIREMOCK_STUB_METADATA_ATTR_NAME_IRON_TEST_RUN_ID, runId);
+            if (!stubInstance.getRequest().hasCustomMatcher()) {
+                Parameters parameters = new Parameters();
+                parameters.put(WireMockRunScopeRequestMatcher.PARAMETER_NAME_RUN_ID, runId);
+                parameters.put(WireMockRunScopeRequestMatcher.PARAMETER_NAME_RUN_ID_HEADER_REQUIRED,
+                        runIdHeaderRequired);
+                stubInstance.setRequest(RequestPatternBuilder.like(stubInstance.getRequest())
+                        .andMatching(WIREMOCK_RUN_SCOPE_REQUEST_MATCHER_NAME, parameters)
+                        .build());
+            }
+            //  the mock server keeps scenario state by scenario name, so concurrent runs must not share the name
+            if (stubInstance.isInScenario()) {
+                stubInstance.setScenarioName(runId + ":" + stubInstance.getScenarioName());
+            }
+        }
+        stubInstance.setMetadata(metadata);
         stubInstance.setDirty(false);
         return stubInstance;
     }
 
+    /**
+     * Load instances of the stubs into the mock server in one batch, after removing the stubs' previously loaded
+     * instances (in one pass over all stub instances on the mock server).
+     * @param wireMockServer
+     * @param stubs
+     */
+    public static void loadStubInstances(WireMockServer wireMockServer, List<HTTPStubMapping> stubs) {
+        if (stubs.isEmpty()) {
+            return;
+        }
+
+        //  delete old instances if exist
+        StringJoiner ironTestIdsRegex = new StringJoiner("|");
+        for (HTTPStubMapping stub: stubs) {
+            ironTestIdsRegex.add(Pattern.quote(Long.toString(stub.getId())));
+        }
+        wireMockServer.removeStubsByMetadata(matchingJsonPath("$." + WIREMOCK_STUB_METADATA_ATTR_NAME_IRON_TEST_ID,
+                matching(ironTestIdsRegex.toString())));
+
+        List<StubMapping> stubInstances = new ArrayList<>();
+        for (HTTPStubMapping stub: stubs) {
+            stubInstances.add(createStubInstance(stub));
+        }
+        wireMockServer.loadMappingsUsing(stubMappings -> {
+            for (StubMapping stubInstance: stubInstances) {
+                stubMappings.addMapping(stubInstance);
+            }
+        });
+    }
+
+    /**
+     * @param runId
+     * @return pattern for matching metadata of the stub instances of the test case run.
+     */
+    public static StringValuePattern stubInstanceOfRunPattern(String runId) {
+        return matchingJsonPath("$." + WIREMOCK_STUB_METADATA_ATTR_NAME_IRON_TEST_RUN_ID, equalTo(runId));
+    }
+
+    /**
+     * A serve event belongs to the test case run, if it matched one of the run's current stub instances, or if it was
+     * unmatched, was logged after the run's stubs setup, and does not carry another run's id header.
+     * @param serveEvent
+     * @param testcaseRunContext
+     * @return
+     */
+    public static boolean isServeEventOfRun(ServeEvent serveEvent, TestcaseRunContext testcaseRunContext) {
+        if (serveEvent.getWasMatched()) {
+            return testcaseRunContext.getHttpStubMappingInstanceIds().containsValue(serveEvent.getStubMapping().getId());
+        } else {
+            LoggedRequest request = serveEvent.getRequest();
+            com.github.tomakehurst.wiremock.http.HttpHeader runIdHeader = request.header(HTTP_HEADER_NAME_IRON_TEST_RUN_ID);
+            Date setupTime = testcaseRunContext.getHttpStubsSetupTime();
+            return (setupTime == null || !request.getLoggedDate().before(setupTime)) &&
+                    (!runIdHeader.isPresent() || runIdHeader.firstValue().equals(testcaseRunContext.getRunId()));
+        }
+    }
+
     /**
      * By default, unmatched WireMock stub request (ServeEvent) does not have the actual response headers or response body.
      * This method update the unmatched serveEvent obtained from the WireMockServer by changing its response headers and body to the actual values.
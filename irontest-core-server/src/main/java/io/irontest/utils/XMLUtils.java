@@ -12,16 +12,20 @@ import org.xmlunit.diff.Diff;
 import org.xmlunit.diff.Difference;
 import org.xmlunit.diff.DifferenceEvaluators;
 import org.xmlunit.placeholder.PlaceholderDifferenceEvaluator;
+import org.xmlunit.util.Nodes;
 
+import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
+import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathExpressionException;
@@ -32,6 +36,110 @@ import java.io.StringWriter;
 import java.util.Iterator;
 
 public final class XMLUtils {
+    //  Looking up a JAXP factory (newInstance) goes through the service loader, and JAXP factories and the objects they
+    //  create are not thread safe. So the factories are looked up once, and each thread reuses its own document
+    //  builder, transformer and XPath object (reset before each use).
+    //  The XML parsed or transformed here comes from API responses and test step data, so the factories are hardened
+    //  against XXE: external entities, external DTDs and external stylesheets are not loaded. DOCTYPE declarations
+    //  (with internal entities) are still accepted.
+    private static final DocumentBuilderFactory DOCUMENT_BUILDER_FACTORY = newDocumentBuilderFactory(false);
+    private static final DocumentBuilderFactory NAMESPACE_AWARE_DOCUMENT_BUILDER_FACTORY =
+            newDocumentBuilderFactory(true);
+    private static final TransformerFactory TRANSFORMER_FACTORY = newTransformerFactory();
+    private static final XPathFactory XPATH_FACTORY = XPathFactory.newInstance();
+    private static final ThreadLocal<DocumentBuilder> DOCUMENT_BUILDER =
+            ThreadLocal.withInitial(() -> newDocumentBuilder(DOCUMENT_BUILDER_FACTORY));
+    private static final ThreadLocal<DocumentBuilder> NAMESPACE_AWARE_DOCUMENT_BUILDER =
+            ThreadLocal.withInitial(() -> newDocumentBuilder(NAMESPACE_AWARE_DOCUMENT_BUILDER_FACTORY));
+    private static final ThreadLocal<Transformer> TRANSFORMER = ThreadLocal.withInitial(() -> {
+        synchronized (TRANSFORMER_FACTORY) {
+            try {
+                return TRANSFORMER_FACTORY.newTransformer();
+            } catch (TransformerException e) {
+                throw new RuntimeException("Failed to create transformer", e);
+            }
+        }
+    });
+    private static final ThreadLocal<XPath> XPATH = ThreadLocal.withInitial(() -> {
+        synchronized (XPATH_FACTORY) {
+            return XPATH_FACTORY.newXPath();
+        }
+    });
+
+    private static DocumentBuilderFactory newDocumentBuilderFactory(boolean namespaceAware) {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(namespaceAware);
+        try {
+            //  secure processing also limits entity expansion, against entity bombs declared in a DOCTYPE
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+            factory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+            factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        } catch (ParserConfigurationException e) {
+            throw new RuntimeException("Failed to configure document builder factory", e);
+        }
+        factory.setXIncludeAware(false);
+        return factory;
+    }
+
+    private static TransformerFactory newTransformerFactory() {
+        TransformerFactory factory = TransformerFactory.newInstance();
+        try {
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        } catch (TransformerConfigurationException e) {
+            throw new RuntimeException("Failed to configure transformer factory", e);
+        }
+        factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+        factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_STYLESHEET, "");
+        return factory;
+    }
+
+    private static DocumentBuilder newDocumentBuilder(DocumentBuilderFactory factory) {
+        synchronized (factory) {
+            try {
+                return factory.newDocumentBuilder();
+            } catch (ParserConfigurationException e) {
+                throw new RuntimeException("Failed to create document builder", e);
+            }
+        }
+    }
+
+    /**
+     * @return the current thread's namespace unaware document builder, with parser logging turned off.
+     */
+    public static DocumentBuilder getDocumentBuilder() {
+        return getDocumentBuilder(false);
+    }
+
+    /**
+     * @param namespaceAware
+     * @return the current thread's document builder, with parser logging turned off.
+     */
+    public static DocumentBuilder getDocumentBuilder(boolean namespaceAware) {
+        DocumentBuilder builder = namespaceAware ? NAMESPACE_AWARE_DOCUMENT_BUILDER.get() : DOCUMENT_BUILDER.get();
+        builder.reset();
+        builder.setErrorHandler(null);  //  prevent XML parser logging
+        return builder;
+    }
+
+    /**
+     * @return the current thread's identity transformer, with default output properties.
+     */
+    public static Transformer getTransformer() {
+        Transformer transformer = TRANSFORMER.get();
+        transformer.reset();
+        return transformer;
+    }
+
+    /**
+     * @return the current thread's XPath object, with no namespace context.
+     */
+    public static XPath getXPath() {
+        XPath xpath = XPATH.get();
+        xpath.reset();
+        return xpath;
+    }
+
     /**
      * If the input string is well formed XML, return its pretty-print format. Otherwise, return it as is.
      * If the input is null, return null.
@@ -66,8 +174,7 @@ public final class XMLUtils {
             //
             //              <b>123</b>
             //            </a>
-            XPathFactory xpathFactory = XPathFactory.newInstance();
-            XPathExpression xpathExp = xpathFactory.newXPath().compile("//text()[normalize-space(.) = '']");
+            XPathExpression xpathExp = getXPath().compile("//text()[normalize-space(.) = '']");
             NodeList blankTextNodes = (NodeList) xpathExp.evaluate(doc, XPathConstants.NODESET);
             for (int i = 0; i < blankTextNodes.getLength(); i++) {
                 Node blankTextNode = blankTextNodes.item(i);
@@ -77,7 +184,7 @@ public final class XMLUtils {
             }
 
             //  pretty print the xml
-            Transformer transformer = TransformerFactory.newInstance().newTransformer();
+            Transformer transformer = getTransformer();
             transformer.setOutputProperty(OutputKeys.INDENT, "yes");
             transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "2");
             if (input.startsWith("<?xml")) {
@@ -94,9 +201,13 @@ public final class XMLUtils {
 
     public static String domNodeListToString(NodeList nodeList) throws TransformerException {
         StringBuilder sb = new StringBuilder();
+        Transformer transformer = null;
         for (int i = 0; i < nodeList.getLength(); i++) {
             Node node = nodeList.item(i);
-            sb.append(domNodeToString(node));
+            if (transformer == null) {
+                transformer = getNodeTransformer();
+            }
+            sb.append(domNodeToString(node, transformer));
             // Below formatting will cause xpath assertion verification failure when
             // xpath evaluation result is of type NODESET.
             //sb.append(System.getProperty("line.separator"));
@@ -105,14 +216,22 @@ public final class XMLUtils {
     }
 
     public static String domNodeToString(Node node) throws TransformerException {
+        return domNodeToString(node, getNodeTransformer());
+    }
+
+    private static Transformer getNodeTransformer() {
+        Transformer transformer = getTransformer();
+        transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+        return transformer;
+    }
+
+    private static String domNodeToString(Node node, Transformer transformer) throws TransformerException {
         StringWriter writer = new StringWriter();
         if (node.getNodeType() == Node.TEXT_NODE) {
             writer.write(node.getTextContent());
         } else if (node.getNodeType() == Node.ATTRIBUTE_NODE) {
             writer.write(node.getNodeValue());
         } else {  // this block of code will always transform text node or attribute node to empty string, so handle them separately
-            Transformer transformer = TransformerFactory.newInstance().newTransformer();
-            transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
             transformer.transform(new DOMSource(node), new StreamResult(writer));
         }
 
@@ -128,10 +247,39 @@ public final class XMLUtils {
      * @throws SAXException
      */
     public static Document xmlStringToDOM(String xml) throws ParserConfigurationException, IOException, SAXException {
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder builder = factory.newDocumentBuilder();
-        builder.setErrorHandler(null);  //  prevent XML parser logging
-        return builder.parse(new InputSource(new StringReader(xml)));
+        return xmlStringToDOM(xml, false);
+    }
+
+    /**
+     * Parse input xml string into a DOM document.
+     * @param xml
+     * @param namespaceAware
+     * @return
+     * @throws IOException
+     * @throws SAXException
+     */
+    public static Document xmlStringToDOM(String xml, boolean namespaceAware) throws IOException, SAXException {
+        return getDocumentBuilder(namespaceAware).parse(new InputSource(new StringReader(xml)));
+    }
+
+    /**
+     * Canonical form of the document for equality check: the document with whitespace normalized (the same way as
+     * {@link #compareXML(String, String)} does) serialized, prefixed by the XML version and standalone flag.
+     * Two documents having the same canonical form are equal as per {@link #compareXML(String, String)}, unless the
+     * control document contains XMLUnit placeholders.
+     * @param doc
+     * @return the canonical form, or null if the document has a DOCTYPE (which is not serialized)
+     * @throws TransformerException
+     */
+    public static String canonicalizeXML(Document doc) throws TransformerException {
+        if (doc.getDoctype() != null) {
+            return null;
+        }
+        Transformer transformer = getTransformer();
+        transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+        StringWriter writer = new StringWriter();
+        transformer.transform(new DOMSource(Nodes.normalizeWhitespace(doc)), new StreamResult(writer));
+        return doc.getXmlVersion() + " " + doc.getXmlStandalone() + " " + writer.toString();
     }
 
     /**
@@ -151,28 +299,33 @@ public final class XMLUtils {
      * @return differences found, in a format for print
      */
     public static String compareXML(String control, String test, boolean namespaceAware) {
-        Object controlObject = control;
-        Object testObject = test;
-
-        //  by default XMLUnit parses control and test XML string with namespace aware, and below code can not alter this behavior
-        //      DocumentBuilderFactory factory = ...;
-        //      factory.setNamespaceAware(false);
-        //      DiffBuilder.withDocumentBuilderFactory(factory);
-        if (!namespaceAware) {
-            try {
-                controlObject = xmlStringToDOM(control);
-                testObject = xmlStringToDOM(test);
-            } catch (Exception e) {
-                throw new RuntimeException(e.getCause().getMessage(), e);
-            }
+        //  parse with the hardened document builder here instead of letting XMLUnit parse the strings with its default
+        //  document builder factory (which is also always namespace aware)
+        Document controlDocument;
+        Document testDocument;
+        try {
+            controlDocument = xmlStringToDOM(control, namespaceAware);
+            testDocument = xmlStringToDOM(test, namespaceAware);
+        } catch (Exception e) {
+            throw new RuntimeException(e.getMessage(), e);
         }
 
+        return compareXML(controlDocument, testDocument);
+    }
+
+    /**
+     * Compare already parsed XML documents. The documents are not changed.
+     * @param control
+     * @param test
+     * @return differences found, in a format for print
+     */
+    public static String compareXML(Document control, Document test) {
         StringBuilder differencesSB = new StringBuilder();
         Diff diff;
         try {
             diff = DiffBuilder
-                    .compare(controlObject)
-                    .withTest(testObject)
+                    .compare(control)
+                    .withTest(test)
                     .normalizeWhitespace()
                     //  Use custom DifferenceEvaluator in combination with the default DifferenceEvaluator, to utilize
                     //  the default DifferenceEvaluator's feature which turns some DIFFERENT comparison results into
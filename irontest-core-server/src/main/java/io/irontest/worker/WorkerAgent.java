@@ -0,0 +1,159 @@
+package io.irontest.worker;
+
+import com.codahale.metrics.Counter;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.irontest.core.IronTestMetrics;
+import io.irontest.core.testcase.DataDrivenTestcaseRunner;
+import io.irontest.core.testcase.RegularTestcaseRunner;
+import io.irontest.core.testcase.TestcaseRunner;
+import io.irontest.db.TestcaseDAO;
+import io.irontest.db.TestcaseRunDAO;
+import io.irontest.db.UtilsDAO;
+import io.irontest.db.WorkItemDAO;
+import io.irontest.models.DataTableCell;
+import io.irontest.models.TestResult;
+import io.irontest.models.Testcase;
+import io.irontest.models.testrun.TestcaseRun;
+import io.irontest.models.testrun.WorkItem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loop of leasing a work item from the distributed run queue, running it with the regular test case runners, and
+ * writing the result back, until stopped.
+ * The lease is kept alive by heartbeat while the item is being run. If the worker crashes, the lease expires and the
+ * item is leased by another worker.
+ * The lease is checked (and renewed) right before the test case run is persisted, so that a worker which has lost the
+ * lease does not persist a duplicate run of the item.
+ */
+public class WorkerAgent implements Runnable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(WorkerAgent.class);
+
+    private final String workerId;
+    private final WorkItemDAO workItemDAO;
+    private final TestcaseDAO testcaseDAO;
+    private final UtilsDAO utilsDAO;
+    private final TestcaseRunDAO testcaseRunDAO;
+    private final WireMockServer wireMockServer;
+    private final ScheduledExecutorService heartbeatScheduler;
+    private final int leaseSeconds;
+    private final long pollIntervalMillis;
+    private final int maxAttempts;
+    private volatile boolean stopped;
+
+    public WorkerAgent(String workerId, WorkItemDAO workItemDAO, TestcaseDAO testcaseDAO, UtilsDAO utilsDAO,
+                       TestcaseRunDAO testcaseRunDAO, WireMockServer wireMockServer,
+                       ScheduledExecutorService heartbeatScheduler, int leaseSeconds, long pollIntervalMillis,
+                       int maxAttempts) {
+        this.workerId = workerId;
+        this.workItemDAO = workItemDAO;
+        this.testcaseDAO = testcaseDAO;
+        this.utilsDAO = utilsDAO;
+        this.testcaseRunDAO = testcaseRunDAO;
+        this.wireMockServer = wireMockServer;
+        this.heartbeatScheduler = heartbeatScheduler;
+        this.leaseSeconds = leaseSeconds;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Stop leasing new work items. The work item being run (if any) is finished first.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    @Override
+    public void run() {
+        LOGGER.info("Worker agent " + workerId + " started.");
+        while (!stopped) {
+            WorkItem workItem = null;
+            try {
+                workItem = workItemDAO.lease(workerId, leaseSeconds, maxAttempts);
+            } catch (Exception e) {
+                LOGGER.error("Failed to lease work item", e);
+            }
+
+            if (workItem == null) {
+                try {
+                    Thread.sleep(pollIntervalMillis);
+                } catch (InterruptedException e) {
+                    break;
+                }
+            } else {
+                runWorkItem(workItem);
+            }
+        }
+        LOGGER.info("Worker agent " + workerId + " stopped.");
+    }
+
+    private void runWorkItem(WorkItem workItem) {
+        //  heartbeat a few times within a lease period, so that a slow database round trip does not lose the lease
+        ScheduledFuture<?> heartbeat = heartbeatScheduler.scheduleAtFixedRate(() -> {
+            try {
+                if (!workItemDAO.heartbeat(workItem.getId(), workerId, leaseSeconds)) {
+                    LOGGER.warn("Lease of work item " + workItem.getId() + " has been lost.");
+                }
+            } catch (Exception e) {
+                LOGGER.error("Failed to heartbeat work item " + workItem.getId(), e);
+            }
+        }, 0, Math.max(1, leaseSeconds * 1000L / 3), TimeUnit.MILLISECONDS);
+
+        Long testcaseRunId = null;
+        TestResult result;
+        String errorMessage = null;
+        try {
+            TestcaseRun testcaseRun = runTestcase(workItem);
+            testcaseRunId = testcaseRun.getId();
+            result = testcaseRun.getResult();
+        } catch (Exception e) {
+            LOGGER.error("Failed to run work item " + workItem.getId(), e);
+            result = TestResult.FAILED;
+            errorMessage = e.getMessage() == null ? e.toString() : e.getMessage();
+        } finally {
+            heartbeat.cancel(false);
+        }
+
+        if (!workItemDAO.finish(workItem.getId(), workerId, testcaseRunId, result.toString(), errorMessage)) {
+            LOGGER.warn("Lease of work item " + workItem.getId() + " has been lost. Result is not written back.");
+        }
+    }
+
+    private TestcaseRun runTestcase(WorkItem workItem) throws IOException {
+        Testcase testcase = testcaseDAO.findById_Complete(workItem.getTestcaseId());
+
+        //  only run the data table row of the work item
+        if (workItem.getDataTableRowIndex() != null) {
+            List<LinkedHashMap<String, DataTableCell>> rows = testcase.getDataTable().getRows();
+            int rowIndex = workItem.getDataTableRowIndex();
+            if (rowIndex >= rows.size()) {
+                throw new RuntimeException("Data table row " + (rowIndex + 1) + " no longer exists.");
+            }
+            testcase.getDataTable().setRows(Collections.singletonList(rows.get(rowIndex)));
+        }
+
+        TestcaseRunner testcaseRunner;
+        if (testcase.getDataTable().getRows().isEmpty()) {
+            testcaseRunner = new RegularTestcaseRunner(testcase, utilsDAO, testcaseRunDAO, wireMockServer);
+        } else {
+            testcaseRunner = new DataDrivenTestcaseRunner(testcase, utilsDAO, testcaseRunDAO, wireMockServer);
+        }
+        testcaseRunner.setPersistingCheck(() -> workItemDAO.heartbeat(workItem.getId(), workerId, leaseSeconds));
+        Counter activeRuns = IronTestMetrics.counter(TestcaseRunner.class, "activeRuns");
+        activeRuns.inc();
+        try {
+            return testcaseRunner.run();
+        } finally {
+            activeRuns.dec();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package io.irontest.worker;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.dropwizard.cli.ConfiguredCommand;
+import io.dropwizard.jdbi3.JdbiFactory;
+import io.dropwizard.setup.Bootstrap;
+import io.dropwizard.setup.Environment;
+import io.irontest.IronTestApplication;
+import io.irontest.IronTestConfiguration;
+import io.irontest.Version;
+import io.irontest.core.IronTestMetrics;
+import io.irontest.db.*;
+import io.irontest.utils.IronTestUtils;
+import net.sourceforge.argparse4j.inf.Namespace;
+import net.sourceforge.argparse4j.inf.Subparser;
+import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+import org.jdbi.v3.core.Jdbi;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Run Iron Test as a worker agent, which pulls work items queued by distributed runs from the system database and
+ * runs them in this JVM.
+ * The systemDatabase in the worker's config.yml must point to the system database of the coordinating Iron Test
+ * instance (e.g. over H2 TCP server), and the wireMock port must be free on the worker host.
+ */
+public class WorkerCommand extends ConfiguredCommand<IronTestConfiguration> {
+    public WorkerCommand() {
+        super("worker", "Run Iron Test as a worker agent of distributed runs");
+    }
+
+    @Override
+    public void configure(Subparser subparser) {
+        super.configure(subparser);
+        subparser.addArgument("--threads")
+                .dest("threads")
+                .type(Integer.class)
+                .setDefault(1)
+                .help("Number of work items run in parallel");
+        subparser.addArgument("--leaseSeconds")
+                .dest("leaseSeconds")
+                .type(Integer.class)
+                .setDefault(60)
+                .help("Seconds after the last heartbeat, for a leased work item to be leasable by other workers");
+        subparser.addArgument("--pollIntervalMillis")
+                .dest("pollIntervalMillis")
+                .type(Long.class)
+                .setDefault(2000L)
+                .help("Milliseconds to wait before polling again when there is no work item");
+        subparser.addArgument("--maxAttempts")
+                .dest("maxAttempts")
+                .type(Integer.class)
+                .setDefault(3)
+                .help("Max times a work item is leased, before it is abandoned");
+    }
+
+    @Override
+    protected void run(Bootstrap<IronTestConfiguration> bootstrap, Namespace namespace,
+                       IronTestConfiguration configuration) throws Exception {
+        Environment environment = new Environment(bootstrap.getApplication().getName(), bootstrap.getObjectMapper(),
+                bootstrap.getValidatorFactory().getValidator(), bootstrap.getMetricRegistry(),
+                bootstrap.getClassLoader(), bootstrap.getHealthCheckRegistry());
+        IronTestMetrics.setRegistry(environment.metrics());
+
+        final JdbiFactory jdbiFactory = new JdbiFactory();
+        final Jdbi systemDBJdbi = jdbiFactory.build(environment, configuration.getSystemDatabase(), "systemDatabase");
+        systemDBJdbi.registerArgument(new PropertiesArgumentFactory());
+
+        DefaultArtifactVersion systemDBVersion = IronTestUtils.getSystemDBVersion(systemDBJdbi);
+        DefaultArtifactVersion jarFileVersion = new DefaultArtifactVersion(Version.VERSION);
+        if (systemDBVersion.compareTo(jarFileVersion) != 0) {
+            System.out.printf("System database version %1$s is different from jar file version %2$s. " +
+                    "Worker agent not started.%n", systemDBVersion, jarFileVersion);
+            return;
+        }
+
+        IronTestApplication.setSSLTrustStore(configuration);
+        WireMockServer wireMockServer = IronTestApplication.startWireMockServer(configuration, environment);
+
+        final WorkItemDAO workItemDAO = systemDBJdbi.onDemand(WorkItemDAO.class);
+        final TestcaseDAO testcaseDAO = systemDBJdbi.onDemand(TestcaseDAO.class);
+        final UtilsDAO utilsDAO = systemDBJdbi.onDemand(UtilsDAO.class);
+        final TestcaseRunDAO testcaseRunDAO = systemDBJdbi.onDemand(TestcaseRunDAO.class);
+
+        int threads = namespace.getInt("threads");
+        ExecutorService workers = Executors.newFixedThreadPool(threads,
+                new ThreadFactoryBuilder().setNameFormat("worker-agent-%d").build());
+        ScheduledExecutorService heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("worker-agent-heartbeat-%d").setDaemon(true).build());
+        String workerIdPrefix = ManagementFactory.getRuntimeMXBean().getName();     //  like pid@hostname
+        List<WorkerAgent> agents = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            WorkerAgent agent = new WorkerAgent(workerIdPrefix + "#" + i, workItemDAO, testcaseDAO, utilsDAO,
+                    testcaseRunDAO, wireMockServer, heartbeatScheduler, namespace.getInt("leaseSeconds"),
+                    namespace.getLong("pollIntervalMillis"), namespace.getInt("maxAttempts"));
+            agents.add(agent);
+            workers.submit(agent);
+        }
+        workers.shutdown();
+
+        //  on Ctrl+C, finish the work items being run before exiting
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            for (WorkerAgent agent: agents) {
+                agent.stop();
+            }
+            try {
+                workers.awaitTermination(namespace.getInt("leaseSeconds"), TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            wireMockServer.stop();
+        }));
+
+        workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+}
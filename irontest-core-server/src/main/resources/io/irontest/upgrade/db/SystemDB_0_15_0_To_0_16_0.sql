@@ -0,0 +1,4 @@
+ALTER TABLE HTTPSTUBMAPPING ADD RESPONSE_TEMPLATING_ENABLED BOOLEAN NOT NULL DEFAULT FALSE;
+UPDATE HTTPSTUBMAPPING SET RESPONSE_TEMPLATING_ENABLED = TRUE WHERE SPEC_JSON LIKE '%{{%';
+ALTER TABLE FOLDER ADD PATH CLOB;
+ALTER TABLE FOLDER ADD ID_PATH VARCHAR(2000);
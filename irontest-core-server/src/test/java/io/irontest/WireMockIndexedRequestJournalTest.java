@@ -0,0 +1,131 @@
+package io.irontest;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.common.Metadata;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static io.irontest.IronTestConstants.HTTP_HEADER_NAME_IRON_TEST_RUN_ID;
+import static io.irontest.IronTestConstants.WIREMOCK_STUB_METADATA_ATTR_NAME_IRON_TEST_RUN_ID;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Requests are sent to a real mock server, so that serve events are recorded the way WireMock records them.
+ */
+public class WireMockIndexedRequestJournalTest {
+    private WireMockServer wireMockServer;
+    private WireMockIndexedRequestJournal requestJournal;
+
+    @BeforeEach
+    void startWireMockServer() {
+        WireMockConfiguration wireMockOptions = options().dynamicPort();
+        wireMockServer = new WireMockServer(wireMockOptions);
+        requestJournal = WireMockIndexedRequestJournal.install(wireMockServer, 3);
+        WireMockIndexedStubMappings.install(wireMockServer, wireMockOptions);
+        wireMockServer.start();
+    }
+
+    @AfterEach
+    void stopWireMockServer() {
+        wireMockServer.stop();
+    }
+
+    private StubMapping stubForRun(String url, String runId) {
+        Metadata metadata = Metadata.metadata().attr(WIREMOCK_STUB_METADATA_ATTR_NAME_IRON_TEST_RUN_ID, runId).build();
+        return wireMockServer.stubFor(get(urlPathEqualTo(url)).willReturn(ok()).withMetadata(metadata));
+    }
+
+    private void send(String url, String runId) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(wireMockServer.baseUrl() + url).openConnection();
+        if (runId != null) {
+            connection.setRequestProperty(HTTP_HEADER_NAME_IRON_TEST_RUN_ID, runId);
+        }
+        InputStream body = connection.getResponseCode() < 400 ? connection.getInputStream() :
+                connection.getErrorStream();
+        if (body != null) {
+            body.close();
+        }
+    }
+
+    @Test
+    void install_ServeEventFoundAsSoonAsResponseReceived() throws IOException {
+        StubMapping stubInstance = wireMockServer.stubFor(get(urlPathEqualTo("/a")).willReturn(ok()));
+        for (int i = 0; i < 20; i++) {
+            send("/a", null);
+            assertEquals(Math.min(i + 1, 3), requestJournal.findByStubInstanceId(stubInstance.getId()).size());
+        }
+        send("/b", null);
+        assertEquals(1, requestJournal.findUnmatched().size());
+    }
+
+    @Test
+    void install_AdminAPIUsesThisJournal() throws IOException {
+        wireMockServer.stubFor(get(urlPathEqualTo("/a")).willReturn(ok()));
+        send("/a", null);
+        send("/b", null);
+        List<ServeEvent> serveEvents = wireMockServer.getAllServeEvents();
+        assertEquals(requestJournal.getAllServeEvents(), serveEvents);
+        assertEquals("/b", serveEvents.get(0).getRequest().getUrl());
+        assertEquals(1, wireMockServer.findAll(getRequestedFor(urlPathEqualTo("/a"))).size());
+        assertSame(requestJournal, WireMockIndexedRequestJournal.of(wireMockServer));
+
+        wireMockServer.resetRequests();
+        assertEquals(0, requestJournal.size());
+    }
+
+    @Test
+    void requestReceived_RunPartitionsDoNotEvictEachOther() throws IOException {
+        requestJournal.openRun("1");
+        requestJournal.openRun("2");
+        StubMapping stubInstance1 = stubForRun("/1", "1");
+        StubMapping stubInstance2 = stubForRun("/2", "2");
+        send("/2", null);
+        for (int i = 0; i < 10; i++) {
+            send("/1", null);
+            send("/x", "1");
+        }
+        send("/y", null);
+        //  run 1 keeps its latest 3 serve events: /x, /1, /x
+        assertEquals(1, requestJournal.findByStubInstanceId(stubInstance1.getId()).size());
+        assertEquals(1, requestJournal.findByStubInstanceId(stubInstance2.getId()).size());
+        List<ServeEvent> unmatchedServeEvents = requestJournal.findUnmatched();
+        assertEquals(3, unmatchedServeEvents.size());
+        assertEquals("/y", unmatchedServeEvents.get(0).getRequest().getUrl());
+    }
+
+    @Test
+    void closeRun_DropsServeEventsOfRun() throws IOException {
+        requestJournal.openRun("1");
+        StubMapping stubInstance = stubForRun("/1", "1");
+        send("/1", null);
+        send("/x", "1");
+        send("/y", null);
+        assertEquals(3, requestJournal.size());
+
+        requestJournal.closeRun("1");
+        assertEquals(1, requestJournal.size());
+        assertTrue(requestJournal.findByStubInstanceId(stubInstance.getId()).isEmpty());
+        assertEquals("/y", requestJournal.findUnmatched().get(0).getRequest().getUrl());
+    }
+
+    @Test
+    void requestReceived_NotOpenRunGoesToSharedPartition() throws IOException {
+        StubMapping stubInstance = stubForRun("/1", "1");
+        for (int i = 0; i < 5; i++) {
+            send("/1", null);
+        }
+        assertEquals(3, requestJournal.findByStubInstanceId(stubInstance.getId()).size());
+    }
+}
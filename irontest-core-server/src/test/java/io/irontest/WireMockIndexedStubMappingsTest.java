@@ -0,0 +1,154 @@
+package io.irontest;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.common.SingleRootFileSource;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.HttpHeaders;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.stubbing.InMemoryStubMappings;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.github.tomakehurst.wiremock.stubbing.StubMappings;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The indexed stub mappings must match the same stub as WireMock's InMemoryStubMappings for every request.
+ */
+public class WireMockIndexedStubMappingsTest {
+    private static final String[] STUBS = {
+            stub("00000000-0000-0000-0000-000000000001", null, "\"method\": \"GET\", \"url\": \"/a/b?x=1\""),
+            stub("00000000-0000-0000-0000-000000000002", null, "\"method\": \"GET\", \"urlPath\": \"/a/b\""),
+            stub("00000000-0000-0000-0000-000000000003", null, "\"method\": \"ANY\", \"urlPattern\": \"/a/.*\""),
+            stub("00000000-0000-0000-0000-000000000004", null,
+                    "\"method\": \"POST\", \"urlPathPattern\": \"/a/c[0-9]+\""),
+            stub("00000000-0000-0000-0000-000000000005", null, "\"method\": \"DELETE\""),
+            stub("00000000-0000-0000-0000-000000000006", null, "\"method\": \"ANY\", \"urlPath\": \"/p\""),
+            stub("00000000-0000-0000-0000-000000000007", 2, "\"method\": \"GET\", \"urlPath\": \"/p\""),
+            stub("00000000-0000-0000-0000-000000000008", 2, "\"method\": \"GET\", \"urlPath\": \"/p\""),
+            stub("00000000-0000-0000-0000-000000000009", 1, "\"method\": \"GET\", \"url\": \"/p?q=1\""),
+            stub("00000000-0000-0000-0000-000000000010", null, "\"method\": \"GET\", \"urlPattern\": \"/(x|y)/z\""),
+            stub("00000000-0000-0000-0000-000000000011", null, "\"method\": \"GET\", \"urlPattern\": \"/ab?c.*\""),
+            stub("00000000-0000-0000-0000-000000000012", null,
+                    "\"method\": \"PUT\", \"urlPath\": \"/h\", \"headers\": {\"X-A\": {\"equalTo\": \"1\"}}")
+    };
+
+    private static final Request[] REQUESTS = {
+            request(RequestMethod.GET, "/a/b?x=1"), request(RequestMethod.GET, "/a/b"),
+            request(RequestMethod.GET, "/a/b?y=2"), request(RequestMethod.POST, "/a/b"),
+            request(RequestMethod.POST, "/a/c12"), request(RequestMethod.POST, "/a/cx"),
+            request(RequestMethod.PUT, "/a/z"), request(RequestMethod.GET, "/p"), request(RequestMethod.POST, "/p"),
+            request(RequestMethod.GET, "/p?q=1"), request(RequestMethod.GET, "/x/z"),
+            request(RequestMethod.GET, "/y/z"),
+            request(RequestMethod.GET, "/ac"), request(RequestMethod.GET, "/abc/d"), request(RequestMethod.GET, "/zzz"),
+            request(RequestMethod.DELETE, "/zzz"), request(RequestMethod.DELETE, "/a/b"),
+            request(RequestMethod.PUT, "/h"), request(RequestMethod.PUT, "/h", "X-A", "1")
+    };
+
+    private static String stub(String id, Integer priority, String requestPattern) {
+        return "{\"id\": \"" + id + "\"" + (priority == null ? "" : ", \"priority\": " + priority) +
+                ", \"request\": {" + requestPattern + "}, \"response\": {\"status\": 200, \"body\": \"" + id + "\"}}";
+    }
+
+    private static Request request(RequestMethod method, String url, String... headerNameAndValue) {
+        HttpHeaders headers = headerNameAndValue.length == 0 ?
+                new HttpHeaders() : new HttpHeaders(new HttpHeader(headerNameAndValue[0], headerNameAndValue[1]));
+        return new LoggedRequest(url, "http://localhost:8092" + url, method, "127.0.0.1", headers,
+                new HashMap<>(), false, new Date(), new byte[0], new ArrayList<>());
+    }
+
+    private static StubMappings loadStubs(StubMappings stubMappings) {
+        for (String stub: STUBS) {
+            stubMappings.addMapping(StubMapping.buildFrom(stub));
+        }
+        return stubMappings;
+    }
+
+    private static InMemoryStubMappings newInMemoryStubMappings() {
+        return (InMemoryStubMappings) loadStubs(new InMemoryStubMappings(
+                Collections.emptyMap(), Collections.emptyMap(), new SingleRootFileSource(".")));
+    }
+
+    private static WireMockIndexedStubMappings newIndexedStubMappings() {
+        return (WireMockIndexedStubMappings) loadStubs(new WireMockIndexedStubMappings(
+                Collections.emptyMap(), Collections.emptyMap(), new SingleRootFileSource(".")));
+    }
+
+    private static void assertSameMatches(StubMappings expected, StubMappings actual) {
+        for (Request request: REQUESTS) {
+            ServeEvent expectedServeEvent = expected.serveFor(request);
+            ServeEvent actualServeEvent = actual.serveFor(request);
+            String requestDescription = request.getMethod() + " " + request.getUrl();
+            assertEquals(expectedServeEvent.getStubMapping().getId(), actualServeEvent.getStubMapping().getId(),
+                    requestDescription);
+            assertEquals(expectedServeEvent.getResponseDefinition().getBody(),
+                    actualServeEvent.getResponseDefinition().getBody(), requestDescription);
+        }
+    }
+
+    @Test
+    void serveFor_SameMatchesAsInMemoryStubMappings() {
+        assertSameMatches(newInMemoryStubMappings(), newIndexedStubMappings());
+    }
+
+    @Test
+    void serveFor_PriorityTieMatchesLatestAdded() {
+        WireMockIndexedStubMappings stubMappings = newIndexedStubMappings();
+        assertEquals(UUID.fromString("00000000-0000-0000-0000-000000000008"),
+                stubMappings.serveFor(request(RequestMethod.GET, "/p")).getStubMapping().getId());
+        assertEquals(UUID.fromString("00000000-0000-0000-0000-000000000009"),
+                stubMappings.serveFor(request(RequestMethod.GET, "/p?q=1")).getStubMapping().getId());
+    }
+
+    @Test
+    void serveFor_SameMatchesAfterRemove() {
+        InMemoryStubMappings inMemoryStubMappings = newInMemoryStubMappings();
+        WireMockIndexedStubMappings indexedStubMappings = newIndexedStubMappings();
+        for (String id: new String[] {"00000000-0000-0000-0000-000000000002", "00000000-0000-0000-0000-000000000003",
+                "00000000-0000-0000-0000-000000000008"}) {
+            inMemoryStubMappings.removeMapping(inMemoryStubMappings.get(UUID.fromString(id)).get());
+            indexedStubMappings.removeMapping(indexedStubMappings.get(UUID.fromString(id)).get());
+        }
+        assertEquals(inMemoryStubMappings.getAll().size(), indexedStubMappings.getAll().size());
+        assertSameMatches(inMemoryStubMappings, indexedStubMappings);
+    }
+
+    @Test
+    void serveFor_SameMatchesAfterEdit() {
+        InMemoryStubMappings inMemoryStubMappings = newInMemoryStubMappings();
+        WireMockIndexedStubMappings indexedStubMappings = newIndexedStubMappings();
+        String[] editedStubs = {
+                //  from exact path to regex
+                stub("00000000-0000-0000-0000-000000000002", null, "\"method\": \"GET\", \"urlPattern\": \"/p.*\""),
+                //  from regex to exact path
+                stub("00000000-0000-0000-0000-000000000010", null, "\"method\": \"GET\", \"url\": \"/x/z\""),
+                //  priority change
+                stub("00000000-0000-0000-0000-000000000007", 1, "\"method\": \"GET\", \"urlPath\": \"/p\"")
+        };
+        for (String editedStub: editedStubs) {
+            inMemoryStubMappings.editMapping(StubMapping.buildFrom(editedStub));
+            indexedStubMappings.editMapping(StubMapping.buildFrom(editedStub));
+        }
+        assertSameMatches(inMemoryStubMappings, indexedStubMappings);
+    }
+
+    @Test
+    void install_ReplacesStubMappingsOfWireMockServer() {
+        WireMockConfiguration wireMockOptions = options().dynamicPort();
+        WireMockServer wireMockServer = new WireMockServer(wireMockOptions);
+        WireMockIndexedStubMappings indexedStubMappings =
+                WireMockIndexedStubMappings.install(wireMockServer, wireMockOptions);
+        wireMockServer.stubFor(get(urlPathEqualTo("/a")).willReturn(ok()));
+        assertEquals(1, indexedStubMappings.getAll().size());
+        assertTrue(wireMockServer.getStubMappings().containsAll(indexedStubMappings.getAll()));
+    }
+}
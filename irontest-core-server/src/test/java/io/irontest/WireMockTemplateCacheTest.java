@@ -0,0 +1,46 @@
+package io.irontest;
+
+import com.github.jknack.handlebars.Handlebars;
+import com.github.jknack.handlebars.Template;
+import com.github.jknack.handlebars.io.StringTemplateSource;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WireMockTemplateCacheTest {
+    private final WireMockTemplateCache templateCache = new WireMockTemplateCache(100);
+    private final Handlebars handlebars = new Handlebars().with(templateCache);
+
+    @Test
+    void get_CompiledOnce() throws Exception {
+        Template template = handlebars.compileInline("Hello {{name}}");
+        assertSame(template, handlebars.compileInline("Hello {{name}}"));
+        assertNotSame(template, handlebars.compileInline("Bye {{name}}"));
+    }
+
+    @Test
+    void get_KeyedByTemplateText() throws Exception {
+        Template template1 = templateCache.get(new StringTemplateSource("same-name", "Hello {{name}}"),
+                handlebars.getParserFactory().create(handlebars, "{{", "}}"));
+        Template template2 = templateCache.get(new StringTemplateSource("same-name", "Bye {{name}}"),
+                handlebars.getParserFactory().create(handlebars, "{{", "}}"));
+        assertNotSame(template1, template2);
+        assertEquals("Bye {{name}}", template2.text());
+    }
+
+    @Test
+    void evict_RecompiledOnNextGet() throws Exception {
+        Template template = handlebars.compileInline("Hello {{name}}");
+        Template otherTemplate = handlebars.compileInline("Bye {{name}}");
+        templateCache.evict(new StringTemplateSource("any-name", "Hello {{name}}"));
+        assertNotSame(template, handlebars.compileInline("Hello {{name}}"));
+        assertSame(otherTemplate, handlebars.compileInline("Bye {{name}}"));
+    }
+
+    @Test
+    void clear_RecompiledOnNextGet() throws Exception {
+        Template template = handlebars.compileInline("Hello {{name}}");
+        templateCache.clear();
+        assertNotSame(template, handlebars.compileInline("Hello {{name}}"));
+    }
+}
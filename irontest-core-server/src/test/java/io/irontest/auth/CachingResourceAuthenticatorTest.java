@@ -0,0 +1,67 @@
+package io.irontest.auth;
+
+import io.dropwizard.auth.basic.BasicCredentials;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachingResourceAuthenticatorTest {
+    private final Map<String, String> passwords = new HashMap<>();
+    private int underlyingCount;
+
+    private final CachingResourceAuthenticator authenticator = new CachingResourceAuthenticator(credentials -> {
+        underlyingCount++;
+        return credentials.getPassword().equals(passwords.get(credentials.getUsername())) ?
+                Optional.of(new SimplePrincipal(credentials.getUsername())) : Optional.empty();
+    }, 100, 3600);
+
+    @Test
+    void authenticate_SuccessCached() throws Exception {
+        passwords.put("user1", "password1");
+        Optional<SimplePrincipal> principal = authenticator.authenticate(new BasicCredentials("user1", "password1"));
+        assertEquals("user1", principal.get().getName());
+        assertSame(principal.get(), authenticator.authenticate(new BasicCredentials("user1", "password1")).get());
+        assertEquals(1, underlyingCount);
+    }
+
+    @Test
+    void authenticate_FailureNotCached() throws Exception {
+        passwords.put("user1", "password1");
+        assertFalse(authenticator.authenticate(new BasicCredentials("user1", "wrong")).isPresent());
+        assertFalse(authenticator.authenticate(new BasicCredentials("user1", "wrong")).isPresent());
+        assertEquals(2, underlyingCount);
+    }
+
+    @Test
+    void authenticate_CredentialsNotMixedUp() throws Exception {
+        passwords.put("user1", "password1");
+        passwords.put("user1password", "1");
+        authenticator.authenticate(new BasicCredentials("user1", "password1"));
+        assertFalse(authenticator.authenticate(new BasicCredentials("user1", "password2")).isPresent());
+        assertEquals("user1password",
+                authenticator.authenticate(new BasicCredentials("user1password", "1")).get().getName());
+        assertEquals(3, underlyingCount);
+    }
+
+    @Test
+    void invalidate_OldPasswordNoLongerAccepted() throws Exception {
+        passwords.put("user1", "password1");
+        passwords.put("user2", "password2");
+        authenticator.authenticate(new BasicCredentials("user1", "password1"));
+        authenticator.authenticate(new BasicCredentials("user2", "password2"));
+
+        passwords.put("user1", "newPassword1");
+        authenticator.invalidate("user1");
+        assertFalse(authenticator.authenticate(new BasicCredentials("user1", "password1")).isPresent());
+        assertTrue(authenticator.authenticate(new BasicCredentials("user1", "newPassword1")).isPresent());
+        assertEquals(4, underlyingCount);
+
+        //  other users' authentications are still cached
+        assertTrue(authenticator.authenticate(new BasicCredentials("user2", "password2")).isPresent());
+        assertEquals(4, underlyingCount);
+    }
+}
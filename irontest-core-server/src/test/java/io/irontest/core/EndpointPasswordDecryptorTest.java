@@ -0,0 +1,61 @@
+package io.irontest.core;
+
+import org.jdbi.v3.core.Jdbi;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static io.irontest.IronTestConstants.ENDPOINT_PASSWORD_ENCRYPTION_KEY;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Passwords are encrypted with the same H2 SQL as EndpointDAO uses for storing them.
+ */
+public class EndpointPasswordDecryptorTest {
+    private final Jdbi jdbi = Jdbi.create("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+
+    private String encrypt(String password) {
+        return jdbi.withHandle(handle -> handle.createQuery(
+                "select ENCRYPT('AES', '" + ENDPOINT_PASSWORD_ENCRYPTION_KEY + "', STRINGTOUTF8(:password))")
+                .bind("password", password)
+                .mapTo(String.class).findOnly());
+    }
+
+    private String decryptBySQL(String encryptedPassword) {
+        return jdbi.withHandle(handle -> handle.createQuery(
+                "select TRIM(CHAR(0) FROM UTF8TOSTRING(DECRYPT('AES', '" + ENDPOINT_PASSWORD_ENCRYPTION_KEY +
+                        "', :encryptedPassword)))")
+                .bind("encryptedPassword", encryptedPassword)
+                .mapTo(String.class).findOnly());
+    }
+
+    @Test
+    void decrypt_SameAsH2() {
+        String[] passwords = {"a", "password", "exactly16bytes!!", "longer than one cipher block of 16 bytes",
+                "pässwörd", "密码パスワード", "emoji 🔑 key", " spaces around "};
+        for (String password: passwords) {
+            String encryptedPassword = encrypt(password);
+            assertEquals(password, EndpointPasswordDecryptor.getInstance().decrypt(encryptedPassword));
+            assertEquals(decryptBySQL(encryptedPassword),
+                    EndpointPasswordDecryptor.getInstance().decrypt(encryptedPassword));
+        }
+    }
+
+    @Test
+    void decrypt_Null() {
+        assertNull(EndpointPasswordDecryptor.getInstance().decrypt(null));
+    }
+
+    @Test
+    void clearCache_EmptiesCache() {
+        EndpointPasswordDecryptor decryptor = EndpointPasswordDecryptor.getInstance();
+        String encryptedPassword = encrypt("password");
+        decryptor.decrypt(encryptedPassword);
+        assertTrue(decryptor.getCacheSize() > 0);
+
+        decryptor.clearCache();
+        assertEquals(0L, decryptor.getCacheSize());
+        assertEquals("password", decryptor.decrypt(encryptedPassword));
+        assertEquals(1L, decryptor.getCacheSize());
+    }
+}
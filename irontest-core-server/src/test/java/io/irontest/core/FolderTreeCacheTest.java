@@ -0,0 +1,96 @@
+package io.irontest.core;
+
+import io.irontest.db.FolderTreeNodeDAO;
+import io.irontest.models.FolderTreeNode;
+import io.irontest.models.FolderTreeNodeType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FolderTreeCacheTest {
+    private final List<FolderTreeNode> nodes = new ArrayList<>();
+    private int findAllCount;
+    private Runnable duringFindAll;
+
+    //  only findAll is used by the cache
+    private final FolderTreeNodeDAO folderTreeNodeDAO = (FolderTreeNodeDAO) Proxy.newProxyInstance(
+            FolderTreeNodeDAO.class.getClassLoader(), new Class[] {FolderTreeNodeDAO.class}, (proxy, method, args) -> {
+                if (!"findAll".equals(method.getName())) {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+                findAllCount++;
+                if (duringFindAll != null) {
+                    duringFindAll.run();
+                }
+                List<FolderTreeNode> result = new ArrayList<>();
+                for (FolderTreeNode node: nodes) {
+                    result.add(new FolderTreeNode(node.getIdPerType(), node.getParentFolderId(), node.getText(),
+                            node.getType()));
+                }
+                return result;
+            });
+
+    @BeforeEach
+    void createTree() {
+        FolderTreeCache.getInstance().invalidate();
+        nodes.add(new FolderTreeNode(1L, null, "Root", FolderTreeNodeType.FOLDER));
+        nodes.add(new FolderTreeNode(2L, 1L, "Folder A", FolderTreeNodeType.FOLDER));
+        nodes.add(new FolderTreeNode(3L, 1L, "Folder B", FolderTreeNodeType.FOLDER));
+        nodes.add(new FolderTreeNode(1L, 2L, "Test Case 1", FolderTreeNodeType.TESTCASE));
+        nodes.add(new FolderTreeNode(2L, 3L, "Test Case 2", FolderTreeNodeType.TESTCASE));
+    }
+
+    @Test
+    void getSnapshot_BuiltOnceUntilInvalidated() {
+        FolderTreeCache.Snapshot snapshot = FolderTreeCache.getInstance().getSnapshot(folderTreeNodeDAO);
+        assertSame(snapshot, FolderTreeCache.getInstance().getSnapshot(folderTreeNodeDAO));
+        assertEquals(1, findAllCount);
+
+        nodes.add(new FolderTreeNode(3L, 2L, "Test Case 3", FolderTreeNodeType.TESTCASE));
+        FolderTreeCache.getInstance().invalidate();
+        FolderTreeCache.Snapshot rebuiltSnapshot = FolderTreeCache.getInstance().getSnapshot(folderTreeNodeDAO);
+        assertNotSame(snapshot, rebuiltSnapshot);
+        assertEquals(2, findAllCount);
+        assertEquals(6, rebuiltSnapshot.getAllNodes().size());
+    }
+
+    @Test
+    void getSnapshot_NotCachedWhenInvalidatedDuringBuild() {
+        duringFindAll = () -> FolderTreeCache.getInstance().invalidate();
+        FolderTreeCache.getInstance().getSnapshot(folderTreeNodeDAO);
+        duringFindAll = null;
+        FolderTreeCache.getInstance().getSnapshot(folderTreeNodeDAO);
+        assertEquals(2, findAllCount);
+        FolderTreeCache.getInstance().getSnapshot(folderTreeNodeDAO);
+        assertEquals(2, findAllCount);
+    }
+
+    @Test
+    void getSubtreeHash_ChangesOnlyForChangedSubtree() {
+        FolderTreeCache.Snapshot snapshot = FolderTreeCache.getInstance().getSnapshot(folderTreeNodeDAO);
+
+        nodes.set(3, new FolderTreeNode(1L, 2L, "Test Case 1 Renamed", FolderTreeNodeType.TESTCASE));
+        FolderTreeCache.getInstance().invalidate();
+        FolderTreeCache.Snapshot rebuiltSnapshot = FolderTreeCache.getInstance().getSnapshot(folderTreeNodeDAO);
+
+        assertNotEquals(snapshot.getSubtreeHash(1L), rebuiltSnapshot.getSubtreeHash(1L));
+        assertNotEquals(snapshot.getSubtreeHash(2L), rebuiltSnapshot.getSubtreeHash(2L));
+        assertEquals(snapshot.getSubtreeHash(3L), rebuiltSnapshot.getSubtreeHash(3L));
+    }
+
+    @Test
+    void getSubtreeHash_IndependentOfLoadOrder() {
+        FolderTreeCache.Snapshot snapshot = FolderTreeCache.getInstance().getSnapshot(folderTreeNodeDAO);
+
+        nodes.add(1, nodes.remove(2));
+        FolderTreeCache.getInstance().invalidate();
+        FolderTreeCache.Snapshot rebuiltSnapshot = FolderTreeCache.getInstance().getSnapshot(folderTreeNodeDAO);
+
+        assertEquals(snapshot.getSubtreeHash(1L), rebuiltSnapshot.getSubtreeHash(1L));
+    }
+}
@@ -0,0 +1,88 @@
+package io.irontest.core;
+
+import com.predic8.wsdl.Definitions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WSDLCacheTest {
+    private File wsdlFile;
+    private String wsdlUrl;
+
+    private void writeWSDL(String requestElementName) throws Exception {
+        String wsdl = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" +
+                "<definitions xmlns=\"http://schemas.xmlsoap.org/wsdl/\" " +
+                "xmlns:soap=\"http://schemas.xmlsoap.org/wsdl/soap/\" xmlns:xsd=\"http://www.w3.org/2001/XMLSchema\" " +
+                "xmlns:tns=\"http://irontest.io/test\" targetNamespace=\"http://irontest.io/test\">" +
+                "<types><xsd:schema targetNamespace=\"http://irontest.io/test\" elementFormDefault=\"qualified\">" +
+                "<xsd:element name=\"" + requestElementName + "\"><xsd:complexType><xsd:sequence>" +
+                "<xsd:element name=\"value\" type=\"xsd:string\"/></xsd:sequence></xsd:complexType></xsd:element>" +
+                "</xsd:schema></types>" +
+                "<message name=\"EchoRequest\"><part name=\"parameters\" element=\"tns:" + requestElementName + "\"/>" +
+                "</message>" +
+                "<portType name=\"EchoPortType\"><operation name=\"echo\"><input message=\"tns:EchoRequest\"/>" +
+                "</operation></portType>" +
+                "<binding name=\"EchoBinding\" type=\"tns:EchoPortType\">" +
+                "<soap:binding style=\"document\" transport=\"http://schemas.xmlsoap.org/soap/http\"/>" +
+                "<operation name=\"echo\"><soap:operation soapAction=\"echo\"/><input><soap:body use=\"literal\"/>" +
+                "</input></operation></binding>" +
+                "<service name=\"EchoService\"><port name=\"EchoPort\" binding=\"tns:EchoBinding\">" +
+                "<soap:address location=\"http://localhost:8080/echo\"/></port></service>" +
+                "</definitions>";
+        Files.write(wsdlFile.toPath(), wsdl.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @BeforeEach
+    void createWSDL() throws Exception {
+        wsdlFile = File.createTempFile("irontest", ".wsdl");
+        wsdlFile.deleteOnExit();
+        wsdlUrl = wsdlFile.toURI().toString();
+        writeWSDL("echoRequest");
+    }
+
+    @Test
+    void getDefinitions_CachedUntilRefreshed() throws Exception {
+        Definitions definitions = WSDLCache.getInstance().getDefinitions(wsdlUrl);
+        assertSame(definitions, WSDLCache.getInstance().getDefinitions(wsdlUrl));
+
+        writeWSDL("changedEchoRequest");
+        assertSame(definitions, WSDLCache.getInstance().getDefinitions(wsdlUrl));
+
+        WSDLCache.getInstance().refresh(wsdlUrl);
+        Definitions refreshedDefinitions = WSDLCache.getInstance().getDefinitions(wsdlUrl);
+        assertNotSame(definitions, refreshedDefinitions);
+        assertNotNull(refreshedDefinitions.getElement("tns:changedEchoRequest"));
+    }
+
+    @Test
+    void getSampleRequest_CachedUntilRefreshed() throws Exception {
+        String sampleRequest = WSDLCache.getInstance().getSampleRequest(wsdlUrl, "EchoBinding", "echo");
+        assertTrue(sampleRequest.contains("echoRequest"));
+
+        writeWSDL("changedEchoRequest");
+        assertEquals(sampleRequest, WSDLCache.getInstance().getSampleRequest(wsdlUrl, "EchoBinding", "echo"));
+
+        WSDLCache.getInstance().refresh(wsdlUrl);
+        assertTrue(WSDLCache.getInstance().getSampleRequest(wsdlUrl, "EchoBinding", "echo")
+                .contains("changedEchoRequest"));
+    }
+
+    @Test
+    void refresh_OnlyTheWSDL() throws Exception {
+        File otherWSDLFile = File.createTempFile("irontest", ".wsdl");
+        otherWSDLFile.deleteOnExit();
+        Files.copy(wsdlFile.toPath(), otherWSDLFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        String otherWSDLUrl = otherWSDLFile.toURI().toString();
+        Definitions otherDefinitions = WSDLCache.getInstance().getDefinitions(otherWSDLUrl);
+        WSDLCache.getInstance().getDefinitions(wsdlUrl);
+
+        WSDLCache.getInstance().refresh(wsdlUrl);
+        assertSame(otherDefinitions, WSDLCache.getInstance().getDefinitions(otherWSDLUrl));
+    }
+}
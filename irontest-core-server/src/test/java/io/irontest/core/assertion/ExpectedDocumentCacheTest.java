@@ -0,0 +1,60 @@
+package io.irontest.core.assertion;
+
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExpectedDocumentCacheTest {
+    @Test
+    void getXML_ParsedOnce() {
+        String expectedXML = "<a><b>" + ExpectedDocumentCacheTest.class.getName() + "</b></a>";
+        assertSame(ExpectedDocumentCache.getInstance().getXML(expectedXML),
+                ExpectedDocumentCache.getInstance().getXML(expectedXML));
+    }
+
+    @Test
+    void copyDocument_NewCopyPerCall() {
+        ExpectedDocumentCache.ExpectedXML expectedXML = ExpectedDocumentCache.getInstance().getXML("<a><b>1</b></a>");
+        Document document = expectedXML.copyDocument();
+        Document otherDocument = expectedXML.copyDocument();
+        assertNotSame(document, otherDocument);
+        assertTrue(document.isEqualNode(otherDocument));
+
+        //  changing a copy does not change the cached document
+        document.getDocumentElement().setAttribute("c", "2");
+        assertFalse(document.isEqualNode(expectedXML.copyDocument()));
+        assertTrue(otherDocument.isEqualNode(expectedXML.copyDocument()));
+    }
+
+    @Test
+    void getXML_MalformedNotCached() {
+        RuntimeException e1 = assertThrows(RuntimeException.class,
+                () -> ExpectedDocumentCache.getInstance().getXML("<a>"));
+        RuntimeException e2 = assertThrows(RuntimeException.class,
+                () -> ExpectedDocumentCache.getInstance().getXML("<a>"));
+        assertNotSame(e1, e2);
+        assertEquals(e1.getMessage(), e2.getMessage());
+    }
+
+    @Test
+    void getJSON_ParsedOnce() {
+        String expectedJSON = "{\"a\":\"" + ExpectedDocumentCacheTest.class.getName() + "\"}";
+        assertSame(ExpectedDocumentCache.getInstance().getJSON(expectedJSON),
+                ExpectedDocumentCache.getInstance().getJSON(expectedJSON));
+        assertNotSame(ExpectedDocumentCache.getInstance().getJSON(expectedJSON),
+                ExpectedDocumentCache.getInstance().getJSON("{\"a\":1}"));
+    }
+
+    @Test
+    void canonicalizeJSON_ExactValues() {
+        assertNull(ExpectedDocumentCache.canonicalizeJSON("{bad"));
+        assertNull(ExpectedDocumentCache.canonicalizeJSON("{\"a\":1,\"a\":2}"));
+        assertEquals(ExpectedDocumentCache.canonicalizeJSON("{\"a\":1.5}"),
+                ExpectedDocumentCache.canonicalizeJSON("{\"a\":1.50}"));
+        assertNotEquals(ExpectedDocumentCache.canonicalizeJSON("{\"a\":0.1000000000000000001}"),
+                ExpectedDocumentCache.canonicalizeJSON("{\"a\":0.1}"));
+        assertEquals(ExpectedDocumentCache.canonicalizeJSON("{\"a\":1,\"b\":2}"),
+                ExpectedDocumentCache.canonicalizeJSON("{ \"b\" : 2, \"a\" : 1 }"));
+    }
+}
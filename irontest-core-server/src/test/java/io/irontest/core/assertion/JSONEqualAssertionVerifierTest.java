@@ -0,0 +1,80 @@
+package io.irontest.core.assertion;
+
+import io.irontest.models.TestResult;
+import io.irontest.models.assertion.Assertion;
+import io.irontest.models.assertion.JSONEqualAssertionProperties;
+import io.irontest.models.assertion.MessageEqualAssertionVerificationResult;
+import org.junit.jupiter.api.Test;
+
+import static net.javacrumbs.jsonunit.JsonAssert.assertJsonEquals;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The verifier (canonical tree short-circuit, then JsonUnit diff against the cached expected JSON) must give the same
+ * result and differences as JsonUnit's public JsonAssert.assertJsonEquals it replaced.
+ */
+public class JSONEqualAssertionVerifierTest {
+    private static final String[][] EXPECTED_AND_ACTUAL_JSONS = {
+            {"{\"a\":1,\"b\":[1,2]}", "{\"b\":[1,2],\"a\":1}"},
+            {"{\"a\":1,\"b\":[1,2]}", "{ \"b\" : [ 2, 1 ], \"a\" : 1 }"},
+            {"{\"a\":1.5}", "{\"a\":1.50}"},
+            {"{\"a\":1}", "{\"a\":1.0}"},
+            {"{\"a\":0.1000000000000000001}", "{\"a\":0.1}"},
+            {"{\"a\":\"x\"}", "{\"a\":\"y\",\"b\":null}"},
+            {"[1,{\"x\":null}]", "[1,{\"x\":null}]"},
+            //  placeholders
+            {"{\"a\":\"${json-unit.ignore}\"}", "{\"a\":5}"},
+            {"{\"a\":\"${json-unit.any-number}\"}", "{\"a\":\"5\"}"},
+            {"{\"a\":\"${json-unit.any-number}\"}", "{\"a\":\"${json-unit.any-number}\"}"},
+            //  duplicate keys (not matched by canonical tree)
+            {"{\"a\":1,\"a\":2}", "{\"a\":2}"}
+    };
+
+    private static String assertJsonEqualsDifferences(String expectedJSON, String actualJSON) {
+        try {
+            assertJsonEquals(expectedJSON, actualJSON);
+            return null;
+        } catch (AssertionError e) {
+            return e.getMessage();
+        }
+    }
+
+    private static MessageEqualAssertionVerificationResult verify(String expectedJSON, String actualJSON) {
+        JSONEqualAssertionProperties properties = new JSONEqualAssertionProperties();
+        properties.setExpectedJSON(expectedJSON);
+        Assertion assertion = new Assertion();
+        assertion.setOtherProperties(properties);
+        JSONEqualAssertionVerifier verifier = new JSONEqualAssertionVerifier();
+        verifier.setAssertion(assertion);
+        return (MessageEqualAssertionVerificationResult) verifier.verify(actualJSON);
+    }
+
+    @Test
+    void verify_SameAsAssertJsonEquals() {
+        for (String[] expectedAndActualJSON: EXPECTED_AND_ACTUAL_JSONS) {
+            String expectedDifferences = assertJsonEqualsDifferences(expectedAndActualJSON[0],
+                    expectedAndActualJSON[1]);
+            String description = expectedAndActualJSON[0] + " vs " + expectedAndActualJSON[1];
+            //  run twice, so that the second run uses the cached expected JSON
+            for (int i = 0; i < 2; i++) {
+                MessageEqualAssertionVerificationResult result =
+                        verify(expectedAndActualJSON[0], expectedAndActualJSON[1]);
+                assertEquals(expectedDifferences == null ? TestResult.PASSED : TestResult.FAILED, result.getResult(),
+                        description);
+                assertEquals(expectedDifferences, result.getDifferences(), description);
+            }
+
+            //  the full diff alone, without canonical tree short-circuit
+            Object parsedJSON = ExpectedDocumentCache.getInstance().getJSON(expectedAndActualJSON[0]).getParsedJSON();
+            assertEquals(expectedDifferences, JsonUnitInternals.compare(parsedJSON, expectedAndActualJSON[1]),
+                    description);
+        }
+    }
+
+    @Test
+    void verify_MalformedJSON() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> verify("{bad", "{}"));
+        assertNotNull(e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> verify("{}", "{bad"));
+    }
+}
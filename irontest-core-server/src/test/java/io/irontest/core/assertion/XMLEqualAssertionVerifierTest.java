@@ -0,0 +1,154 @@
+package io.irontest.core.assertion;
+
+import io.irontest.models.TestResult;
+import io.irontest.models.assertion.Assertion;
+import io.irontest.models.assertion.MessageEqualAssertionVerificationResult;
+import io.irontest.models.assertion.XMLEqualAssertionProperties;
+import io.irontest.utils.XMLUtils;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.xmlunit.builder.DiffBuilder;
+import org.xmlunit.diff.ComparisonResult;
+import org.xmlunit.diff.Diff;
+import org.xmlunit.diff.Difference;
+import org.xmlunit.diff.DifferenceEvaluators;
+import org.xmlunit.placeholder.PlaceholderDifferenceEvaluator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The verifier (canonical form short-circuit, then diff of the cached expected document) must give the same result
+ * and differences as the string based diff it replaced.
+ */
+public class XMLEqualAssertionVerifierTest {
+    private static final String[][] EXPECTED_AND_ACTUAL_XMLS = {
+            //  whitespace normalization
+            {"<a><b>1</b></a>", "<a>\n  <b>1</b>\n</a>"},
+            {"<a><b> 1 </b></a>", "<a><b>1</b></a>"},
+            {"<a><b>1</b></a>", "<a><b>2</b></a>"},
+            //  namespace prefixes
+            {"<x:a xmlns:x=\"u\"><b c=\"1\" d=\"2\"/></x:a>", "<y:a xmlns:y=\"u\"><b d=\"2\" c=\"1\"/></y:a>"},
+            {"<x:a xmlns:x=\"u\"/>", "<x:a xmlns:x=\"v\"/>"},
+            {"<a xmlns=\"u\"><b/></a>", "<p:a xmlns:p=\"u\"><p:b/></p:a>"},
+            //  placeholders
+            {"<a><b>#{xmlunit.ignore}</b></a>", "<a><b>zzz</b></a>"},
+            {"<a><b>#{xmlunit.isNumber}</b></a>", "<a><b>12</b></a>"},
+            {"<a><b>#{xmlunit.isNumber}</b></a>", "<a><b>x</b></a>"},
+            {"<a><b>#{xmlunit.isNumber}</b></a>", "<a><b>#{xmlunit.isNumber}</b></a>"},
+            //  others
+            {"<a><!--c--><b/></a>", "<a><b/></a>"},
+            {"<a/>", "<a><b/></a>"},
+            {"<?xml version=\"1.0\" standalone=\"yes\"?><a/>", "<?xml version=\"1.0\"?><a/>"},
+            {"<a>x &amp; y</a>", "<a><![CDATA[x & y]]></a>"}
+    };
+
+    /**
+     * The comparison used before expected documents were cached, with XMLUnit parsing both strings.
+     */
+    private static String compareXMLStrings(String control, String test) {
+        Diff diff = DiffBuilder.compare(control).withTest(test).normalizeWhitespace()
+                .withDifferenceEvaluator(DifferenceEvaluators.chain(
+                        DifferenceEvaluators.Default, new PlaceholderDifferenceEvaluator("#\\{", null)))
+                .build();
+        StringBuilder differencesSB = new StringBuilder();
+        for (Difference difference: diff.getDifferences()) {
+            if (difference.getResult() == ComparisonResult.DIFFERENT) {
+                if (differencesSB.length() > 0) {
+                    differencesSB.append("\n");
+                }
+                differencesSB.append(difference.getComparison().toString());
+            }
+        }
+        return differencesSB.toString();
+    }
+
+    private static MessageEqualAssertionVerificationResult verify(String expectedXML, String actualXML)
+            throws Exception {
+        XMLEqualAssertionProperties properties = new XMLEqualAssertionProperties();
+        properties.setExpectedXML(expectedXML);
+        Assertion assertion = new Assertion();
+        assertion.setOtherProperties(properties);
+        XMLEqualAssertionVerifier verifier = new XMLEqualAssertionVerifier();
+        verifier.setAssertion(assertion);
+        return (MessageEqualAssertionVerificationResult) verifier.verify(actualXML);
+    }
+
+    private static void assertSameAsStringComparison(String expectedXML, String actualXML) throws Exception {
+        String expectedDifferences = compareXMLStrings(expectedXML, actualXML);
+        String description = expectedXML + " vs " + actualXML;
+
+        //  run twice, so that the second run uses the cached expected document
+        for (int i = 0; i < 2; i++) {
+            MessageEqualAssertionVerificationResult result = verify(expectedXML, actualXML);
+            assertEquals(expectedDifferences.isEmpty() ? TestResult.PASSED : TestResult.FAILED, result.getResult(),
+                    description);
+            assertEquals(expectedDifferences.isEmpty() ? null : expectedDifferences, result.getDifferences(),
+                    description);
+        }
+
+        //  the full diff alone, without canonical form short-circuit
+        Document expectedDocument = ExpectedDocumentCache.getInstance().getXML(expectedXML).copyDocument();
+        assertEquals(expectedDifferences,
+                XMLUtils.compareXML(expectedDocument, XMLUtils.xmlStringToDOM(actualXML, true)), description);
+    }
+
+    @Test
+    void verify_SameAsStringComparison() throws Exception {
+        for (String[] expectedAndActualXML: EXPECTED_AND_ACTUAL_XMLS) {
+            assertSameAsStringComparison(expectedAndActualXML[0], expectedAndActualXML[1]);
+        }
+    }
+
+    @Test
+    void canonicalizeXML_EqualOnlyForEqualDocuments() throws Exception {
+        for (String[] expectedAndActualXML: EXPECTED_AND_ACTUAL_XMLS) {
+            String canonicalForm = ExpectedDocumentCache.getInstance().getXML(expectedAndActualXML[0])
+                    .getCanonicalForm();
+            String actualCanonicalForm = XMLUtils.canonicalizeXML(
+                    XMLUtils.xmlStringToDOM(expectedAndActualXML[1], true));
+            if (canonicalForm != null && canonicalForm.equals(actualCanonicalForm)) {
+                assertEquals("", compareXMLStrings(expectedAndActualXML[0], expectedAndActualXML[1]),
+                        expectedAndActualXML[0] + " vs " + expectedAndActualXML[1]);
+            }
+        }
+        //  the whitespace normalized documents are matched by canonical form
+        assertEquals(ExpectedDocumentCache.getInstance().getXML("<a><b>1</b></a>").getCanonicalForm(),
+                XMLUtils.canonicalizeXML(XMLUtils.xmlStringToDOM("<a>\n  <b>1</b>\n</a>", true)));
+        //  placeholders are never matched by canonical form
+        assertNull(ExpectedDocumentCache.getInstance().getXML("<a><b>#{xmlunit.ignore}</b></a>").getCanonicalForm());
+    }
+
+    @Test
+    void verify_ConcurrentlyAgainstSameExpectedDocument() throws Exception {
+        String expectedXML = "<x:a xmlns:x=\"u\"><b c=\"1\"/><d>#{xmlunit.ignore}</d></x:a>";
+        String[] actualXMLs = {"<y:a xmlns:y=\"u\"><b c=\"1\"/><d>1</d></y:a>",
+                "<x:a xmlns:x=\"u\"><b c=\"2\"/><d>1</d></x:a>"};
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String actualXML = actualXMLs[i % 2];
+            futures.add(executor.submit(() -> {
+                assertEquals(compareXMLStrings(expectedXML, actualXML).isEmpty() ?
+                        TestResult.PASSED : TestResult.FAILED, verify(expectedXML, actualXML).getResult());
+                return null;
+            }));
+        }
+        for (Future<?> future: futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    void verify_MalformedActualXML() {
+        RuntimeException e = assertThrows(RuntimeException.class, () -> verify("<a/>", "<a>"));
+        assertNotNull(e.getMessage());
+    }
+}
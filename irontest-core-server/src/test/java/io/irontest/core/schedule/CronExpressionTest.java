@@ -0,0 +1,69 @@
+package io.irontest.core.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CronExpressionTest {
+    private static final LocalDateTime FRIDAY_NOON = LocalDateTime.of(2019, 3, 15, 12, 0, 30);
+
+    @Test
+    void next_EveryMinute() {
+        assertEquals(LocalDateTime.of(2019, 3, 15, 12, 1),
+                new CronExpression("* * * * *").next(FRIDAY_NOON));
+    }
+
+    @Test
+    void next_Step() {
+        assertEquals(LocalDateTime.of(2019, 3, 15, 12, 15),
+                new CronExpression("*/15 * * * *").next(FRIDAY_NOON));
+    }
+
+    @Test
+    void next_DailyRollsOverToNextDay() {
+        assertEquals(LocalDateTime.of(2019, 3, 16, 2, 30),
+                new CronExpression("30 2 * * *").next(FRIDAY_NOON));
+    }
+
+    @Test
+    void next_WeekdaysRange() {
+        //  Saturday and Sunday are skipped
+        assertEquals(LocalDateTime.of(2019, 3, 18, 9, 0),
+                new CronExpression("0 9 * * 1-5").next(FRIDAY_NOON));
+    }
+
+    @Test
+    void next_SundayAsSeven() {
+        assertEquals(LocalDateTime.of(2019, 3, 17, 0, 0),
+                new CronExpression("0 0 * * 7").next(FRIDAY_NOON));
+    }
+
+    @Test
+    void next_DayOfMonthOrDayOfWeek() {
+        //  the 20th, or a Monday, whichever comes first
+        assertEquals(LocalDateTime.of(2019, 3, 18, 0, 0),
+                new CronExpression("0 0 20 * 1").next(FRIDAY_NOON));
+    }
+
+    @Test
+    void next_ListAndMonth() {
+        assertEquals(LocalDateTime.of(2019, 6, 1, 0, 0),
+                new CronExpression("0 0 1 6,12 *").next(FRIDAY_NOON));
+    }
+
+    @Test
+    void next_NeverFires() {
+        assertThrows(IllegalArgumentException.class, () -> new CronExpression("0 0 30 2 *").next(FRIDAY_NOON));
+    }
+
+    @Test
+    void invalidExpression() {
+        assertThrows(IllegalArgumentException.class, () -> new CronExpression("0 0 * *"));
+        assertThrows(IllegalArgumentException.class, () -> new CronExpression("60 0 * * *"));
+        assertThrows(IllegalArgumentException.class, () -> new CronExpression("0 5-2 * * *"));
+        assertThrows(IllegalArgumentException.class, () -> new CronExpression("a * * * *"));
+    }
+}
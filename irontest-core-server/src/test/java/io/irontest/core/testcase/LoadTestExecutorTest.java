@@ -0,0 +1,53 @@
+package io.irontest.core.testcase;
+
+import io.irontest.core.testcase.LoadTestRunnerTest.StubbedLoadTestRunner;
+import io.irontest.models.testrun.LoadTestHandle;
+import io.irontest.models.testrun.LoadTestStatus;
+import org.junit.jupiter.api.Test;
+
+import static io.irontest.core.testcase.LoadTestRunnerTest.closedModelSettings;
+import static io.irontest.core.testcase.LoadTestRunnerTest.sleep;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoadTestExecutorTest {
+    private static void awaitEnd(LoadTestHandle handle) {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (handle.getStatus() == LoadTestStatus.RUNNING && System.currentTimeMillis() < deadline) {
+            sleep(10);
+        }
+    }
+
+    @Test
+    void submit_RejectedWhenMaxConcurrentRunsReached() {
+        LoadTestExecutor executor = new LoadTestExecutor(1);
+        LoadTestHandle handle = executor.submit(
+                new StubbedLoadTestRunner(closedModelSettings(1, 0, 60), () -> sleep(10)), 1);
+        assertThrows(IllegalArgumentException.class, () -> executor.submit(
+                new StubbedLoadTestRunner(closedModelSettings(1, 1, 0), () -> { }), 2));
+
+        executor.stop(handle.getId());
+        awaitEnd(handle);
+    }
+
+    @Test
+    void stop_EndsLoadTestAsStopped() {
+        LoadTestExecutor executor = new LoadTestExecutor(1);
+        LoadTestHandle handle = executor.submit(
+                new StubbedLoadTestRunner(closedModelSettings(2, 0, 60), () -> sleep(10)), 1);
+        assertSame(handle, executor.stop(handle.getId()));
+        awaitEnd(handle);
+        assertEquals(LoadTestStatus.STOPPED, handle.getStatus());
+        assertSame(handle, executor.findHandle(handle.getId()));
+        assertSame(handle, executor.stop(handle.getId()));
+        assertNull(executor.stop("no such handle"));
+    }
+
+    @Test
+    void submit_FinishedLoadTestIsNotStopped() {
+        LoadTestExecutor executor = new LoadTestExecutor(1);
+        LoadTestHandle handle = executor.submit(
+                new StubbedLoadTestRunner(closedModelSettings(1, 3, 0), () -> { }), 1);
+        awaitEnd(handle);
+        assertEquals(LoadTestStatus.FINISHED, handle.getStatus());
+    }
+}
@@ -0,0 +1,211 @@
+package io.irontest.core.testcase;
+
+import io.irontest.models.Testcase;
+import io.irontest.models.testrun.LoadTestRun;
+import io.irontest.models.testrun.LoadTestSettings;
+import io.irontest.models.testrun.LoadTestWorkloadModel;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LoadTestRunnerTest {
+    /**
+     * Load test runner with the test case run replaced by the given iteration body, and with nothing persisted.
+     */
+    static class StubbedLoadTestRunner extends LoadTestRunner {
+        private final Runnable iteration;
+
+        StubbedLoadTestRunner(LoadTestSettings settings, Runnable iteration) {
+            super(newTestcase(), settings, null, null, null, null);
+            this.iteration = iteration;
+        }
+
+        private static Testcase newTestcase() {
+            Testcase testcase = new Testcase();
+            testcase.setName("Test Case 1");
+            return testcase;
+        }
+
+        @Override
+        public LoadTestRun run() throws InterruptedException {
+            return runIterations();
+        }
+
+        @Override
+        void runIteration() {
+            iteration.run();
+        }
+
+        @Override
+        CompletableFuture<Void> runIterationAsync(Executor executor) {
+            return CompletableFuture.runAsync(iteration, executor);
+        }
+    }
+
+    static LoadTestSettings closedModelSettings(int virtualUsers, long iterations, long durationSeconds) {
+        LoadTestSettings settings = new LoadTestSettings();
+        settings.setVirtualUsers(virtualUsers);
+        settings.setIterations(iterations);
+        settings.setDurationSeconds(durationSeconds);
+        return settings;
+    }
+
+    private static LoadTestSettings openModelSettings(int virtualUsers, double iterationsPerSecond,
+                                                      long iterations, long durationSeconds) {
+        LoadTestSettings settings = new LoadTestSettings();
+        settings.setWorkloadModel(LoadTestWorkloadModel.OPEN);
+        settings.setVirtualUsers(virtualUsers);
+        settings.setIterationsPerSecond(iterationsPerSecond);
+        settings.setIterations(iterations);
+        settings.setDurationSeconds(durationSeconds);
+        return settings;
+    }
+
+    @Test
+    void openModel_RunsAllIterations() throws Exception {
+        AtomicInteger runIterations = new AtomicInteger();
+        LoadTestRun loadTestRun = new StubbedLoadTestRunner(openModelSettings(5, 200, 20, 0),
+                runIterations::incrementAndGet).runIterations();
+        assertEquals(20, runIterations.get());
+        assertEquals(0L, loadTestRun.getDroppedIterationCount());
+    }
+
+    @Test
+    void openModel_WaitsForIterationsNotHoldingThreads() throws Exception {
+        AtomicInteger completedIterations = new AtomicInteger();
+        ScheduledExecutorService responder = Executors.newSingleThreadScheduledExecutor();
+        LoadTestRunner loadTestRunner = new StubbedLoadTestRunner(openModelSettings(10, 200, 10, 0), () -> { }) {
+            @Override
+            CompletableFuture<Void> runIterationAsync(Executor executor) {
+                //  completed later by another thread, like a response received by the non-blocking HTTP client
+                CompletableFuture<Void> iteration = new CompletableFuture<>();
+                responder.schedule(() -> {
+                    completedIterations.incrementAndGet();
+                    iteration.complete(null);
+                }, 200, TimeUnit.MILLISECONDS);
+                return iteration;
+            }
+        };
+        try {
+            LoadTestRun loadTestRun = loadTestRunner.runIterations();
+            assertEquals(10, completedIterations.get());
+            assertEquals(0L, loadTestRun.getDroppedIterationCount());
+        } finally {
+            responder.shutdownNow();
+        }
+    }
+
+    @Test
+    void openModel_DropsArrivalsWhenVirtualUsersAreBusy() throws Exception {
+        AtomicInteger runIterations = new AtomicInteger();
+        LoadTestRun loadTestRun = new StubbedLoadTestRunner(openModelSettings(1, 50, 10, 0), () -> {
+            runIterations.incrementAndGet();
+            sleep(300);
+        }).runIterations();
+        assertTrue(runIterations.get() >= 1);
+        assertEquals(10L, runIterations.get() + loadTestRun.getDroppedIterationCount());
+    }
+
+    @Test
+    void openModel_StopsAtDuration() throws Exception {
+        long start = System.currentTimeMillis();
+        new StubbedLoadTestRunner(openModelSettings(2, 20, 0, 1), () -> { }).runIterations();
+        long elapsed = System.currentTimeMillis() - start;
+        assertTrue(elapsed >= 1000 && elapsed < 10000);
+    }
+
+    @Test
+    void openModel_IterationErrorIsReported() {
+        RuntimeException e = assertThrows(RuntimeException.class, () ->
+                new StubbedLoadTestRunner(openModelSettings(2, 100, 5, 0), () -> {
+                    throw new IllegalStateException("boom");
+                }).runIterations());
+        assertTrue(e.getMessage().contains("5 virtual user/iteration error(s)"));
+        assertEquals(IllegalStateException.class, e.getCause().getClass());
+    }
+
+    @Test
+    void closedModel_VirtualUserErrorIsReported() {
+        LoadTestSettings settings = new LoadTestSettings();
+        settings.setVirtualUsers(3);
+        settings.setIterations(6);
+        RuntimeException e = assertThrows(RuntimeException.class, () ->
+                new StubbedLoadTestRunner(settings, () -> {
+                    throw new AssertionError("boom");
+                }).runIterations());
+        assertTrue(e.getMessage().contains("3 virtual user/iteration error(s)"));
+        assertEquals(AssertionError.class, e.getCause().getClass());
+    }
+
+    @Test
+    void closedModel_RunsAllIterations() throws Exception {
+        LoadTestSettings settings = new LoadTestSettings();
+        settings.setVirtualUsers(4);
+        settings.setIterations(30);
+        AtomicInteger runIterations = new AtomicInteger();
+        new StubbedLoadTestRunner(settings, runIterations::incrementAndGet).runIterations();
+        assertEquals(30, runIterations.get());
+    }
+
+    @Test
+    void closedModel_StopsOnRequest() throws Exception {
+        AtomicInteger runIterations = new AtomicInteger();
+        StubbedLoadTestRunner loadTestRunner = new StubbedLoadTestRunner(closedModelSettings(2, 0, 60), () -> {
+            runIterations.incrementAndGet();
+            sleep(10);
+        });
+        long start = System.currentTimeMillis();
+        new Thread(() -> {
+            sleep(200);
+            loadTestRunner.stop();
+        }).start();
+        loadTestRunner.runIterations();
+        assertTrue(System.currentTimeMillis() - start < 10000);
+        assertTrue(loadTestRunner.isStopped());
+        int runIterationsWhenEnded = runIterations.get();
+        assertTrue(runIterationsWhenEnded > 0);
+        sleep(50);
+        assertEquals(runIterationsWhenEnded, runIterations.get());
+    }
+
+    @Test
+    void openModel_StopsOnRequest() throws Exception {
+        StubbedLoadTestRunner loadTestRunner = new StubbedLoadTestRunner(openModelSettings(2, 50, 0, 60), () -> { });
+        long start = System.currentTimeMillis();
+        new Thread(() -> {
+            sleep(200);
+            loadTestRunner.stop();
+        }).start();
+        loadTestRunner.runIterations();
+        assertTrue(System.currentTimeMillis() - start < 10000);
+    }
+
+    @Test
+    void validateSettings_NullSettings() {
+        assertThrows(IllegalArgumentException.class, () ->
+                new StubbedLoadTestRunner(null, () -> { }).validateSettings());
+    }
+
+    @Test
+    void validateSettings_OpenModelWithoutRate() {
+        assertThrows(IllegalArgumentException.class, () ->
+                new StubbedLoadTestRunner(openModelSettings(1, 0, 10, 0), () -> { }).validateSettings());
+    }
+
+    static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package io.irontest.core.teststep;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AMQPClientCacheTest {
+    @Test
+    void await_ZeroMeansNoTimeLimit() throws Exception {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        new Thread(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            future.complete(null);
+        }).start();
+        AMQPClientCache.await(future, 0);
+        assertTrue(future.isDone());
+    }
+
+    @Test
+    void await_TimesOut() {
+        assertThrows(TimeoutException.class, () -> AMQPClientCache.await(new CompletableFuture<>(), 50));
+    }
+
+    @Test
+    void unwrap_CheckedCauseWrapped() {
+        IOException cause = new IOException("failed");
+        Exception e = AMQPClientCache.unwrap(new ExecutionException(cause));
+        assertEquals("failed", e.getMessage());
+        assertSame(cause, e.getCause());
+    }
+
+    @Test
+    void unwrap_UncheckedCauseThrown() {
+        IllegalStateException cause = new IllegalStateException("failed");
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> AMQPClientCache.unwrap(new ExecutionException(cause)));
+        assertSame(cause, e);
+    }
+
+    @Test
+    void getStartedClient_ClientNotStartedIsEvicted() {
+        //  nothing listens on the port, so the client can't start
+        assertThrows(Exception.class, () -> AMQPClientCache.getInstance().getStartedClient("amqp://localhost:1", 2000));
+        assertEquals(0, AMQPClientCache.getInstance().getCachedClientCount());
+    }
+}
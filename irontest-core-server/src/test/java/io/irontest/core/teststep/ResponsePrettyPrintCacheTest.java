@@ -0,0 +1,34 @@
+package io.irontest.core.teststep;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResponsePrettyPrintCacheTest {
+    @Test
+    void get_PrettyPrintsHTTPBody() {
+        HTTPAPIResponse response = new HTTPAPIResponse();
+        response.setHttpBody("{\"a\":1}");
+        String key = ResponsePrettyPrintCache.getInstance().put(response);
+        assertNotNull(key);
+
+        HTTPAPIResponse prettyPrintedResponse = (HTTPAPIResponse) ResponsePrettyPrintCache.getInstance().get(key);
+        assertEquals("{" + System.lineSeparator() + "  \"a\" : 1" + System.lineSeparator() + "}",
+                prettyPrintedResponse.getHttpBody());
+        assertSame(prettyPrintedResponse, ResponsePrettyPrintCache.getInstance().get(key));
+    }
+
+    @Test
+    void put_NothingToPrettyPrint() {
+        assertNull(ResponsePrettyPrintCache.getInstance().put(null));
+        assertNull(ResponsePrettyPrintCache.getInstance().put(new DBAPIResponse()));
+    }
+
+    @Test
+    void get_UnknownKeyOrCleared() {
+        assertNull(ResponsePrettyPrintCache.getInstance().get("unknown"));
+        String key = ResponsePrettyPrintCache.getInstance().put(new HTTPAPIResponse());
+        ResponsePrettyPrintCache.getInstance().clear();
+        assertNull(ResponsePrettyPrintCache.getInstance().get(key));
+    }
+}
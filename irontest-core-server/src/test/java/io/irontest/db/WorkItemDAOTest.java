@@ -0,0 +1,148 @@
+package io.irontest.db;
+
+import io.irontest.models.testrun.WorkItem;
+import io.irontest.models.testrun.WorkItemStatus;
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.sqlobject.SqlObjectPlugin;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WorkItemDAOTest {
+    private static final String BATCH_ID = "batch1";
+
+    private WorkItemDAO workItemDAO;
+
+    @BeforeEach
+    void createQueue() {
+        Jdbi jdbi = Jdbi.create("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbi.installPlugin(new SqlObjectPlugin());
+        jdbi.useHandle(handle -> {
+            handle.execute("CREATE TABLE testcase (id BIGINT PRIMARY KEY)");
+            handle.execute("CREATE TABLE testcase_run (id BIGINT PRIMARY KEY)");
+            handle.execute("INSERT INTO testcase (id) VALUES (1)");
+        });
+        workItemDAO = jdbi.onDemand(WorkItemDAO.class);
+        workItemDAO.createSequenceIfNotExists();
+        workItemDAO.createTableIfNotExists();
+        workItemDAO.createStatusIndexIfNotExists();
+    }
+
+    private void queue(int count) {
+        List<WorkItem> workItems = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            WorkItem workItem = new WorkItem();
+            workItem.setBatchId(BATCH_ID);
+            workItem.setTestcaseId(1);
+            workItem.setStatus(WorkItemStatus.QUEUED);
+            workItems.add(workItem);
+        }
+        workItemDAO.insertBatch(workItems);
+    }
+
+    @Test
+    void lease_EachItemLeasedOnce() {
+        queue(3);
+        Set<Long> leasedIds = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            WorkItem workItem = workItemDAO.lease("worker" + i, 60, 3);
+            assertEquals(WorkItemStatus.LEASED, workItem.getStatus());
+            assertEquals("worker" + i, workItem.getWorkerId());
+            assertEquals(1, workItem.getAttempts());
+            leasedIds.add(workItem.getId());
+        }
+        assertEquals(3, leasedIds.size());
+        assertNull(workItemDAO.lease("worker3", 60, 3));
+    }
+
+    @Test
+    void lease_ConcurrentWorkersGetDistinctItems() throws Exception {
+        int itemCount = 60;
+        queue(itemCount);
+        int workerCount = 6;
+        ExecutorService workers = Executors.newFixedThreadPool(workerCount);
+        List<Future<List<Long>>> futures = new ArrayList<>();
+        for (int i = 0; i < workerCount; i++) {
+            String workerId = "worker" + i;
+            futures.add(workers.submit(() -> {
+                List<Long> leasedIds = new ArrayList<>();
+                WorkItem workItem;
+                int emptyLeases = 0;
+                //  a lease can come back empty when all tries lost to other workers, so stop on repeated empty leases
+                while (emptyLeases < 3) {
+                    workItem = workItemDAO.lease(workerId, 60, 3);
+                    if (workItem == null) {
+                        emptyLeases++;
+                    } else {
+                        leasedIds.add(workItem.getId());
+                    }
+                }
+                return leasedIds;
+            }));
+        }
+        List<Long> allLeasedIds = new ArrayList<>();
+        for (Future<List<Long>> future: futures) {
+            allLeasedIds.addAll(future.get(60, TimeUnit.SECONDS));
+        }
+        workers.shutdown();
+
+        assertEquals(itemCount, allLeasedIds.size());
+        assertEquals(itemCount, new HashSet<>(allLeasedIds).size());
+    }
+
+    @Test
+    void lease_ExpiredLeaseIsLeasableByAnotherWorker() {
+        queue(1);
+        WorkItem workItem = workItemDAO.lease("worker1", -1, 3);   //  the lease expires immediately
+        WorkItem reLeasedWorkItem = workItemDAO.lease("worker2", 60, 3);
+        assertEquals(workItem.getId(), reLeasedWorkItem.getId());
+        assertEquals("worker2", reLeasedWorkItem.getWorkerId());
+        assertEquals(2, reLeasedWorkItem.getAttempts());
+    }
+
+    @Test
+    void heartbeat_OnlyByLeaseOwner() {
+        queue(1);
+        WorkItem workItem = workItemDAO.lease("worker1", 60, 3);
+        assertTrue(workItemDAO.heartbeat(workItem.getId(), "worker1", 60));
+        assertFalse(workItemDAO.heartbeat(workItem.getId(), "worker2", 60));
+    }
+
+    @Test
+    void heartbeatAndFinish_FailAfterLeaseLost() {
+        queue(1);
+        WorkItem workItem = workItemDAO.lease("worker1", -1, 3);
+        workItemDAO.lease("worker2", 60, 3);
+
+        assertFalse(workItemDAO.heartbeat(workItem.getId(), "worker1", 60));
+        assertFalse(workItemDAO.finish(workItem.getId(), "worker1", null, "Passed", null));
+        assertTrue(workItemDAO.finish(workItem.getId(), "worker2", null, "Passed", null));
+        WorkItem finishedWorkItem = workItemDAO.findById(workItem.getId());
+        assertEquals(WorkItemStatus.FINISHED, finishedWorkItem.getStatus());
+        assertEquals("worker2", finishedWorkItem.getWorkerId());
+    }
+
+    @Test
+    void heartbeat_KeepsLeaseFromExpiring() {
+        queue(1);
+        WorkItem workItem = workItemDAO.lease("worker1", -1, 3);
+        assertTrue(workItemDAO.heartbeat(workItem.getId(), "worker1", 60));
+        assertNull(workItemDAO.lease("worker2", 60, 3));
+    }
+
+    @Test
+    void lease_AbandonsItemExpiredMaxAttemptsTimes() {
+        queue(1);
+        WorkItem workItem = workItemDAO.lease("worker1", -1, 2);
+        workItemDAO.lease("worker2", -1, 2);
+
+        assertNull(workItemDAO.lease("worker3", 60, 2));
+        WorkItem abandonedWorkItem = workItemDAO.findById(workItem.getId());
+        assertEquals(WorkItemStatus.ABANDONED, abandonedWorkItem.getStatus());
+        assertEquals("Lease expired 2 times.", abandonedWorkItem.getErrorMessage());
+    }
+}
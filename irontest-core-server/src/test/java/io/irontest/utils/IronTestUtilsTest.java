@@ -1,11 +1,26 @@
 package io.irontest.utils;
 
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.HttpHeaders;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import io.irontest.WireMockRunScopeRequestMatcher;
+import io.irontest.models.HTTPStubMapping;
 import org.junit.jupiter.api.Test;
 
 import javax.xml.transform.TransformerException;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static io.irontest.IronTestConstants.HTTP_HEADER_NAME_IRON_TEST_RUN_ID;
+import static io.irontest.IronTestConstants.WIREMOCK_STUB_METADATA_ATTR_NAME_IRON_TEST_ID;
+import static io.irontest.IronTestConstants.WIREMOCK_STUB_METADATA_ATTR_NAME_IRON_TEST_NUMBER;
+import static org.junit.jupiter.api.Assertions.*;
 
 public class IronTestUtilsTest {
     @Test
@@ -56,4 +71,64 @@ public class IronTestUtilsTest {
         String expectedOutput = input;
         assertEquals(expectedOutput, IronTestUtils.prettyPrintJSONOrXML(input));
     }
+
+    /**
+     * The instance should be the same as the spec's JSON round-trip copy, except for the added metadata.
+     */
+    @Test
+    void createStubInstance_CopiesAllSpecFields() {
+        StubMapping spec = StubMapping.buildFrom("{" +
+                "\"name\": \"stub1\", \"persistent\": true, \"priority\": 3," +
+                "\"scenarioName\": \"s1\", \"requiredScenarioState\": \"Started\", \"newScenarioState\": \"Done\"," +
+                "\"request\": {\"method\": \"GET\", \"urlPath\": \"/a\"}," +
+                "\"response\": {\"status\": 200, \"body\": \"ok\"}," +
+                "\"postServeActions\": {\"webhook\": {\"url\": \"http://localhost/b\"}}," +
+                "\"metadata\": {\"owner\": \"team1\"}}");
+        HTTPStubMapping stub = new HTTPStubMapping(12, 1, (short) 2, spec, null, (short) 1, false);
+
+        StubMapping expected = StubMapping.buildFrom(StubMapping.buildJsonStringFor(spec));
+        expected.getMetadata().put(WIREMOCK_STUB_METADATA_ATTR_NAME_IRON_TEST_ID, 12L);
+        expected.getMetadata().put(WIREMOCK_STUB_METADATA_ATTR_NAME_IRON_TEST_NUMBER, (short) 2);
+        expected.setDirty(false);
+        StubMapping stubInstance = IronTestUtils.createStubInstance(stub);
+        assertNotNull(stubInstance.getId());
+        expected.setId(stubInstance.getId());
+        assertEquals(expected, stubInstance);
+        assertEquals(StubMapping.buildJsonStringFor(expected), StubMapping.buildJsonStringFor(stubInstance));
+
+        //  the spec is not changed
+        assertEquals(1, spec.getMetadata().size());
+        assertNotEquals(stubInstance.getId(), IronTestUtils.createStubInstance(stub).getId());
+    }
+
+    private static Request request(String runIdHeaderValue) {
+        HttpHeaders headers = runIdHeaderValue == null ? new HttpHeaders() :
+                new HttpHeaders(new HttpHeader(HTTP_HEADER_NAME_IRON_TEST_RUN_ID, runIdHeaderValue));
+        return new LoggedRequest("/a", "http://localhost:8092/a", RequestMethod.GET, "127.0.0.1", headers,
+                new HashMap<>(), false, new Date(), new byte[0], new ArrayList<>());
+    }
+
+    private static boolean matchesRunScope(StubMapping stubInstance, Request request) {
+        Parameters parameters = stubInstance.getRequest().getCustomMatcher().getParameters();
+        return new WireMockRunScopeRequestMatcher().match(request, parameters).isExactMatch();
+    }
+
+    @Test
+    void createStubInstance_RunScoped() {
+        StubMapping spec = StubMapping.buildFrom("{\"scenarioName\": \"s1\", \"requiredScenarioState\": \"Started\"," +
+                "\"request\": {\"method\": \"GET\", \"urlPath\": \"/a\"}, \"response\": {\"status\": 200}}");
+        HTTPStubMapping stub = new HTTPStubMapping(12, 1, (short) 2, spec, null, (short) 1, false);
+
+        StubMapping stubInstance = IronTestUtils.createStubInstance(stub, "run1", false);
+        assertEquals("run1:s1", stubInstance.getScenarioName());
+        assertEquals("s1", spec.getScenarioName());
+        assertTrue(matchesRunScope(stubInstance, request("run1")));
+        assertFalse(matchesRunScope(stubInstance, request("run2")));
+        assertTrue(matchesRunScope(stubInstance, request(null)));
+
+        stubInstance = IronTestUtils.createStubInstance(stub, "run1", true);
+        assertTrue(matchesRunScope(stubInstance, request("run1")));
+        assertFalse(matchesRunScope(stubInstance, request("run2")));
+        assertFalse(matchesRunScope(stubInstance, request(null)));
+    }
 }
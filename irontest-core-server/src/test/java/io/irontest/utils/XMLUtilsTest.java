@@ -0,0 +1,60 @@
+package io.irontest.utils;
+
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class XMLUtilsTest {
+    private static String xxeDocument(String secret) throws Exception {
+        File secretFile = File.createTempFile("irontest-xxe", ".txt");
+        secretFile.deleteOnExit();
+        Files.write(secretFile.toPath(), secret.getBytes(StandardCharsets.UTF_8));
+        return "<!DOCTYPE a [<!ENTITY xxe SYSTEM \"" + secretFile.toURI() + "\">]><a>&xxe;</a>";
+    }
+
+    @Test
+    void xmlStringToDOM_DOCTYPEWithInternalEntity() throws Exception {
+        String input = "<!DOCTYPE a [<!ENTITY b \"bee\">]><a>&b;</a>";
+        assertEquals("bee", XMLUtils.xmlStringToDOM(input).getDocumentElement().getTextContent());
+        assertEquals("bee", XMLUtils.xmlStringToDOM(input, true).getDocumentElement().getTextContent());
+    }
+
+    @Test
+    void xmlStringToDOM_DoesNotResolveExternalEntity() throws Exception {
+        String input = xxeDocument("secret");
+        Document document = XMLUtils.xmlStringToDOM(input);
+        assertFalse(document.getDocumentElement().getTextContent().contains("secret"));
+        document = XMLUtils.xmlStringToDOM(input, true);
+        assertFalse(document.getDocumentElement().getTextContent().contains("secret"));
+    }
+
+    @Test
+    void xmlStringToDOM_DoesNotLoadExternalDTD() throws Exception {
+        //  nothing listens on the port, so loading the DTD would fail the parsing
+        String input = "<!DOCTYPE a SYSTEM \"http://localhost:1/a.dtd\"><a>1</a>";
+        assertEquals("1", XMLUtils.xmlStringToDOM(input).getDocumentElement().getTextContent());
+    }
+
+    @Test
+    void prettyPrintXML_DoesNotResolveExternalEntity() throws Exception {
+        assertFalse(XMLUtils.prettyPrintXML(xxeDocument("secret")).contains("secret"));
+    }
+
+    @Test
+    void compareXML_DoesNotResolveExternalEntity() throws Exception {
+        String control = xxeDocument("secret");
+        assertNotEquals("", XMLUtils.compareXML(control, "<a>secret</a>"));
+        assertNotEquals("", XMLUtils.compareXML(control, "<a>secret</a>", false));
+    }
+
+    @Test
+    void compareXML_WithoutDOCTYPE() {
+        assertEquals("", XMLUtils.compareXML("<a><b>1</b></a>", "<a>\n  <b>1</b>\n</a>"));
+        assertNotEquals("", XMLUtils.compareXML("<a><b>1</b></a>", "<a><b>2</b></a>"));
+    }
+}
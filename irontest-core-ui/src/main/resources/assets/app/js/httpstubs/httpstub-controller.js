@@ -169,6 +169,19 @@ angular.module('irontest').controller('HTTPStubController', ['$scope', 'HTTPStub
       $scope.update(isValid);
     };
 
+    //  random delay (on top of the fixed delay if any), of uniform or lognormal distribution
+    $scope.toggleDelayDistribution = function(type, isValid) {
+      var response = $scope.httpStub.spec.response;
+      if (response.delayDistribution && response.delayDistribution.type === type) {
+        delete response.delayDistribution;
+      } else if (type === 'uniform') {
+        response.delayDistribution = { type: 'uniform', lower: 0, upper: 0 };
+      } else {
+        response.delayDistribution = { type: 'lognormal', median: 0, sigma: 0.1 };
+      }
+      $scope.update(isValid);
+    };
+
     var createRequestHeader = function(gridMenuEvent) {
       var headersInGrid = $scope.requestHeaderGridOptions.data;
       var request = $scope.httpStub.spec.request;
@@ -68,6 +68,9 @@ angular.module('irontest').controller('MQTeststepActionController', ['$scope', '
       teststep.$run(function(basicTeststepRun) {
         $scope.steprun.response = basicTeststepRun.response;
         $scope.steprun.status = 'finished';
+        IronTestUtils.getPrettyPrintedResponse(basicTeststepRun, function(prettyPrintedResponse) {
+          $scope.steprun.response = prettyPrintedResponse;
+        });
         timer = $timeout(function() {
           $scope.steprun.status = null;
         }, 15000);
@@ -173,6 +173,9 @@ angular.module('irontest').controller('TeststepHTTPActionController', ['$scope',
       teststep.$run(function(basicTeststepRun) {
         $scope.steprun.status = 'finished';
         $scope.steprun.response = basicTeststepRun.response;
+        IronTestUtils.getPrettyPrintedResponse(basicTeststepRun, function(prettyPrintedResponse) {
+          $scope.steprun.response = prettyPrintedResponse;
+        });
       }, function(error) {
         $scope.steprun.status = 'failed';
         IronTestUtils.openErrorHTTPResponseModal(error);
@@ -1,7 +1,7 @@
 'use strict';
 
 angular.module('common')
-  .factory('IronTestUtils', function ($uibModal) {
+  .factory('IronTestUtils', function ($uibModal, $http) {
     return {
       //  Search elements in the array using property, and delete the first element that has the property
       //  with the property value. The elements must be objects, and the property must be of primitive type.
@@ -97,6 +97,19 @@ angular.module('common')
         return requestMethod && (requestMethod === 'POST' || requestMethod === 'PUT');
       },
 
+      //  Fetch the pretty-printed response of a standalone test step run from server side, if the response has
+      //  something to pretty-print (like a JSON or XML HTTP body). The callback is invoked with the pretty-printed
+      //  response; it is not invoked if there is nothing to pretty-print or if the fetching fails (the response is
+      //  then left as is).
+      getPrettyPrintedResponse: function(basicTeststepRun, callback) {
+        if (basicTeststepRun.prettyPrintKey) {
+          $http.get('api/prettyprintedresponses/' + basicTeststepRun.prettyPrintKey)
+            .then(function successCallback(response) {
+              callback(response.data.response);
+            });
+        }
+      },
+
       formatHTTPHeadersObj: function(headersObj) {
         var result = '';
         if (headersObj) {
@@ -0,0 +1,112 @@
+package io.irontest.core.teststep;
+
+import com.ibm.broker.config.proxy.ActivityLogEntry;
+import com.ibm.broker.config.proxy.ActivityLogProxy;
+import com.ibm.broker.config.proxy.MessageFlowProxy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Incrementally read a message flow's activity log.
+ * The activity log is a rolling window with the newest entry last, so on each poll the entries are read backwards
+ * from the newest one, stopping at the last seen entry. The last seen entry is identified by its timestamp together
+ * with the number of entries seen with that timestamp (the timestamps are not unique).
+ */
+public class IIBActivityLogPoller {
+    private MessageFlowProxy messageFlowProxy;
+    private Date lastSeenTimestamp;
+    private int lastSeenTimestampEntriesCount;
+
+    /**
+     * @param messageFlowProxy
+     * @param startPosition only entries after this position are read
+     */
+    public IIBActivityLogPoller(MessageFlowProxy messageFlowProxy, ActivityLogPosition startPosition) {
+        this.messageFlowProxy = messageFlowProxy;
+        this.lastSeenTimestamp = startPosition.getTimestamp();
+        this.lastSeenTimestampEntriesCount = startPosition.getEntriesCountAtTimestamp();
+    }
+
+    /**
+     * @param messageFlowProxy
+     * @return position of the newest entry in the message flow's activity log.
+     * @throws Exception
+     */
+    public static ActivityLogPosition getCurrentPosition(MessageFlowProxy messageFlowProxy) throws Exception {
+        ActivityLogProxy activityLogProxy = messageFlowProxy.getActivityLog();
+        if (activityLogProxy == null || activityLogProxy.getSize() == 0) {
+            return new ActivityLogPosition(new Date(0), 0);     //  any entry logged later is new
+        }
+
+        Date newestTimestamp = activityLogProxy.getLogEntry(activityLogProxy.getSize()).getTimestamp();
+        int entriesCountAtTimestamp = 0;
+        for (int i = activityLogProxy.getSize(); i >= 1; i--) {
+            if (activityLogProxy.getLogEntry(i).getTimestamp().equals(newestTimestamp)) {
+                entriesCountAtTimestamp++;
+            } else {
+                break;
+            }
+        }
+        return new ActivityLogPosition(newestTimestamp, entriesCountAtTimestamp);
+    }
+
+    /**
+     * @return entries logged since last poll, oldest first.
+     * @throws Exception
+     */
+    public List<ActivityLogEntry> poll() throws Exception {
+        List<ActivityLogEntry> newEntries = new ArrayList<>();
+        ActivityLogProxy activityLogProxy = messageFlowProxy.getActivityLog();
+        if (activityLogProxy == null) {
+            return newEntries;
+        }
+
+        //  read backwards until an entry before the last seen timestamp
+        List<ActivityLogEntry> entriesNewestFirst = new ArrayList<>();
+        int sameTimestampEntriesCount = 0;
+        for (int i = activityLogProxy.getSize(); i >= 1; i--) {
+            ActivityLogEntry logEntry = activityLogProxy.getLogEntry(i);
+            if (logEntry.getTimestamp().before(lastSeenTimestamp)) {
+                break;
+            } else if (logEntry.getTimestamp().equals(lastSeenTimestamp)) {
+                sameTimestampEntriesCount++;
+            }
+            entriesNewestFirst.add(logEntry);
+        }
+
+        //  of the entries with the last seen timestamp, the oldest ones have been read in previous polls
+        int unseenSameTimestampEntriesCount = sameTimestampEntriesCount -
+                Math.min(sameTimestampEntriesCount, lastSeenTimestampEntriesCount);
+        int keptSameTimestampEntriesCount = 0;
+        for (ActivityLogEntry logEntry: entriesNewestFirst) {
+            if (!logEntry.getTimestamp().equals(lastSeenTimestamp)) {
+                newEntries.add(logEntry);
+            } else if (keptSameTimestampEntriesCount < unseenSameTimestampEntriesCount) {
+                keptSameTimestampEntriesCount++;
+                newEntries.add(logEntry);
+            }
+        }
+        Collections.reverse(newEntries);
+
+        //  remember the newest entry
+        if (!newEntries.isEmpty()) {
+            Date newestTimestamp = newEntries.get(newEntries.size() - 1).getTimestamp();
+            if (newestTimestamp.equals(lastSeenTimestamp)) {
+                lastSeenTimestampEntriesCount = sameTimestampEntriesCount;
+            } else {
+                lastSeenTimestamp = newestTimestamp;
+                lastSeenTimestampEntriesCount = 0;
+                for (ActivityLogEntry logEntry: newEntries) {
+                    if (logEntry.getTimestamp().equals(newestTimestamp)) {
+                        lastSeenTimestampEntriesCount++;
+                    }
+                }
+            }
+        }
+
+        return newEntries;
+    }
+}
@@ -1,19 +1,18 @@
 package io.irontest.core.teststep;
 
 import com.ibm.broker.config.proxy.*;
-import io.irontest.core.testcase.TestcaseRunContext;
 import io.irontest.models.teststep.IIBTeststepProperties;
 import io.irontest.models.teststep.Teststep;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.time.DateUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Date;
+import java.util.List;
 
 public class IIBTeststepRunnerBase extends TeststepRunner {
     private static final Logger LOGGER = LoggerFactory.getLogger(IIBTeststepRunnerBase.class);
-    private static final int ACTIVITY_LOG_POLLING_TIMEOUT = 30;    // in seconds
+    private static final long ACTIVITY_LOG_MIN_POLLING_INTERVAL = 50;     //  in milliseconds
+    private static final long ACTIVITY_LOG_MAX_POLLING_INTERVAL = 1000;   //  in milliseconds
     private BrokerConnectionParameters bcp;
 
     protected void setBrokerConnectionParameters(BrokerConnectionParameters bcp) {
@@ -49,8 +48,11 @@ public class IIBTeststepRunnerBase extends TeststepRunner {
                 case Teststep.ACTION_STOP:
                     stop(messageFlowProxy, basicTeststepRun);
                     break;
+                case Teststep.ACTION_CAPTURE_ACTIVITY_LOG_POSITION:
+                    captureActivityLogPosition(messageFlowProxy, basicTeststepRun);
+                    break;
                 case Teststep.ACTION_WAIT_FOR_PROCESSING_COMPLETION:
-                    waitForProcessingCompletion(messageFlowProxy);
+                    waitForProcessingCompletion(messageFlowProxy, teststepProperties);
                     break;
                 default:
                     throw new Exception("Unrecognized action " + action);
@@ -121,54 +123,65 @@ public class IIBTeststepRunnerBase extends TeststepRunner {
         }
     }
 
-    private void waitForProcessingCompletion(MessageFlowProxy messageFlowProxy)
+    /**
+     * Capture the message flow's activity log position, as reference point for the corresponding
+     * wait-for-processing-completion step (which has the same test step id) to read new activity log entries.
+     * @param messageFlowProxy
+     * @param basicTeststepRun
+     * @throws Exception
+     */
+    private void captureActivityLogPosition(MessageFlowProxy messageFlowProxy, BasicTeststepRun basicTeststepRun)
             throws Exception {
+        ActivityLogPosition position = IIBActivityLogPoller.getCurrentPosition(messageFlowProxy);
+        getTestcaseRunContext().getActivityLogPositions().put(getTeststep().getId(), position);
+        basicTeststepRun.setInfoMessage("Activity log position captured");
+    }
+
+    private void waitForProcessingCompletion(MessageFlowProxy messageFlowProxy,
+                                             IIBTeststepProperties teststepProperties) throws Exception {
         if (!messageFlowProxy.isRunning()) {
             throw new Exception("Message flow not running.");
         } else {
-            TestcaseRunContext testcaseRunContext = getTestcaseRunContext();
-            Date referenceTime = testcaseRunContext.getTestcaseIndividualRunStartTime() == null ?
-                    testcaseRunContext.getTestcaseRunStartTime() : testcaseRunContext.getTestcaseIndividualRunStartTime();
-            Date pollingEndTime = DateUtils.addSeconds(new Date(), ACTIVITY_LOG_POLLING_TIMEOUT);
+            ActivityLogPosition startPosition = getTestcaseRunContext().getActivityLogPositions().get(getTeststep().getId());
+            if (startPosition == null) {
+                throw new Exception("Activity log position at test case run start not captured.");
+            }
+            long quietPeriod = teststepProperties.getProcessingCompletionQuietPeriod() * 1000L;
+            long pollingEndTime = System.currentTimeMillis() + teststepProperties.getProcessingCompletionTimeout() * 1000L;
+            IIBActivityLogPoller activityLogPoller = new IIBActivityLogPoller(messageFlowProxy, startPosition);
             ActivityLogEntry processingCompletionSignal = null;
             ActivityLogEntry potentialProcessingCompletionSignal = null;
-            int previousNewLogsCount = 0;
-            Date noNewLogsStartTime = null;
-            boolean rollbackLogObserved = false;
-            while (System.currentTimeMillis() < pollingEndTime.getTime()) {
-                ActivityLogProxy activityLogProxy = messageFlowProxy.getActivityLog();
-                if (activityLogProxy != null) {
-                    int newLogsCount = 0;            //  the number of logs after reference time
-                    for (int i = 1; i <= activityLogProxy.getSize(); i++) {
-                        ActivityLogEntry logEntry = activityLogProxy.getLogEntry(i);
-                        if (logEntry.getTimestamp().after(referenceTime)) {
-                            newLogsCount++;
-                            if (11506 == logEntry.getMessageNumber()) {
-                                processingCompletionSignal = logEntry;
-                                break;
-                            } else if (11507 == logEntry.getMessageNumber()) {
-                                potentialProcessingCompletionSignal = logEntry;
-                                rollbackLogObserved = true;
-                            }
+            long lastNewLogsTime = System.currentTimeMillis();
+            long pollingInterval = ACTIVITY_LOG_MIN_POLLING_INTERVAL;
+            while (true) {
+                List<ActivityLogEntry> newLogEntries = activityLogPoller.poll();
+                long now = System.currentTimeMillis();
+                if (newLogEntries.isEmpty()) {
+                    //  back off while the message flow is quiet
+                    pollingInterval = Math.min(pollingInterval * 2, ACTIVITY_LOG_MAX_POLLING_INTERVAL);
+                } else {
+                    lastNewLogsTime = now;
+                    pollingInterval = ACTIVITY_LOG_MIN_POLLING_INTERVAL;
+                    for (ActivityLogEntry logEntry: newLogEntries) {
+                        if (11506 == logEntry.getMessageNumber()) {
+                            processingCompletionSignal = logEntry;
+                            break;
+                        } else if (11507 == logEntry.getMessageNumber()) {
+                            potentialProcessingCompletionSignal = logEntry;
                         }
                     }
-
-                    if (newLogsCount > previousNewLogsCount) {
-                        previousNewLogsCount = newLogsCount;
-                        noNewLogsStartTime = new Date();
-                    } else if (newLogsCount < previousNewLogsCount) {
-                        throw new RuntimeException("unexpected situation");
-                    }
                 }
 
-                if (rollbackLogObserved && new Date().after(DateUtils.addSeconds(noNewLogsStartTime, 2))) {
-                    //  no new logs for 2 seconds after rollback log
+                if (processingCompletionSignal == null && potentialProcessingCompletionSignal != null &&
+                        now >= lastNewLogsTime + quietPeriod) {
+                    //  no new logs for the quiet period after rollback log
                     processingCompletionSignal = potentialProcessingCompletionSignal;
                 }
 
-                if (processingCompletionSignal != null) {
+                if (processingCompletionSignal != null || now >= pollingEndTime) {
                     break;
                 }
+                Thread.sleep(Math.min(pollingInterval, pollingEndTime - now));
             }
             if (processingCompletionSignal == null) {
                 throw new Exception("Message flow activity log polling timeout. No processing completion signal found.");